@@ -0,0 +1,119 @@
+package root.cyb.mh.attendancesystem.bench;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import root.cyb.mh.attendancesystem.model.AttendanceLog;
+import root.cyb.mh.attendancesystem.repository.AttendanceLogBatchRepositoryImpl;
+import root.cyb.mh.attendancesystem.repository.DatabaseDialect;
+import root.cyb.mh.attendancesystem.service.AttlogParser;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rows/sec of the ATTLOG write path: parse a push, collapse repeats and write
+ * it with one batched INSERT ... ON CONFLICT DO NOTHING, as AdmsService does.
+ *
+ * Needs PostgreSQL (bench.jdbc.url, bench.jdbc.user, bench.jdbc.password).
+ * Everything happens in a separate jmh_bench schema, emptied before every
+ * push, so the application's own tables are never touched:
+ *
+ * ./gradlew jmh -PjmhArgs='AttlogIngestBenchmark -jvmArgsAppend -Dbench.jdbc.url=jdbc:postgresql://host/db'
+ *
+ * The "rows" counter is the rows/sec figure.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class AttlogIngestBenchmark {
+
+    @Param({ "1000", "10000", "100000" })
+    public int lines;
+
+    private String push;
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private AttendanceLogBatchRepositoryImpl repository;
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Rows {
+        public long rows;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String url = System.getProperty("bench.jdbc.url",
+                "jdbc:postgresql://localhost:5432/postgres");
+        dataSource = new SingleConnectionDataSource(url, System.getProperty("bench.jdbc.user", "postgres"),
+                System.getProperty("bench.jdbc.password", "root"), true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE SCHEMA IF NOT EXISTS jmh_bench");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS jmh_bench.attendance_log (id BIGSERIAL PRIMARY KEY,"
+                + " employee_id VARCHAR(255), timestamp TIMESTAMP, device_id BIGINT,"
+                + " CONSTRAINT uk_attendance_log_punch UNIQUE (employee_id, timestamp, device_id))");
+        // One kept-open connection, so the unqualified table name resolves here
+        jdbcTemplate.execute("SET search_path TO jmh_bench");
+
+        DatabaseDialect dialect = new DatabaseDialect();
+        BenchSupport.inject(dialect, "jdbcTemplate", jdbcTemplate);
+        repository = new AttendanceLogBatchRepositoryImpl();
+        BenchSupport.inject(repository, "jdbcTemplate", jdbcTemplate);
+        BenchSupport.inject(repository, "databaseDialect", dialect);
+        push = BenchSupport.attlogPush(lines, 2_000, false);
+    }
+
+    @Setup(Level.Invocation)
+    public void emptyTable() {
+        jdbcTemplate.execute("TRUNCATE jmh_bench.attendance_log");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        dataSource.destroy();
+    }
+
+    @Benchmark
+    public int ingest(Rows rows) throws IOException {
+        Map<String, AttendanceLog> batch = new LinkedHashMap<>();
+        AttlogParser.parse(new StringReader(push), new AttlogParser.PunchHandler() {
+            @Override
+            public void onPunch(String employeeId, LocalDateTime timestamp) {
+                AttendanceLog punch = new AttendanceLog();
+                punch.setEmployeeId(employeeId);
+                punch.setTimestamp(timestamp);
+                punch.setDeviceId(1L);
+                batch.putIfAbsent(employeeId + '|' + timestamp, punch);
+            }
+
+            @Override
+            public void onRejected(String line) {
+            }
+        });
+        int accepted = repository.insertIgnoringDuplicates(new ArrayList<>(batch.values())).size();
+        rows.rows += lines;
+        return accepted;
+    }
+}
@@ -0,0 +1,96 @@
+package root.cyb.mh.attendancesystem.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import root.cyb.mh.attendancesystem.service.AttlogParser;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to parse one ATTLOG push with AttlogParser, against the previous
+ * split/regex/DateTimeFormatter path kept here as a baseline. Pure CPU, no
+ * database needed:
+ *
+ * ./gradlew jmh -PjmhArgs='AttlogParserBenchmark -prof gc'
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AttlogParserBenchmark {
+
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    @Param({ "1000", "10000" })
+    public int lines;
+
+    @Param({ "false", "true" })
+    public boolean keyValue;
+
+    private String push;
+
+    @Setup
+    public void setUp() {
+        push = BenchSupport.attlogPush(lines, 500, keyValue);
+    }
+
+    @Benchmark
+    public void streaming(Blackhole blackhole) throws IOException {
+        AttlogParser.parse(new StringReader(push), new AttlogParser.PunchHandler() {
+            @Override
+            public void onPunch(String employeeId, LocalDateTime timestamp) {
+                blackhole.consume(employeeId);
+                blackhole.consume(timestamp);
+            }
+
+            @Override
+            public void onRejected(String line) {
+                blackhole.consume(line);
+            }
+        });
+    }
+
+    @Benchmark
+    public void splitAndFormatter(Blackhole blackhole) {
+        for (String line : push.split("\\r?\\n")) {
+            if (line.trim().isEmpty())
+                continue;
+            String employeeId = null;
+            String timeStr = null;
+            String[] tokens = line.split("\\t");
+            if (tokens.length >= 2) {
+                if (!line.contains("PIN=") && !line.contains("Time=")) {
+                    employeeId = tokens[0].trim();
+                    timeStr = tokens[1].trim();
+                } else {
+                    for (String token : tokens) {
+                        if (token.startsWith("PIN="))
+                            employeeId = token.substring(4);
+                        else if (token.startsWith("Time="))
+                            timeStr = token.substring(5);
+                    }
+                }
+            }
+            if (employeeId != null && !employeeId.isEmpty() && timeStr != null) {
+                blackhole.consume(employeeId);
+                blackhole.consume(LocalDateTime.parse(timeStr, TIMESTAMP_FORMAT));
+            }
+        }
+    }
+}
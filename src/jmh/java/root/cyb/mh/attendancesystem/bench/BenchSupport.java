@@ -0,0 +1,53 @@
+package root.cyb.mh.attendancesystem.bench;
+
+import java.lang.reflect.Field;
+import java.time.LocalDateTime;
+import java.util.Random;
+
+/**
+ * Shared data generators and wiring for the benchmarks. Data is generated
+ * from a fixed seed so runs are comparable.
+ */
+final class BenchSupport {
+
+    static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 8, 0);
+
+    private BenchSupport() {
+    }
+
+    /**
+     * An ATTLOG push body of the given number of lines, in the raw positional
+     * format terminals send, spread over the given employees and 30 days.
+     */
+    static String attlogPush(int lines, int employees, boolean keyValue) {
+        Random random = new Random(42);
+        StringBuilder body = new StringBuilder(lines * 48);
+        for (int i = 0; i < lines; i++) {
+            String pin = Integer.toString(1 + random.nextInt(employees));
+            String time = timestamp(START.plusDays(random.nextInt(30)).plusSeconds(random.nextInt(36_000)));
+            if (keyValue)
+                body.append("PIN=").append(pin).append("\tTime=").append(time).append("\tStatus=0\tVerify=1\r\n");
+            else
+                body.append(pin).append('\t').append(time).append("\t0\t1\t0\t0\t0\r\n");
+        }
+        return body.toString();
+    }
+
+    static String timestamp(LocalDateTime t) {
+        return String.format("%04d-%02d-%02d %02d:%02d:%02d", t.getYear(), t.getMonthValue(), t.getDayOfMonth(),
+                t.getHour(), t.getMinute(), t.getSecond());
+    }
+
+    /**
+     * Sets an @Autowired field on a component built outside Spring.
+     */
+    static void inject(Object target, String fieldName, Object value) {
+        try {
+            Field field = target.getClass().getDeclaredField(fieldName);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot set " + fieldName + " on " + target.getClass().getName(), e);
+        }
+    }
+}
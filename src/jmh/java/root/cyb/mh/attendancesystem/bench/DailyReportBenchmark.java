@@ -0,0 +1,137 @@
+package root.cyb.mh.attendancesystem.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import root.cyb.mh.attendancesystem.AttendanceSystemApplication;
+import root.cyb.mh.attendancesystem.dto.DailyAttendanceDto;
+import root.cyb.mh.attendancesystem.model.Employee;
+import root.cyb.mh.attendancesystem.repository.EmployeeRepository;
+import root.cyb.mh.attendancesystem.service.DailyAttendanceMaterializer;
+import root.cyb.mh.attendancesystem.service.ReportService;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one daily report as the stored punch history grows. The day and the
+ * headcount are fixed; only the rows on other days change. Each invocation
+ * drops the day's facts first, so getDailyReport rebuilds them through
+ * prepareDay and getFacts, reading that day's punches with the day-scoped
+ * range query. Timings should stay flat across the history sizes.
+ *
+ * Boots the application against PostgreSQL (bench.jdbc.url, bench.jdbc.user,
+ * bench.jdbc.password) in a jmh_daily_<history> schema, seeded on first use
+ * and reused by later runs. The application's own tables are never touched:
+ *
+ * ./gradlew jmh -PjmhArgs='DailyReportBenchmark -jvmArgsAppend -Dbench.jdbc.url=jdbc:postgresql://host/db'
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class DailyReportBenchmark {
+
+    private static final int EMPLOYEES = 500;
+    private static final LocalDate DAY = LocalDate.of(2025, 6, 2);
+
+    // Punches on days other than DAY
+    @Param({ "100000", "1000000", "10000000" })
+    public long history;
+
+    private ConfigurableApplicationContext context;
+    private ReportService reportService;
+    private DailyAttendanceMaterializer materializer;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String url = System.getProperty("bench.jdbc.url", "jdbc:postgresql://localhost:5432/postgres");
+        String user = System.getProperty("bench.jdbc.user", "postgres");
+        String password = System.getProperty("bench.jdbc.password", "root");
+        String schema = "jmh_daily_" + history;
+        new JdbcTemplate(new DriverManagerDataSource(url, user, password))
+                .execute("CREATE SCHEMA IF NOT EXISTS " + schema);
+
+        context = new SpringApplicationBuilder(AttendanceSystemApplication.class)
+                .properties("spring.datasource.url=" + url + (url.contains("?") ? "&" : "?") + "currentSchema=" + schema,
+                        "spring.datasource.username=" + user,
+                        "spring.datasource.password=" + password,
+                        "server.port=0",
+                        "app.demo=false",
+                        "app.rollup.rebuild-months=0",
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN")
+                .run();
+        reportService = context.getBean(ReportService.class);
+        materializer = context.getBean(DailyAttendanceMaterializer.class);
+        seed(context.getBean(JdbcTemplate.class), context.getBean(EmployeeRepository.class));
+    }
+
+    // Idempotent: reseeds only when the schema does not hold exactly this data set
+    private void seed(JdbcTemplate jdbc, EmployeeRepository employeeRepository) {
+        long dayPunches = EMPLOYEES * 2L;
+        Long stored = jdbc.queryForObject("SELECT COUNT(*) FROM attendance_log", Long.class);
+        if (employeeRepository.count() == EMPLOYEES && stored != null && stored == history + dayPunches)
+            return;
+
+        jdbc.execute("TRUNCATE attendance_log, daily_attendance_fact, monthly_attendance_rollup");
+        employeeRepository.deleteAll();
+        List<Employee> employees = new ArrayList<>(EMPLOYEES);
+        for (int i = 1; i <= EMPLOYEES; i++) {
+            Employee emp = new Employee();
+            emp.setId(Integer.toString(i));
+            emp.setName("Employee " + i);
+            employees.add(emp);
+        }
+        employeeRepository.saveAll(employees);
+
+        // Row g: employee g % EMPLOYEES, in or out on day 1 + (g / EMPLOYEES) / 2 before DAY
+        Timestamp day = Timestamp.valueOf(DAY.atTime(8, 0));
+        jdbc.update("INSERT INTO attendance_log (employee_id, timestamp, device_id)"
+                + " SELECT (1 + g % ?)::text, ? - make_interval(days => 1 + (g / ?) / 2, hours => -9 * ((g / ?) % 2)), 1"
+                + " FROM generate_series(0, CAST(? AS int) - 1) g",
+                EMPLOYEES, day, EMPLOYEES, EMPLOYEES, history);
+        // The report day itself: everyone in at about 08:00 and out at about 17:00
+        jdbc.update("INSERT INTO attendance_log (employee_id, timestamp, device_id)"
+                + " SELECT (1 + g % ?)::text, ? + make_interval(mins => g % 45, hours => 9 * (g / ?)), 1"
+                + " FROM generate_series(0, CAST(? AS int) - 1) g",
+                EMPLOYEES, day, EMPLOYEES, dayPunches);
+        jdbc.execute("ANALYZE attendance_log");
+    }
+
+    @Setup(Level.Invocation)
+    public void dropDayFacts() {
+        materializer.invalidateDate(DAY);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<DailyAttendanceDto> dailyReport() {
+        return reportService.getDailyReport(DAY, null, null, PageRequest.of(0, 50));
+    }
+}
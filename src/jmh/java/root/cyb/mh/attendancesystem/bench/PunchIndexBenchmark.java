@@ -0,0 +1,146 @@
+package root.cyb.mh.attendancesystem.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import root.cyb.mh.attendancesystem.model.AttendanceLog;
+import root.cyb.mh.attendancesystem.service.PunchIndex;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Bucketing a month of punches per employee and day, then reading count,
+ * first in and last out for every employee-day as the fact builder does.
+ *
+ * PunchIndex is compared with the nested HashMap of punch lists it replaced,
+ * and with the original monthly report, which filtered the whole log list for
+ * every employee and day: O(employees * days * logs) against O(logs). That
+ * baseline runs as single shots; at 20,000 employees one shot takes many
+ * minutes, so -p employees=500,5000 skips it.
+ *
+ * ./gradlew jmh -PjmhArgs='PunchIndexBenchmark -prof gc'
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PunchIndexBenchmark {
+
+    private static final int DAYS = 31;
+
+    @Param({ "500", "5000", "20000" })
+    public int employees;
+
+    private LocalDate from;
+    private LocalDate to;
+    private List<String> ids;
+    private String[] punchEmployee;
+    private LocalDateTime[] punchTime;
+    private List<AttendanceLog> logs;
+
+    @Setup
+    public void setUp() {
+        from = BenchSupport.START.toLocalDate();
+        to = from.plusDays(DAYS - 1);
+        ids = new ArrayList<>(employees);
+        for (int i = 1; i <= employees; i++) {
+            ids.add(Integer.toString(i));
+        }
+        // In and out on every day, ordered by employee then time like the query
+        punchEmployee = new String[employees * DAYS * 2];
+        punchTime = new LocalDateTime[punchEmployee.length];
+        int n = 0;
+        for (String id : ids) {
+            for (int day = 0; day < DAYS; day++) {
+                LocalDateTime morning = BenchSupport.START.plusDays(day).plusMinutes(n % 90);
+                punchEmployee[n] = id;
+                punchTime[n++] = morning;
+                punchEmployee[n] = id;
+                punchTime[n++] = morning.plusHours(9);
+            }
+        }
+        logs = new ArrayList<>(punchEmployee.length);
+        for (int i = 0; i < punchEmployee.length; i++) {
+            AttendanceLog log = new AttendanceLog();
+            log.setEmployeeId(punchEmployee[i]);
+            log.setTimestamp(punchTime[i]);
+            logs.add(log);
+        }
+    }
+
+    @Benchmark
+    public void punchIndex(Blackhole blackhole) {
+        PunchIndex index = new PunchIndex(from, to);
+        for (int i = 0; i < punchEmployee.length; i++) {
+            index.add(punchEmployee[i], punchTime[i]);
+        }
+        for (String id : ids) {
+            for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+                blackhole.consume(index.count(id, date));
+                blackhole.consume(index.firstIn(id, date));
+                blackhole.consume(index.lastOut(id, date));
+            }
+        }
+    }
+
+    @Benchmark
+    public void nestedMaps(Blackhole blackhole) {
+        Map<String, Map<LocalDate, List<LocalDateTime>>> punches = new HashMap<>();
+        for (int i = 0; i < punchEmployee.length; i++) {
+            punches.computeIfAbsent(punchEmployee[i], k -> new HashMap<>())
+                    .computeIfAbsent(punchTime[i].toLocalDate(), k -> new ArrayList<>()).add(punchTime[i]);
+        }
+        for (String id : ids) {
+            Map<LocalDate, List<LocalDateTime>> empPunches = punches.getOrDefault(id, Map.of());
+            for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+                List<LocalDateTime> daily = empPunches.getOrDefault(date, List.of());
+                blackhole.consume(daily.size());
+                if (!daily.isEmpty()) {
+                    blackhole.consume(daily.get(0).toLocalTime());
+                    blackhole.consume(daily.get(daily.size() - 1).toLocalTime());
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public void streamFilterPerEmployeeDay(Blackhole blackhole) {
+        // As getMonthlyReport did before the day facts: one scan of all logs per employee-day
+        for (String id : ids) {
+            for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+                LocalDate day = date;
+                List<AttendanceLog> daily = logs.stream()
+                        .filter(l -> l.getEmployeeId().equals(id) && l.getTimestamp().toLocalDate().equals(day))
+                        .sorted(Comparator.comparing(AttendanceLog::getTimestamp))
+                        .collect(Collectors.toList());
+                blackhole.consume(daily.size());
+                if (!daily.isEmpty()) {
+                    blackhole.consume(daily.get(0).getTimestamp().toLocalTime());
+                    blackhole.consume(daily.get(daily.size() - 1).getTimestamp().toLocalTime());
+                }
+            }
+        }
+    }
+}
@@ -24,7 +24,9 @@ public class SecurityConfig {
                                                 .requestMatchers("/login", "/error").permitAll()
                                                 .requestMatchers("/iclock/**").permitAll() // Allow ADMS Device
                                                                                            // Communication
+                                                .requestMatchers("/actuator/health").permitAll()
                                                 // Admin Only Areas
+                                                .requestMatchers("/actuator/**").hasRole("ADMIN")
                                                 .requestMatchers("/settings/**", "/users/**", "/devices/**")
                                                 .hasRole("ADMIN")
                                                 .requestMatchers("/employees/add", "/employees/edit/**",
@@ -1,10 +1,26 @@
 package root.cyb.mh.attendancesystem.controller;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.bind.annotation.*;
 import root.cyb.mh.attendancesystem.service.AdmsService;
+import root.cyb.mh.attendancesystem.service.IngestSpoolService;
 import jakarta.servlet.http.HttpServletRequest;
 
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 @RestController
 @RequestMapping("/iclock")
 public class AdmsController {
@@ -12,26 +28,121 @@ public class AdmsController {
     @Autowired
     private AdmsService admsService;
 
+    @Autowired
+    private IngestSpoolService ingestSpoolService;
+
+    // Run device requests on virtual threads so a few hundred terminals do not
+    // tie up Tomcat's platform threads (the admin UI shares that pool)
+    @Value("${app.adms.virtual-threads.enabled:false}")
+    private boolean virtualThreads;
+
+    // 0 answers getrequest immediately; otherwise hold it until a command is
+    // queued for the SN (keep below spring.mvc.async.request-timeout)
+    @Value("${app.adms.getrequest-hold-seconds:0}")
+    private int getrequestHoldSeconds;
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    public void init() {
+        if (virtualThreads) {
+            executor = Executors.newVirtualThreadPerTaskExecutor();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
     // Handshake
     @GetMapping("/cdata")
-    public String handshake(HttpServletRequest request) {
-        return "OK";
+    public CompletableFuture<String> handshake(@RequestParam(required = false) String SN,
+            HttpServletRequest request) {
+        return run(() -> admsService.handshake(SN));
     }
 
     // Data Push
     @PostMapping("/cdata")
-    public String receiveData(@RequestParam(required = false) String SN,
+    public CompletableFuture<ResponseEntity<String>> receiveData(@RequestParam(required = false) String SN,
             @RequestParam(required = false) String table,
-            @RequestBody(required = false) String body,
+            @RequestParam(required = false) String Stamp,
             HttpServletRequest request) {
-        // Body might be null/empty, just pass safety empty string
-        return admsService.processCdata(SN, table, body != null ? body : "");
+        return run(() -> storeData(SN, table, Stamp, request));
+    }
+
+    private ResponseEntity<String> storeData(String SN, String table, String Stamp, HttpServletRequest request)
+            throws IOException {
+        if ("attlog".equalsIgnoreCase(table) && (SN == null || SN.isEmpty())) {
+            // Punches must be attributable to a terminal; not spooled either
+            return ResponseEntity.badRequest().body(AdmsService.MISSING_SN_RESPONSE);
+        }
+        if (!ingestSpoolService.isEnabled()) {
+            if ("attlog".equalsIgnoreCase(table)) {
+                // Parse large punch pushes straight off the wire
+                return ResponseEntity.ok(admsService.processAttlog(SN, Stamp,
+                        new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8)));
+            }
+            return ResponseEntity.ok(admsService.processCdata(SN, table, Stamp, readBody(request)));
+        }
+
+        String data = readBody(request);
+
+        // Nothing to persist: acknowledge without touching the spool
+        if (table == null || data.isBlank()) {
+            return ResponseEntity.ok("OK");
+        }
+
+        // Spool and acknowledge; workers write to the database afterwards
+        if (!ingestSpoolService.offer(SN, table, Stamp, data)) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header("Retry-After", String.valueOf(ingestSpoolService.getRetryAfterSeconds()))
+                    .body("ERROR: server busy, retry later");
+        }
+        return ResponseEntity.ok("OK");
+    }
+
+    private static String readBody(HttpServletRequest request) throws IOException {
+        return StreamUtils.copyToString(request.getInputStream(), StandardCharsets.UTF_8);
     }
 
     // Command Request (Device asks "Any commands for me?")
     @GetMapping("/getrequest")
-    public String getRequest(@RequestParam String SN) {
-        return admsService.getPendingCommand();
+    public CompletableFuture<String> getRequest(@RequestParam String SN) {
+        if (getrequestHoldSeconds > 0) {
+            return admsService.awaitPendingCommand(SN, getrequestHoldSeconds * 1000L);
+        }
+        return run(() -> admsService.getPendingCommand(SN));
+    }
+
+    // Command Result (Device reports "ID=...&Return=...&CMD=..." per executed command)
+    @PostMapping("/devicecmd")
+    public CompletableFuture<String> commandResult(@RequestParam String SN,
+            @RequestBody(required = false) String body) {
+        return run(() -> admsService.processCommandResults(SN, body != null ? body : ""));
+    }
+
+    /**
+     * Runs the handler on a virtual thread when enabled, otherwise right here
+     * on the request thread.
+     */
+    private <T> CompletableFuture<T> run(Callable<T> work) {
+        if (executor == null) {
+            try {
+                return CompletableFuture.completedFuture(work.call());
+            } catch (Exception e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return work.call();
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
     }
 
     // Registry check
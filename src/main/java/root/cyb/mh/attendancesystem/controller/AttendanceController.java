@@ -1,10 +1,6 @@
 package root.cyb.mh.attendancesystem.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -12,11 +8,17 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ModelAttribute;
+import root.cyb.mh.attendancesystem.dto.AttendanceLogRowDto;
 import root.cyb.mh.attendancesystem.model.Device;
+import root.cyb.mh.attendancesystem.repository.AttendanceLogBrowseRepository.LogOrder;
 import root.cyb.mh.attendancesystem.repository.AttendanceLogRepository;
 import root.cyb.mh.attendancesystem.repository.DeviceRepository;
+import root.cyb.mh.attendancesystem.service.DeviceRegistry;
 // import root.cyb.mh.attendancesystem.service.SyncService;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Controller
 @RequestMapping("/")
 public class AttendanceController {
@@ -27,6 +29,9 @@ public class AttendanceController {
     @Autowired
     private AttendanceLogRepository attendanceLogRepository;
 
+    @Autowired
+    private DeviceRegistry deviceRegistry;
+
     // @Autowired
     // private SyncService syncService;
 
@@ -40,18 +45,29 @@ public class AttendanceController {
     @PostMapping("/devices")
     public String addDevice(@ModelAttribute Device device) {
         deviceRepository.save(device);
+        deviceRegistry.refresh();
         return "redirect:/devices";
     }
 
     @PostMapping("/devices/update")
     public String updateDevice(@ModelAttribute Device device) {
+        // The edit form does not carry the push watermark; keep what is stored
+        if (device.getId() != null) {
+            deviceRepository.findById(device.getId()).ifPresent(existing -> {
+                device.setLastPunchAt(existing.getLastPunchAt());
+                device.setAttlogStamp(existing.getAttlogStamp());
+                device.setOperlogStamp(existing.getOperlogStamp());
+            });
+        }
         deviceRepository.save(device);
+        deviceRegistry.refresh();
         return "redirect:/devices";
     }
 
     @PostMapping("/devices/delete")
     public String deleteDevice(@RequestParam Long id) {
         deviceRepository.deleteById(id);
+        deviceRegistry.refresh();
         return "redirect:/devices";
     }
 
@@ -65,11 +81,10 @@ public class AttendanceController {
     private root.cyb.mh.attendancesystem.service.AdmsService admsService;
 
     @PostMapping("/devices/download")
-    public String downloadLogs() {
-        // Queue command to download all logs
-        // Command: DATA QUERY ATTLOG StartTime=2000-01-01 EndTime=2099-12-31
-        // Simplified: DATA QUERY ATTLOG
-        admsService.queueCommand("DATA QUERY ATTLOG");
+    public String downloadLogs(@RequestParam(required = false) Long id) {
+        // Queue a windowed query per device starting at its push watermark
+        // Command: DATA QUERY ATTLOG StartTime=... EndTime=...
+        admsService.queueAttlogDownload(id);
         return "redirect:/devices";
     }
 
@@ -79,52 +94,54 @@ public class AttendanceController {
         return "redirect:/devices";
     }
 
-    @Autowired
-    private root.cyb.mh.attendancesystem.repository.EmployeeRepository employeeRepository;
-
     @Autowired
     private root.cyb.mh.attendancesystem.repository.DepartmentRepository departmentRepository;
 
     @GetMapping("/attendance")
     public String attendance(@RequestParam(required = false) Long departmentId,
-            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String before,
             @RequestParam(defaultValue = "10") int size,
-            @RequestParam(defaultValue = "id") String sortField,
+            @RequestParam(defaultValue = "timestamp") String sortField,
             @RequestParam(defaultValue = "desc") String sortDir,
             Model model) {
 
-        // 1. Prepare Employee Map for Name Lookup (needed for sorting by name)
-        java.util.Map<String, String> employeeMap = new java.util.HashMap<>();
-        for (root.cyb.mh.attendancesystem.model.Employee emp : employeeRepository.findAll()) {
-            employeeMap.put(emp.getId(), emp.getName());
-        }
-
-        Sort sort = sortDir.equalsIgnoreCase("asc") ? Sort.by(sortField).ascending() : Sort.by(sortField).descending();
-        // Handle custom sort field "employeeName" which is not in DB
-        if ("employeeName".equals(sortField)) {
-            // Fallback: sort by ID if name is selected, as we can't easily DB-sort by
-            // transient name map
-            sort = Sort.by("id").descending();
-        }
-
-        Pageable pageable = PageRequest.of(page, size, sort);
-        Page<root.cyb.mh.attendancesystem.model.AttendanceLog> logsPage;
-
-        if (departmentId != null) {
-            logsPage = attendanceLogRepository.findByEmployeeDepartmentId(departmentId, pageable);
-            model.addAttribute("selectedDeptId", departmentId);
-        } else {
-            logsPage = attendanceLogRepository.findAll(pageable);
-        }
-
-        model.addAttribute("logs", logsPage.getContent());
-        model.addAttribute("page", logsPage);
+        LogOrder order = switch (sortField) {
+            case "employeeId" -> LogOrder.EMPLOYEE_ID;
+            case "employeeName" -> LogOrder.EMPLOYEE_NAME;
+            default -> LogOrder.TIMESTAMP;
+        };
+        if (order == LogOrder.TIMESTAMP)
+            sortField = "timestamp";
+        boolean ascending = sortDir.equalsIgnoreCase("asc");
+        size = Math.max(1, Math.min(size, 100));
+
+        // Pages are addressed by the key of the row next to them, not by number
+        AttendanceLogRowDto afterRow = LogCursor.decode(after);
+        AttendanceLogRowDto beforeRow = afterRow == null ? LogCursor.decode(before) : null;
+        boolean backward = beforeRow != null;
+
+        // One extra row tells whether there is another page in that direction
+        List<AttendanceLogRowDto> logs = new ArrayList<>(attendanceLogRepository.findSlice(departmentId, order,
+                ascending, backward ? beforeRow : afterRow, backward, size + 1));
+        boolean more = logs.size() > size;
+        if (more)
+            logs = backward ? logs.subList(1, logs.size()) : logs.subList(0, size);
+        boolean hasNext = backward || more;
+        boolean hasPrevious = backward ? more : afterRow != null;
+
+        model.addAttribute("logs", logs);
+        model.addAttribute("nextCursor",
+                hasNext && !logs.isEmpty() ? LogCursor.encode(logs.get(logs.size() - 1), order) : null);
+        model.addAttribute("prevCursor", hasPrevious && !logs.isEmpty() ? LogCursor.encode(logs.get(0), order) : null);
+        model.addAttribute("approxTotal", attendanceLogRepository.estimateCount(departmentId));
+        model.addAttribute("size", size);
+        model.addAttribute("selectedDeptId", departmentId);
         model.addAttribute("departments", departmentRepository.findAll());
-        model.addAttribute("employeeMap", employeeMap);
 
         model.addAttribute("sortField", sortField);
-        model.addAttribute("sortDir", sortDir);
-        model.addAttribute("reverseSortDir", sortDir.equals("asc") ? "desc" : "asc");
+        model.addAttribute("sortDir", ascending ? "asc" : "desc");
+        model.addAttribute("reverseSortDir", ascending ? "desc" : "asc");
 
         return "attendance";
     }
@@ -1,29 +1,39 @@
 package root.cyb.mh.attendancesystem.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import root.cyb.mh.attendancesystem.dto.DailyAttendanceDto;
+import root.cyb.mh.attendancesystem.dto.DashboardMetricsDto;
+import root.cyb.mh.attendancesystem.dto.LiveStatusDto;
 import root.cyb.mh.attendancesystem.model.AttendanceLog;
 import root.cyb.mh.attendancesystem.repository.AttendanceLogRepository;
 import root.cyb.mh.attendancesystem.repository.DepartmentRepository;
-import root.cyb.mh.attendancesystem.repository.EmployeeRepository;
-import root.cyb.mh.attendancesystem.service.ReportService;
+import root.cyb.mh.attendancesystem.repository.EmployeeSummary;
+import root.cyb.mh.attendancesystem.service.DashboardMetricsService;
+import root.cyb.mh.attendancesystem.service.EmployeeDirectory;
+import root.cyb.mh.attendancesystem.service.LiveStatusStream;
+import root.cyb.mh.attendancesystem.service.TodayStatusBoard;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.Comparator;
 import java.util.List;
-import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
-import root.cyb.mh.attendancesystem.dto.MonthlySummaryDto;
 
 @Controller
 public class DashboardController {
 
         @Autowired
-        private EmployeeRepository employeeRepository;
+        private EmployeeDirectory employeeDirectory;
 
         @Autowired
         private DepartmentRepository departmentRepository;
@@ -35,30 +45,33 @@ public class DashboardController {
         private root.cyb.mh.attendancesystem.repository.LeaveRequestRepository leaveRequestRepository;
 
         @Autowired
-        private ReportService reportService;
+        private TodayStatusBoard todayStatusBoard;
+
+        @Autowired
+        private LiveStatusStream liveStatusStream;
+
+        @Autowired
+        private DashboardMetricsService dashboardMetricsService;
 
         @GetMapping({ "/", "/dashboard" })
         public String dashboard(Model model) {
                 LocalDate today = LocalDate.now();
 
-                // Fetch All Employees
-                List<root.cyb.mh.attendancesystem.model.Employee> allEmployees = employeeRepository.findAll();
+                // All Employees (cached ids and names only)
+                List<EmployeeSummary> allEmployees = employeeDirectory.all();
 
                 // Identify Guests
-                List<String> guestIds = allEmployees.stream()
-                                .filter(root.cyb.mh.attendancesystem.model.Employee::isGuest)
-                                .map(root.cyb.mh.attendancesystem.model.Employee::getId)
-                                .collect(Collectors.toList());
+                Set<String> guestIds = allEmployees.stream()
+                                .filter(EmployeeSummary::isGuest)
+                                .map(EmployeeSummary::getId)
+                                .collect(Collectors.toSet());
 
                 // Count Stats (Excluding Guests)
-                long totalEmployees = allEmployees.size() - guestIds.size();
+                long totalEmployees = employeeDirectory.staff().size();
                 long totalDepartments = departmentRepository.count();
 
-                // Today's Attendance Stats (Present/Late/Early)
-                List<DailyAttendanceDto> dailyReport = reportService
-                                .getDailyReport(today, null, null,
-                                                org.springframework.data.domain.PageRequest.of(0, 5000))
-                                .getContent();
+                // Today's Attendance Stats (Present/Late/Early), kept current in memory
+                List<DailyAttendanceDto> dailyReport = todayStatusBoard.snapshot();
 
                 // Filter out guests from daily report
                 long presentCount = dailyReport.stream()
@@ -80,11 +93,6 @@ public class DashboardController {
                                 .limit(5)
                                 .collect(Collectors.toList());
 
-                recentLogs.forEach(log -> {
-                        employeeRepository.findById(log.getEmployeeId()).ifPresent(emp -> {
-                        });
-                });
-
                 // Leaves Today (Excluding Guests)
                 List<root.cyb.mh.attendancesystem.model.LeaveRequest> todayLeaves = leaveRequestRepository
                                 .findByStartDateLessThanEqualAndEndDateGreaterThanEqualAndStatus(
@@ -102,102 +110,14 @@ public class DashboardController {
                                 .count();
 
                 // --- INSPIRATION METRICS ---
-
-                // 1. Early Birds (Today's first 5 arrivals)
-                // Filter present/late/early, exclude guests, sort by inTime
-                List<DailyAttendanceDto> earlyBirds = dailyReport.stream()
-                                .filter(d -> !guestIds.contains(d.getEmployeeId()))
-                                .filter(d -> d.getInTime() != null)
-                                .sorted(Comparator.comparing(DailyAttendanceDto::getInTime))
-                                .limit(5)
-                                .collect(Collectors.toList());
-                model.addAttribute("earlyBirds", earlyBirds);
-
-                // 2. Department Champion (Dept with highest Present %)
-                // Group by Dept Name
-                Map<String, List<DailyAttendanceDto>> byDept = dailyReport.stream()
-                                .filter(d -> d.getDepartmentName() != null
-                                                && !d.getDepartmentName().equals("Unassigned"))
-                                .collect(Collectors.groupingBy(DailyAttendanceDto::getDepartmentName));
-
-                String championDept = "N/A";
-                double maxPercent = -1.0;
-
-                for (Map.Entry<String, List<DailyAttendanceDto>> entry : byDept.entrySet()) {
-                        if (entry.getKey().equalsIgnoreCase("Guest"))
-                                continue; // Explicitly skip Guest dept
-
-                        long deptTotal = entry.getValue().size(); // All employees in dept
-                        if (deptTotal == 0)
-                                continue;
-
-                        long deptPresent = entry.getValue().stream()
-                                        .filter(d -> d.getStatus().contains("PRESENT") || d.getStatus().contains("LATE")
-                                                        || d.getStatus().contains("EARLY"))
-                                        .count();
-
-                        double percent = (double) deptPresent / deptTotal;
-                        if (percent > maxPercent) {
-                                maxPercent = percent;
-                                championDept = entry.getKey();
-                        }
-                }
-
-                if (maxPercent <= 0) {
-                        championDept = "No Data";
-                        maxPercent = 0;
-                }
-                model.addAttribute("championDept", championDept);
-                model.addAttribute("championPercent", Math.round(maxPercent * 100));
-
-                // 3. Attendance Health Score (Company Wide On-Time %)
-                // On Time = Present AND NOT Late
-                long onTimeCount = dailyReport.stream()
-                                // guest filtered already by service
-                                .filter(d -> d.getStatus().contains("PRESENT") || d.getStatus().equals("EARLY LEAVE")) // Strictly
-                                                                                                                       // "PRESENT"
-                                                                                                                       // or
-                                                                                                                       // "EARLY"
-                                                                                                                       // (as
-                                                                                                                       // long
-                                                                                                                       // as
-                                                                                                                       // not
-                                                                                                                       // late)
-                                .filter(d -> !d.getStatus().contains("LATE"))
-                                .count();
-
-                // Base for % is Total Present (or Total Employees? Usually Health is of those
-                // who came, how many were on time? Or of all content?)
-                // Let's do % of Present Employees who were On Time.
-                long totalPresentCalculated = dailyReport.stream()
-                                .filter(d -> d.getStatus().contains("PRESENT") || d.getStatus().contains("LATE")
-                                                || d.getStatus().contains("EARLY"))
-                                .count();
-
-                int healthScore = totalPresentCalculated > 0 ? (int) ((onTimeCount * 100) / totalPresentCalculated) : 0;
-                model.addAttribute("healthScore", healthScore);
-
-                // 4. Punctuality Stars & Streak (From Monthly Report)
-                // Fetch current month report
-                List<Integer> monthList = java.util.Collections.singletonList(today.getMonthValue());
-                List<MonthlySummaryDto> monthlyStats = reportService.getMonthlyReport(today.getYear(), monthList, null,
-                                org.springframework.data.domain.PageRequest.of(0, 1000)).getContent();
-
-                // Sort by Present Count DESC, Late Count ASC
-                List<MonthlySummaryDto> punctualityStars = monthlyStats.stream()
-                                // ReportService might include guests? Check getMonthlyReport logic.
-                                // I don't recall explicit guest filter in getMonthlyReport.
-                                // I should filter guests here to be safe.
-                                .filter(d -> !guestIds.contains(d.getEmployeeId()))
-                                .sorted(Comparator.comparingInt(MonthlySummaryDto::getPresentCount).reversed()
-                                                .thenComparingInt(MonthlySummaryDto::getLateCount))
-                                .limit(5)
-                                .collect(Collectors.toList());
-                model.addAttribute("punctualityStars", punctualityStars);
-
-                // Streak / On Fire: Top Employee by Present Count
-                MonthlySummaryDto streakTop = punctualityStars.isEmpty() ? null : punctualityStars.get(0);
-                model.addAttribute("streakEmployee", streakTop);
+                // Shared snapshot, rebuilt after punches (daily figures) or when the TTL expires (monthly)
+                DashboardMetricsDto metrics = dashboardMetricsService.getMetrics();
+                model.addAttribute("earlyBirds", metrics.getEarlyBirds());
+                model.addAttribute("championDept", metrics.getChampionDept());
+                model.addAttribute("championPercent", metrics.getChampionPercent());
+                model.addAttribute("healthScore", metrics.getHealthScore());
+                model.addAttribute("punctualityStars", metrics.getPunctualityStars());
+                model.addAttribute("streakEmployee", metrics.getStreakEmployee());
 
                 // Status Breakdown
                 long absentCount = totalEmployees - presentCount - leaveCount;
@@ -217,9 +137,7 @@ public class DashboardController {
                                 absentCount);
                 model.addAttribute("statusChartData", statusChartData);
 
-                model.addAttribute("employeeMap", allEmployees.stream()
-                                .collect(Collectors.toMap(root.cyb.mh.attendancesystem.model.Employee::getId,
-                                                root.cyb.mh.attendancesystem.model.Employee::getName)));
+                model.addAttribute("employeeMap", employeeDirectory.names());
 
                 return "dashboard";
         }
@@ -227,104 +145,25 @@ public class DashboardController {
         @GetMapping("/api/dashboard/live-status")
         @org.springframework.web.bind.annotation.ResponseBody
         public List<LiveStatusDto> getLiveStatus() {
-                LocalDate today = LocalDate.now();
-                List<root.cyb.mh.attendancesystem.model.Employee> employees = employeeRepository.findAll();
-
-                // Fetch report for status
-                List<DailyAttendanceDto> dailyReport = reportService
-                                .getDailyReport(today, null, null,
-                                                org.springframework.data.domain.PageRequest.of(0, 5000))
-                                .getContent();
-
-                Map<String, DailyAttendanceDto> reportMap = dailyReport.stream()
-                                .collect(Collectors.toMap(DailyAttendanceDto::getEmployeeId, d -> d));
-
-                return employees.stream()
-                                .filter(e -> !e.isGuest())
-                                .sorted(Comparator.comparing(root.cyb.mh.attendancesystem.model.Employee::getName))
-                                .map(emp -> {
-                                        LiveStatusDto dto = new LiveStatusDto();
-                                        dto.setId(emp.getId());
-                                        dto.setName(emp.getName());
-                                        dto.setDepartment(emp.getDepartment() != null ? emp.getDepartment().getName()
-                                                        : "-");
-                                        String photo = emp.getAvatarPath();
-                                        if (photo == null && emp.getPhotoBase64() != null
-                                                        && !emp.getPhotoBase64().isEmpty()) {
-                                                photo = "data:image/jpeg;base64," + emp.getPhotoBase64();
-                                        }
-                                        dto.setPhotoUrl(photo);
-
-                                        DailyAttendanceDto stat = reportMap.get(emp.getId());
-                                        if (stat != null) {
-                                                dto.setStatus(stat.getStatus());
-                                                dto.setTime(stat.getInTime() != null ? stat.getInTime().toString()
-                                                                : "-");
-                                        } else {
-                                                dto.setStatus("ABSENT");
-                                                dto.setTime("-");
-                                        }
-                                        return dto;
-                                })
+                // Served from memory, no database access
+                return todayStatusBoard.snapshot().stream()
+                                .map(LiveStatusDto::from)
+                                .sorted(LiveStatusStream.BY_NAME)
                                 .collect(Collectors.toList());
         }
 
-        // Inner DTO
-        public static class LiveStatusDto {
-                private String id;
-                private String name;
-                private String department;
-                private String status;
-                private String time;
-                private String photoUrl;
-
-                // Getters and Setters
-                public String getId() {
-                        return id;
-                }
-
-                public void setId(String id) {
-                        this.id = id;
-                }
-
-                public String getName() {
-                        return name;
-                }
-
-                public void setName(String name) {
-                        this.name = name;
-                }
-
-                public String getDepartment() {
-                        return department;
-                }
-
-                public void setDepartment(String department) {
-                        this.department = department;
-                }
-
-                public String getStatus() {
-                        return status;
-                }
-
-                public void setStatus(String status) {
-                        this.status = status;
-                }
-
-                public String getTime() {
-                        return time;
-                }
-
-                public void setTime(String time) {
-                        this.time = time;
-                }
-
-                public String getPhotoUrl() {
-                        return photoUrl;
-                }
-
-                public void setPhotoUrl(String photoUrl) {
-                        this.photoUrl = photoUrl;
+        // Snapshot on connect, then per-employee changes as punches arrive
+        @GetMapping(path = "/api/dashboard/live-status/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+        public ResponseEntity<SseEmitter> streamLiveStatus(
+                        @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+                SseEmitter emitter = liveStatusStream.subscribe(lastEventId);
+                if (emitter == null) {
+                        // Too many open streams; the page falls back to polling
+                        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                                        .header(HttpHeaders.RETRY_AFTER,
+                                                        String.valueOf(liveStatusStream.getRetryAfterSeconds()))
+                                        .build();
                 }
+                return ResponseEntity.ok(emitter);
         }
 }
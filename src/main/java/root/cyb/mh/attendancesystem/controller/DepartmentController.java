@@ -19,6 +19,12 @@ public class DepartmentController {
     @Autowired
     private root.cyb.mh.attendancesystem.repository.EmployeeRepository employeeRepository;
 
+    @Autowired
+    private root.cyb.mh.attendancesystem.service.EmployeeDirectory employeeDirectory;
+
+    @Autowired
+    private root.cyb.mh.attendancesystem.service.TodayStatusBoard todayStatusBoard;
+
     @GetMapping("/departments")
     public String departments(Model model,
             @RequestParam(defaultValue = "id") String sortField,
@@ -49,6 +55,10 @@ public class DepartmentController {
         dept.setName(name);
         dept.setDescription(description);
         departmentRepository.save(dept);
+        // Department names are part of the employee directory and today's board
+        employeeDirectory.invalidate();
+        if (id != null)
+            todayStatusBoard.reload();
         return "redirect:/departments";
     }
 
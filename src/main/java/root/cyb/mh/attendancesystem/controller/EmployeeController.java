@@ -7,6 +7,8 @@ import org.springframework.web.bind.annotation.*;
 import root.cyb.mh.attendancesystem.model.Employee;
 import root.cyb.mh.attendancesystem.repository.EmployeeRepository;
 import root.cyb.mh.attendancesystem.repository.DepartmentRepository;
+import root.cyb.mh.attendancesystem.service.EmployeeDirectory;
+import root.cyb.mh.attendancesystem.service.EmployeeService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -26,6 +28,12 @@ public class EmployeeController {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private EmployeeDirectory employeeDirectory;
+
     @GetMapping
     public String listEmployees(Model model,
             @RequestParam(defaultValue = "0") int page,
@@ -40,7 +48,7 @@ public class EmployeeController {
         Page<Employee> employeePage = employeeRepository.findAll(pageable);
 
         model.addAttribute("employees", employeePage.getContent());
-        model.addAttribute("allEmployees", employeeRepository.findAll()); // For Dropdown
+        model.addAttribute("allEmployees", employeeDirectory.all()); // For Dropdown
         model.addAttribute("page", employeePage);
         model.addAttribute("newEmployee", new Employee());
         model.addAttribute("departments", departmentRepository.findAll());
@@ -123,13 +131,13 @@ public class EmployeeController {
             employeeToSave.setReportsToAssistant(null); // Clear if deselected
         }
 
-        employeeRepository.save(employeeToSave);
+        employeeService.save(employeeToSave);
         return "redirect:/employees";
     }
 
     @GetMapping("/delete/{id}")
     public String deleteEmployee(@PathVariable String id) {
-        employeeRepository.deleteById(id);
+        employeeService.delete(id);
         return "redirect:/employees";
     }
 
@@ -140,11 +148,7 @@ public class EmployeeController {
             root.cyb.mh.attendancesystem.model.Department dept = departmentRepository.findById(departmentId)
                     .orElse(null);
             if (dept != null) {
-                java.util.List<Employee> employees = employeeRepository.findAllById(employeeIds);
-                for (Employee emp : employees) {
-                    emp.setDepartment(dept);
-                }
-                employeeRepository.saveAll(employees);
+                employeeService.assignDepartment(employeeIds, dept);
             }
         }
         return "redirect:/employees";
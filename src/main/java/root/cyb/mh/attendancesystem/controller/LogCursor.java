@@ -0,0 +1,49 @@
+package root.cyb.mh.attendancesystem.controller;
+
+import root.cyb.mh.attendancesystem.dto.AttendanceLogRowDto;
+import root.cyb.mh.attendancesystem.repository.AttendanceLogBrowseRepository.LogOrder;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque page cursor of the attendance log browser: the boundary row's
+ * timestamp, id and (for employee orders) sort value, URL-safe Base64.
+ */
+final class LogCursor {
+
+    private LogCursor() {
+    }
+
+    // A missing employee name is the empty string, as COALESCE sorts it
+    static String encode(AttendanceLogRowDto row, LogOrder order) {
+        String value = switch (order) {
+            case EMPLOYEE_ID -> row.getEmployeeId();
+            case EMPLOYEE_NAME -> row.getEmployeeName() != null ? row.getEmployeeName() : "";
+            default -> "";
+        };
+        String raw = row.getTimestamp() + "\n" + row.getId() + "\n" + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Null for a missing or unreadable cursor, which starts from the first page
+    static AttendanceLogRowDto decode(String cursor) {
+        if (cursor == null || cursor.isBlank())
+            return null;
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\n", 3);
+            if (parts.length != 3)
+                return null;
+            AttendanceLogRowDto row = new AttendanceLogRowDto();
+            row.setTimestamp(LocalDateTime.parse(parts[0]));
+            row.setId(Long.parseLong(parts[1]));
+            row.setEmployeeId(parts[2]);
+            row.setEmployeeName(parts[2]);
+            return row;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return null;
+        }
+    }
+}
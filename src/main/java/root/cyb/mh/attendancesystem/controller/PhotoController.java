@@ -0,0 +1,38 @@
+package root.cyb.mh.attendancesystem.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import root.cyb.mh.attendancesystem.service.PhotoStore;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+@RestController
+public class PhotoController {
+
+    @Autowired
+    private PhotoStore photoStore;
+
+    // Photos are content-addressed, so a hash never changes meaning: the hash is
+    // the ETag and browsers may keep the image for as long as they like.
+    // Spring answers If-None-Match with 304 before the file is read.
+    @GetMapping("/photos/{hash}")
+    public ResponseEntity<Resource> photo(@PathVariable String hash) {
+        Path file = photoStore.resolve(hash);
+        if (file == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok()
+                .eTag(hash)
+                .cacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePrivate().immutable())
+                .contentType(MediaType.IMAGE_JPEG)
+                .body(new FileSystemResource(file));
+    }
+}
@@ -6,7 +6,7 @@ import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import root.cyb.mh.attendancesystem.model.Shift;
-import root.cyb.mh.attendancesystem.repository.EmployeeRepository;
+import root.cyb.mh.attendancesystem.service.EmployeeDirectory;
 import root.cyb.mh.attendancesystem.service.ShiftService;
 
 import java.time.LocalDate;
@@ -19,12 +19,12 @@ public class ShiftController {
     private ShiftService shiftService;
 
     @Autowired
-    private EmployeeRepository employeeRepository;
+    private EmployeeDirectory employeeDirectory;
 
     @GetMapping
     public String index(Model model) {
         model.addAttribute("shifts", shiftService.getAllShifts());
-        model.addAttribute("employees", employeeRepository.findAll());
+        model.addAttribute("employees", employeeDirectory.all());
         model.addAttribute("assignments", shiftService.getAllAssignments());
         model.addAttribute("newShift", new Shift());
         return "shifts";
@@ -12,6 +12,7 @@ import root.cyb.mh.attendancesystem.model.LeaveRequest;
 import root.cyb.mh.attendancesystem.repository.EmployeeRepository;
 import root.cyb.mh.attendancesystem.service.LeaveService;
 import root.cyb.mh.attendancesystem.service.ReportService;
+import root.cyb.mh.attendancesystem.service.TodayStatusBoard;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -29,6 +30,9 @@ public class SupervisorController {
         @Autowired
         private ReportService reportService;
 
+        @Autowired
+        private TodayStatusBoard todayStatusBoard;
+
         @GetMapping("/dashboard")
         public String dashboard(Model model, Authentication authentication) {
                 String currentUserId = authentication.getName();
@@ -65,8 +69,9 @@ public class SupervisorController {
                 model.addAttribute("teamSize", teamMembers.size());
 
                 // 4. Team Pulse (Real-time Status)
-                List<root.cyb.mh.attendancesystem.dto.DailyAttendanceDto> teamPulse = reportService
-                                .getTeamDailyStatus(teamMembers);
+                List<String> teamIds = teamMembers.stream().map(Employee::getId).collect(Collectors.toList());
+                List<root.cyb.mh.attendancesystem.dto.DailyAttendanceDto> teamPulse = todayStatusBoard
+                                .snapshot(teamIds);
                 model.addAttribute("teamPulse", teamPulse);
 
                 // Calculate Quick Stats for Dashboard
@@ -75,29 +80,10 @@ public class SupervisorController {
                                 .count();
                 model.addAttribute("presentCount", presentCount);
 
-                // 5. Team Analytics (This Month)
-                java.time.LocalDate now = java.time.LocalDate.now();
-                List<Integer> monthList = java.util.Collections.singletonList(now.getMonthValue());
-                List<Long> teamUserIds = teamMembers.stream().map(e -> Long.parseLong(e.getId()))
-                                .collect(Collectors.toList());
-                // Note: ReportService expects Department IDs or we can filter manually.
-                // Let's reuse getTeamDailyStatus logic but over a date range?
-                // Actually ReportService.getMonthlyReport is optimized for Depts.
-                // For a specific list of employees, it's better to fetch logs directly or add a
-                // method.
-                // Simpler approach: Calculate strictly from daily pulse? No, that's just today.
-                // Let's use ReportService.getMonthlyReport but filter the result list for our
-                // team.
-
-                List<root.cyb.mh.attendancesystem.dto.MonthlySummaryDto> monthlyStats = reportService.getMonthlyReport(
-                                now.getYear(), monthList, null, org.springframework.data.domain.PageRequest.of(0, 1000))
-                                .getContent();
-
-                // Filter for Team Members only
-                List<String> teamIds = teamMembers.stream().map(Employee::getId).collect(Collectors.toList());
-                List<root.cyb.mh.attendancesystem.dto.MonthlySummaryDto> teamStats = monthlyStats.stream()
-                                .filter(dto -> teamIds.contains(dto.getEmployeeId()))
-                                .collect(Collectors.toList());
+                // 5. Team Analytics (This Month), read for the team members only
+                java.time.YearMonth thisMonth = java.time.YearMonth.now();
+                List<root.cyb.mh.attendancesystem.dto.MonthlySummaryDto> teamStats = reportService
+                                .getMonthlySummaries(teamIds, thisMonth, thisMonth);
 
                 // Aggregate
                 long totalPresent = teamStats.stream()
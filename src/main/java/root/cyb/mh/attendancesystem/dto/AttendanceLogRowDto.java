@@ -0,0 +1,15 @@
+package root.cyb.mh.attendancesystem.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// One row of the attendance log browser, with the employee name joined in
+@Data
+public class AttendanceLogRowDto {
+    private Long id;
+    private String employeeId;
+    private String employeeName; // null when the id has no employee record
+    private Long deviceId;
+    private LocalDateTime timestamp;
+}
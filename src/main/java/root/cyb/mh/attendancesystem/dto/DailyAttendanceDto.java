@@ -14,4 +14,5 @@ public class DailyAttendanceDto {
     private String statusColor; // success, warning, danger, etc.
     private String designation;
     private String avatarPath;
+    private String photoUrl; // Stored terminal photo, when there is no uploaded avatar
 }
@@ -0,0 +1,19 @@
+package root.cyb.mh.attendancesystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+// Company-wide "inspiration" figures shown on the admin and employee dashboards.
+// Shared between requests, so it is never modified after it is built.
+@Getter
+@AllArgsConstructor
+public class DashboardMetricsDto {
+    private final List<DailyAttendanceDto> earlyBirds; // Today's first five arrivals
+    private final String championDept; // Department with the highest present % today
+    private final long championPercent;
+    private final int healthScore; // % of today's present employees who were on time
+    private final List<MonthlySummaryDto> punctualityStars; // Most days present this month, fewest lates
+    private final MonthlySummaryDto streakEmployee;
+}
@@ -0,0 +1,18 @@
+package root.cyb.mh.attendancesystem.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class IngestResultDto {
+    private int accepted; // New rows written
+    private int duplicates; // Already stored (or repeated within the same push)
+    private int rejected; // Lines that could not be parsed
+    private LocalDateTime newestPunch; // Latest timestamp in the push (device watermark)
+
+    // Reply body for the device. Terminals only look for the leading "OK".
+    public String toResponse() {
+        return "OK: accepted=" + accepted + " duplicate=" + duplicates + " rejected=" + rejected;
+    }
+}
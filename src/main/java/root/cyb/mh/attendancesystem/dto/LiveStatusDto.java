@@ -0,0 +1,26 @@
+package root.cyb.mh.attendancesystem.dto;
+
+import lombok.Data;
+
+// One card on the dashboard's live status board
+@Data
+public class LiveStatusDto {
+    private String id;
+    private String name;
+    private String department;
+    private String status;
+    private String time; // First punch of the day, "-" if none
+    private String photoUrl;
+
+    public static LiveStatusDto from(DailyAttendanceDto stat) {
+        LiveStatusDto dto = new LiveStatusDto();
+        dto.setId(stat.getEmployeeId());
+        dto.setName(stat.getEmployeeName());
+        dto.setDepartment("Unassigned".equals(stat.getDepartmentName()) ? "-" : stat.getDepartmentName());
+        // Uploaded avatar first, then the cached /photos/{hash} URL of the terminal photo
+        dto.setPhotoUrl(stat.getAvatarPath() != null ? stat.getAvatarPath() : stat.getPhotoUrl());
+        dto.setStatus(stat.getStatus());
+        dto.setTime(stat.getInTime() != null ? stat.getInTime().toString() : "-");
+        return dto;
+    }
+}
@@ -4,6 +4,9 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -14,6 +17,17 @@ import java.time.LocalDateTime;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+// One row per punch. Device retries and concurrent pushes are absorbed by this
+// constraint instead of an exists-then-save check.
+// Existing duplicate rows must be removed before the schema update can add it.
+// The (timestamp, id) index serves day/range scans across all employees and the
+// log browser's default keyset order; (employee_id, timestamp, id) serves its
+// per-employee order. Both replace the former timestamp-only index, which the
+// schema update leaves in place and can be dropped by hand.
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_attendance_log_punch", columnNames = { "employee_id",
+        "timestamp", "device_id" }), indexes = {
+                @Index(name = "idx_attendance_log_timestamp_id", columnList = "timestamp, id"),
+                @Index(name = "idx_attendance_log_employee_timestamp_id", columnList = "employee_id, timestamp, id") })
 public class AttendanceLog {
 
     @Id
@@ -0,0 +1,53 @@
+package root.cyb.mh.attendancesystem.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+@Entity
+@Data
+@NoArgsConstructor
+// One row per employee per day, derived from punches, approved leave, shifts,
+// holidays and the work schedule by DailyAttendanceMaterializer. Rows are
+// deleted when any of those inputs change and rebuilt on the next read.
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_daily_fact_employee_date", columnNames = { "employee_id",
+        "work_date" }), indexes = @Index(name = "idx_daily_fact_date", columnList = "work_date"))
+public class DailyAttendanceFact {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String employeeId;
+    private LocalDate workDate;
+
+    private boolean notJoined; // Before the employee's joining date
+    private boolean weekend;
+    private boolean holiday;
+
+    private boolean onLeave; // Covered by an approved leave
+    private String leaveType; // Type of the newest approved leave covering the day
+
+    private int punchCount;
+    private LocalTime firstIn;
+    private LocalTime lastOut;
+
+    // Against the schedule in force that day (assigned shift or global)
+    private boolean late;
+    private long lateMinutes; // Counted from the start time, 0 unless late
+    private boolean earlyLeave;
+    private long earlyLeaveMinutes; // Counted to the end time, 0 unless early
+
+    public boolean isPresent() {
+        return punchCount > 0;
+    }
+}
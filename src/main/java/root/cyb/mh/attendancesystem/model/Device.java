@@ -8,6 +8,8 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
+
 @Entity
 @Data
 @NoArgsConstructor
@@ -22,4 +24,10 @@ public class Device {
     private String ipAddress;
     private int port;
     private String serialNumber;
+
+    // Push watermark: newest punch stored from this device and the last
+    // ATTLOG/OPERLOG stamps it reported, so it only has to send deltas
+    private LocalDateTime lastPunchAt;
+    private String attlogStamp;
+    private String operlogStamp;
 }
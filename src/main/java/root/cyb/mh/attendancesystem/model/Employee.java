@@ -37,8 +37,9 @@ public class Employee {
 
     // Legacy password field, can be ignored or removed later
     private String password;
-    @jakarta.persistence.Column(length = 100000) // Large text for Base64 image
-    private String photoBase64;
+    // SHA-256 of the device photo (USERPIC); the image itself lives in PhotoStore
+    @jakarta.persistence.Column(length = 64)
+    private String photoHash;
 
     private Integer annualLeaveQuota; // Null means use global default
 
@@ -57,6 +58,10 @@ public class Employee {
     private String bankName;
     private String accountNumber;
 
+    public String getPhotoUrl() {
+        return photoHash != null ? "/photos/" + photoHash : null;
+    }
+
     public int getEffectiveQuota(int globalDefault) {
         return annualLeaveQuota != null ? annualLeaveQuota : globalDefault;
     }
@@ -0,0 +1,49 @@
+package root.cyb.mh.attendancesystem.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Entity
+@Data
+@NoArgsConstructor
+// One row per employee per month: the monthly report counts, summed from that
+// month's DailyAttendanceFact rows by MonthlyRollupService. Closed months are
+// kept until one of their inputs is corrected; the current month is built
+// once a day and today's punches are applied on top when it is read.
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_monthly_rollup_employee_month", columnNames = {
+        "employee_id", "year", "month" }), indexes = @Index(name = "idx_monthly_rollup_month", columnList = "year, month"))
+public class MonthlyAttendanceRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String employeeId;
+    private int year;
+    private int month;
+
+    private int presentCount;
+    private int absentCount; // Working days without a punch
+    private int lateCount;
+    private int earlyLeaveCount;
+    private int leaveCount;
+    private int paidLeaveCount; // Within the annual quota
+    private int unpaidLeaveCount;
+
+    // Current month only: the day it was built on, and what that day added to
+    // the counts then, so the day can be swapped for its latest punches
+    private LocalDate liveDay;
+    private boolean livePresent;
+    private boolean liveAbsent;
+    private boolean liveLate;
+    private boolean liveEarlyLeave;
+}
@@ -0,0 +1,20 @@
+package root.cyb.mh.attendancesystem.repository;
+
+import root.cyb.mh.attendancesystem.model.AttendanceLog;
+
+import java.util.List;
+
+/**
+ * Bulk write path for device pushes. AttendanceLog uses IDENTITY ids, which
+ * stops Hibernate from batching inserts, so this goes through plain JDBC.
+ */
+public interface AttendanceLogBatchRepository {
+
+    /**
+     * Inserts all logs, silently skipping rows that hit the
+     * (employeeId, timestamp, deviceId) unique constraint.
+     * Returns only the rows actually written; on PostgreSQL they are read back
+     * from the insert and carry their ids.
+     */
+    List<AttendanceLog> insertIgnoringDuplicates(List<AttendanceLog> logs);
+}
@@ -0,0 +1,77 @@
+package root.cyb.mh.attendancesystem.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import root.cyb.mh.attendancesystem.model.AttendanceLog;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+public class AttendanceLogBatchRepositoryImpl implements AttendanceLogBatchRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO attendance_log (employee_id, timestamp, device_id) VALUES (?, ?, ?)";
+
+    // Rows per multi-row INSERT: 3 parameters each, well below the 65535 limit
+    private static final int BATCH_SIZE = 1000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DatabaseDialect databaseDialect;
+
+    @Override
+    public List<AttendanceLog> insertIgnoringDuplicates(List<AttendanceLog> logs) {
+        if (logs.isEmpty())
+            return List.of();
+        return databaseDialect.isPostgres() ? upsertReturning(logs) : insertOneByOne(logs);
+    }
+
+    // PostgreSQL: multi-row INSERT ... ON CONFLICT DO NOTHING RETURNING, so the
+    // database reports exactly the rows it wrote
+    private List<AttendanceLog> upsertReturning(List<AttendanceLog> logs) {
+        List<AttendanceLog> inserted = new ArrayList<>();
+        for (int from = 0; from < logs.size(); from += BATCH_SIZE) {
+            List<AttendanceLog> chunk = logs.subList(from, Math.min(logs.size(), from + BATCH_SIZE));
+            StringBuilder sql = new StringBuilder("INSERT INTO attendance_log (employee_id, timestamp, device_id) VALUES ");
+            Object[] args = new Object[chunk.size() * 3];
+            for (int i = 0; i < chunk.size(); i++) {
+                AttendanceLog log = chunk.get(i);
+                sql.append(i == 0 ? "(?, ?, ?)" : ", (?, ?, ?)");
+                args[i * 3] = log.getEmployeeId();
+                args[i * 3 + 1] = Timestamp.valueOf(log.getTimestamp());
+                args[i * 3 + 2] = log.getDeviceId();
+            }
+            sql.append(" ON CONFLICT (employee_id, timestamp, device_id) DO NOTHING"
+                    + " RETURNING id, employee_id, timestamp, device_id");
+            inserted.addAll(jdbcTemplate.query(sql.toString(), (rs, rowNum) -> {
+                AttendanceLog log = new AttendanceLog();
+                log.setId(rs.getLong(1));
+                log.setEmployeeId(rs.getString(2));
+                log.setTimestamp(rs.getTimestamp(3).toLocalDateTime());
+                long deviceId = rs.getLong(4);
+                log.setDeviceId(rs.wasNull() ? null : deviceId);
+                return log;
+            }, args));
+        }
+        return inserted;
+    }
+
+    // H2 and others: no portable ON CONFLICT, so let the constraint reject each
+    // duplicate individually. Only used for local/embedded databases.
+    private List<AttendanceLog> insertOneByOne(List<AttendanceLog> logs) {
+        List<AttendanceLog> inserted = new ArrayList<>();
+        for (AttendanceLog log : logs) {
+            try {
+                if (jdbcTemplate.update(INSERT_SQL, log.getEmployeeId(), Timestamp.valueOf(log.getTimestamp()),
+                        log.getDeviceId()) > 0)
+                    inserted.add(log);
+            } catch (DataIntegrityViolationException e) {
+                // Already stored
+            }
+        }
+        return inserted;
+    }
+}
@@ -0,0 +1,48 @@
+package root.cyb.mh.attendancesystem.repository;
+
+import root.cyb.mh.attendancesystem.dto.AttendanceLogRowDto;
+
+import java.util.List;
+
+/**
+ * Keyset (seek) reads for the attendance log browser. A page starts after (or
+ * before) the key of a boundary row instead of skipping an offset, so every
+ * page costs the same however deep it is.
+ */
+public interface AttendanceLogBrowseRepository {
+
+    /**
+     * Sort orders the browser can seek on. Each ends with (timestamp, id), which
+     * makes the key unique.
+     */
+    enum LogOrder {
+        // Served by idx_attendance_log_timestamp_id
+        TIMESTAMP("l.timestamp", "l.id"),
+        // Served by idx_attendance_log_employee_timestamp_id
+        EMPLOYEE_ID("l.employee_id", "l.timestamp", "l.id"),
+        // Not keyset-efficient: no index covers a key spanning two tables, so
+        // every page sorts all matching rows. The seek only saves returning
+        // the skipped ones; expect full-scan cost on a large log.
+        EMPLOYEE_NAME("COALESCE(e.name, '')", "l.timestamp", "l.id");
+
+        final String[] columns;
+
+        LogOrder(String... columns) {
+            this.columns = columns;
+        }
+    }
+
+    /**
+     * Up to limit rows in the given order, strictly after the boundary row (or
+     * strictly before it when backward is set, still returned in page order).
+     * A null boundary starts at the first row, or the last row going backward.
+     */
+    List<AttendanceLogRowDto> findSlice(Long departmentId, LogOrder order, boolean ascending,
+            AttendanceLogRowDto boundary, boolean backward, int limit);
+
+    /**
+     * Approximate number of logs (for one department, or all), from the
+     * planner's statistics on PostgreSQL instead of a full count.
+     */
+    long estimateCount(Long departmentId);
+}
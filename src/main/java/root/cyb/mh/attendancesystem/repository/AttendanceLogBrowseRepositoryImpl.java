@@ -0,0 +1,91 @@
+package root.cyb.mh.attendancesystem.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import root.cyb.mh.attendancesystem.dto.AttendanceLogRowDto;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class AttendanceLogBrowseRepositoryImpl implements AttendanceLogBrowseRepository {
+
+    private static final String SELECT_SQL = "SELECT l.id, l.employee_id, e.name, l.device_id, l.timestamp"
+            + " FROM attendance_log l LEFT JOIN employee e ON e.id = l.employee_id";
+
+    private static final Pattern PLAN_ROWS = Pattern.compile("rows=(\\d+)");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DatabaseDialect databaseDialect;
+
+    @Override
+    public List<AttendanceLogRowDto> findSlice(Long departmentId, LogOrder order, boolean ascending,
+            AttendanceLogRowDto boundary, boolean backward, int limit) {
+        // Going backward reads the opposite direction, then flips the rows
+        boolean scanAscending = ascending != backward;
+        String key = String.join(", ", order.columns);
+
+        StringBuilder sql = new StringBuilder(SELECT_SQL);
+        List<Object> params = new ArrayList<>();
+        List<String> where = new ArrayList<>();
+        if (departmentId != null) {
+            where.add("e.department_id = ?");
+            params.add(departmentId);
+        }
+        if (boundary != null) {
+            // Row value comparison, so the index can seek straight to the key
+            where.add("(" + key + ") " + (scanAscending ? ">" : "<") + " ("
+                    + String.join(", ", Collections.nCopies(order.columns.length, "?")) + ")");
+            switch (order) {
+                case EMPLOYEE_ID -> params.add(boundary.getEmployeeId());
+                case EMPLOYEE_NAME -> params.add(boundary.getEmployeeName() != null ? boundary.getEmployeeName() : "");
+                default -> {
+                }
+            }
+            params.add(Timestamp.valueOf(boundary.getTimestamp()));
+            params.add(boundary.getId());
+        }
+        if (!where.isEmpty())
+            sql.append(" WHERE ").append(String.join(" AND ", where));
+
+        String direction = scanAscending ? " ASC" : " DESC";
+        sql.append(" ORDER BY ").append(String.join(direction + ", ", order.columns)).append(direction);
+        sql.append(" LIMIT ?");
+        params.add(limit);
+
+        List<AttendanceLogRowDto> rows = jdbcTemplate.query(sql.toString(), (rs, i) -> {
+            AttendanceLogRowDto row = new AttendanceLogRowDto();
+            row.setId(rs.getLong(1));
+            row.setEmployeeId(rs.getString(2));
+            row.setEmployeeName(rs.getString(3));
+            row.setDeviceId(rs.getObject(4) != null ? rs.getLong(4) : null);
+            row.setTimestamp(rs.getTimestamp(5).toLocalDateTime());
+            return row;
+        }, params.toArray());
+        if (backward)
+            Collections.reverse(rows);
+        return rows;
+    }
+
+    @Override
+    public long estimateCount(Long departmentId) {
+        String sql = departmentId == null ? "SELECT 1 FROM attendance_log"
+                : "SELECT 1 FROM attendance_log l JOIN employee e ON e.id = l.employee_id WHERE e.department_id = ?";
+        Object[] params = departmentId == null ? new Object[0] : new Object[] { departmentId };
+        if (!databaseDialect.isPostgres()) {
+            // Local/embedded databases are small enough to count
+            Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM (" + sql + ") c", Long.class, params);
+            return count != null ? count : 0;
+        }
+        // The first plan line carries the estimated row count of the whole query
+        List<String> plan = jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, params);
+        Matcher m = plan.isEmpty() ? null : PLAN_ROWS.matcher(plan.get(0));
+        return m != null && m.find() ? Long.parseLong(m.group(1)) : 0;
+    }
+}
@@ -7,15 +7,21 @@ import root.cyb.mh.attendancesystem.model.AttendanceLog;
 import java.time.LocalDateTime;
 
 @Repository
-public interface AttendanceLogRepository extends JpaRepository<AttendanceLog, Long> {
-    boolean existsByEmployeeIdAndTimestampAndDeviceId(String employeeId, LocalDateTime timestamp, Long deviceId);
-
+public interface AttendanceLogRepository extends JpaRepository<AttendanceLog, Long>, AttendanceLogBatchRepository,
+        AttendanceLogBrowseRepository {
     java.util.List<AttendanceLog> findByTimestampBetween(LocalDateTime start, LocalDateTime end);
 
     java.util.List<AttendanceLog> findByEmployeeId(String employeeId);
 
-    @org.springframework.data.jpa.repository.Query("SELECT log FROM AttendanceLog log, Employee emp WHERE log.employeeId = emp.id AND emp.department.id = :departmentId")
-    org.springframework.data.domain.Page<AttendanceLog> findByEmployeeDepartmentId(
-            @org.springframework.data.repository.query.Param("departmentId") Long departmentId,
-            org.springframework.data.domain.Pageable pageable);
+    // Half-open [start, end) range on the timestamp index, already in the order
+    // reports consume it so callers can group in a single pass
+    @org.springframework.data.jpa.repository.Query("SELECT log FROM AttendanceLog log WHERE log.timestamp >= :start AND log.timestamp < :end ORDER BY log.employeeId, log.timestamp")
+    java.util.List<AttendanceLog> findInRange(@org.springframework.data.repository.query.Param("start") LocalDateTime start,
+            @org.springframework.data.repository.query.Param("end") LocalDateTime end);
+
+    @org.springframework.data.jpa.repository.Query("SELECT log FROM AttendanceLog log WHERE log.employeeId IN :employeeIds AND log.timestamp >= :start AND log.timestamp < :end ORDER BY log.employeeId, log.timestamp")
+    java.util.List<AttendanceLog> findInRangeForEmployees(
+            @org.springframework.data.repository.query.Param("employeeIds") java.util.Collection<String> employeeIds,
+            @org.springframework.data.repository.query.Param("start") LocalDateTime start,
+            @org.springframework.data.repository.query.Param("end") LocalDateTime end);
 }
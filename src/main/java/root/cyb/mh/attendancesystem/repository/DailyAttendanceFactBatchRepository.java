@@ -0,0 +1,15 @@
+package root.cyb.mh.attendancesystem.repository;
+
+import root.cyb.mh.attendancesystem.model.DailyAttendanceFact;
+
+import java.util.List;
+
+public interface DailyAttendanceFactBatchRepository {
+
+    /**
+     * Inserts freshly built facts with JDBC batching (IDENTITY ids rule out
+     * Hibernate insert batching). Facts already stored by a concurrent build
+     * are skipped.
+     */
+    void insertAll(List<DailyAttendanceFact> facts);
+}
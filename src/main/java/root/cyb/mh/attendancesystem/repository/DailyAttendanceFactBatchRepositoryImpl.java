@@ -0,0 +1,69 @@
+package root.cyb.mh.attendancesystem.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import root.cyb.mh.attendancesystem.model.DailyAttendanceFact;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.util.List;
+
+public class DailyAttendanceFactBatchRepositoryImpl implements DailyAttendanceFactBatchRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO daily_attendance_fact (employee_id, work_date, not_joined, "
+            + "weekend, holiday, on_leave, leave_type, punch_count, first_in, last_out, late, late_minutes, "
+            + "early_leave, early_leave_minutes) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // Concurrent builders may store the same row; the first one wins
+    private static final String UPSERT_SQL = INSERT_SQL + " ON CONFLICT (employee_id, work_date) DO NOTHING";
+
+    private static final int BATCH_SIZE = 1000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DatabaseDialect databaseDialect;
+
+    @Override
+    public void insertAll(List<DailyAttendanceFact> facts) {
+        if (facts.isEmpty())
+            return;
+        if (databaseDialect.isPostgres()) {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, facts, BATCH_SIZE, this::setValues);
+            return;
+        }
+        // H2 and others: another builder may have stored some of these already
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, facts, BATCH_SIZE, this::setValues);
+        } catch (DataIntegrityViolationException e) {
+            for (DailyAttendanceFact fact : facts) {
+                try {
+                    jdbcTemplate.update(INSERT_SQL, ps -> setValues(ps, fact));
+                } catch (DataIntegrityViolationException duplicate) {
+                    // Already stored
+                }
+            }
+        }
+    }
+
+    private void setValues(PreparedStatement ps, DailyAttendanceFact fact) throws SQLException {
+        ps.setString(1, fact.getEmployeeId());
+        ps.setDate(2, Date.valueOf(fact.getWorkDate()));
+        ps.setBoolean(3, fact.isNotJoined());
+        ps.setBoolean(4, fact.isWeekend());
+        ps.setBoolean(5, fact.isHoliday());
+        ps.setBoolean(6, fact.isOnLeave());
+        ps.setString(7, fact.getLeaveType());
+        ps.setInt(8, fact.getPunchCount());
+        ps.setTime(9, fact.getFirstIn() != null ? Time.valueOf(fact.getFirstIn()) : null);
+        ps.setTime(10, fact.getLastOut() != null ? Time.valueOf(fact.getLastOut()) : null);
+        ps.setBoolean(11, fact.isLate());
+        ps.setLong(12, fact.getLateMinutes());
+        ps.setBoolean(13, fact.isEarlyLeave());
+        ps.setLong(14, fact.getEarlyLeaveMinutes());
+    }
+}
@@ -0,0 +1,52 @@
+package root.cyb.mh.attendancesystem.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import root.cyb.mh.attendancesystem.model.DailyAttendanceFact;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface DailyAttendanceFactRepository
+        extends JpaRepository<DailyAttendanceFact, Long>, DailyAttendanceFactBatchRepository {
+
+    List<DailyAttendanceFact> findByEmployeeIdInAndWorkDateBetween(Collection<String> employeeIds, LocalDate from,
+            LocalDate to);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM DailyAttendanceFact f WHERE f.workDate = :date AND f.employeeId IN :employeeIds")
+    int deleteForDate(@Param("date") LocalDate date, @Param("employeeIds") Collection<String> employeeIds);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM DailyAttendanceFact f WHERE f.employeeId = :employeeId AND f.workDate BETWEEN :from AND :to")
+    int deleteForEmployee(@Param("employeeId") String employeeId, @Param("from") LocalDate from,
+            @Param("to") LocalDate to);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM DailyAttendanceFact f WHERE f.employeeId = :employeeId")
+    int deleteForEmployee(@Param("employeeId") String employeeId);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM DailyAttendanceFact f WHERE f.workDate = :date")
+    int deleteForDate(@Param("date") LocalDate date);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM DailyAttendanceFact f WHERE f.workDate BETWEEN :from AND :to")
+    int deleteBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM DailyAttendanceFact f")
+    int deleteAllFacts();
+}
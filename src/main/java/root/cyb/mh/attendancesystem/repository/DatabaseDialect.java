@@ -0,0 +1,29 @@
+package root.cyb.mh.attendancesystem.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Which database the JDBC repositories talk to, for the statements that differ
+ * (ON CONFLICT, RETURNING, EXPLAIN). Read once from the connection metadata on
+ * first use.
+ */
+@Component
+public class DatabaseDialect {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private volatile Boolean postgres;
+
+    public boolean isPostgres() {
+        if (postgres == null) {
+            String product = jdbcTemplate.execute(
+                    (ConnectionCallback<String>) con -> con.getMetaData().getDatabaseProductName());
+            postgres = product != null && product.toLowerCase().contains("postgres");
+        }
+        return postgres;
+    }
+}
@@ -1,10 +1,35 @@
 package root.cyb.mh.attendancesystem.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import root.cyb.mh.attendancesystem.model.Device;
 
+import java.time.LocalDateTime;
+
 @Repository
 public interface DeviceRepository extends JpaRepository<Device, Long> {
     java.util.Optional<Device> findBySerialNumber(String serialNumber);
+
+    // Only ever moves the watermark forward
+    @Transactional
+    @Modifying
+    @Query("UPDATE Device d SET d.lastPunchAt = :ts WHERE d.id = :id AND (d.lastPunchAt IS NULL OR d.lastPunchAt < :ts)")
+    int advanceLastPunchAt(@Param("id") Long id, @Param("ts") LocalDateTime ts);
+
+    // Stamps are numeric; only ever move them forward, compared as numbers
+    @Transactional
+    @Modifying
+    @Query("UPDATE Device d SET d.attlogStamp = :stamp WHERE d.id = :id"
+            + " AND (d.attlogStamp IS NULL OR CAST(d.attlogStamp AS Long) < :value)")
+    int advanceAttlogStamp(@Param("id") Long id, @Param("stamp") String stamp, @Param("value") long value);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Device d SET d.operlogStamp = :stamp WHERE d.id = :id"
+            + " AND (d.operlogStamp IS NULL OR CAST(d.operlogStamp AS Long) < :value)")
+    int advanceOperlogStamp(@Param("id") Long id, @Param("stamp") String stamp, @Param("value") long value);
 }
@@ -1,16 +1,54 @@
 package root.cyb.mh.attendancesystem.repository;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import root.cyb.mh.attendancesystem.model.Employee;
 
+import java.time.LocalDate;
+import java.util.Collection;
+
 @Repository
 public interface EmployeeRepository extends JpaRepository<Employee, String> {
     java.util.List<Employee> findByDepartmentId(Long departmentId);
 
+    // Every employee as a lightweight projection, for EmployeeDirectory
+    @Query("SELECT e.id AS id, e.name AS name, d.name AS departmentName, e.isGuest AS guest, "
+            + "e.joiningDate AS joiningDate, e.designation AS designation, e.role AS role "
+            + "FROM Employee e LEFT JOIN e.department d ORDER BY e.id")
+    java.util.List<EmployeeSummary> findAllSummaries();
+
     // Check if an employee is a supervisor (either primary or assistant)
     boolean existsByReportsTo_IdOrReportsToAssistant_Id(String primaryId, String assistantId);
 
     // Find all subordinates for a supervisor (Primary OR Assistant)
     java.util.List<Employee> findByReportsTo_IdOrReportsToAssistant_Id(String primaryId, String assistantId);
+
+    // Non-guest employees with no DailyAttendanceFact for the date yet
+    @Query("SELECT e FROM Employee e WHERE e.isGuest = false AND NOT EXISTS "
+            + "(SELECT f.id FROM DailyAttendanceFact f WHERE f.employeeId = e.id AND f.workDate = :date)")
+    java.util.List<Employee> findWithoutDailyFact(@Param("date") LocalDate date);
+
+    // Mirrors the statuses ReportService derives from a fact
+    String DAILY_STATUS = "(:status = 'ALL' OR (f.notJoined = false AND ("
+            + "(:status = 'PRESENT' AND f.punchCount > 0) "
+            + "OR (:status = 'LATE' AND f.punchCount > 0 AND f.late = true AND f.weekend = false AND f.holiday = false) "
+            + "OR (:status = 'ABSENT' AND f.punchCount = 0 AND f.onLeave = false AND f.weekend = false AND f.holiday = false) "
+            + "OR (:status = 'LEAVE' AND f.punchCount = 0 AND f.onLeave = true AND f.weekend = false AND f.holiday = false))))";
+
+    // One page of the daily report: non-guests, optionally limited to departments,
+    // filtered on the day's fact by status (ALL, PRESENT, LATE, ABSENT or LEAVE)
+    @Query(value = "SELECT e FROM Employee e LEFT JOIN e.department d "
+            + "JOIN DailyAttendanceFact f ON f.employeeId = e.id AND f.workDate = :date "
+            + "WHERE e.isGuest = false AND (:allDepartments = true OR d.id IN :departmentIds) AND " + DAILY_STATUS,
+            countQuery = "SELECT COUNT(e) FROM Employee e LEFT JOIN e.department d "
+                    + "JOIN DailyAttendanceFact f ON f.employeeId = e.id AND f.workDate = :date "
+                    + "WHERE e.isGuest = false AND (:allDepartments = true OR d.id IN :departmentIds) AND "
+                    + DAILY_STATUS)
+    Page<Employee> findForDailyReport(@Param("date") LocalDate date, @Param("status") String status,
+            @Param("allDepartments") boolean allDepartments, @Param("departmentIds") Collection<Long> departmentIds,
+            Pageable pageable);
 }
@@ -16,4 +16,9 @@ public interface EmployeeShiftRepository extends JpaRepository<EmployeeShift, Lo
             @Param("date") LocalDate date);
 
     List<EmployeeShift> findByEmployeeId(String employeeId);
+
+    // Rows of (employee id, start date, end date, shift), oldest start first
+    @Query("SELECT es.employee.id, es.startDate, es.endDate, s FROM EmployeeShift es JOIN es.shift s "
+            + "WHERE es.startDate IS NOT NULL AND es.endDate IS NOT NULL ORDER BY es.startDate, es.id")
+    List<Object[]> findAllIntervals();
 }
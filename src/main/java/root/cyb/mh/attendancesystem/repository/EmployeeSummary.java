@@ -0,0 +1,24 @@
+package root.cyb.mh.attendancesystem.repository;
+
+import java.time.LocalDate;
+
+/**
+ * Read-only projection of an employee for lists, dropdowns and name lookups.
+ * Selecting only these columns skips the department, supervisor and payroll
+ * state a full Employee loads.
+ */
+public interface EmployeeSummary {
+    String getId();
+
+    String getName();
+
+    String getDepartmentName(); // null when unassigned
+
+    boolean isGuest();
+
+    LocalDate getJoiningDate();
+
+    String getDesignation();
+
+    String getRole();
+}
@@ -1,9 +1,12 @@
 package root.cyb.mh.attendancesystem.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import root.cyb.mh.attendancesystem.model.LeaveRequest;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @Repository
@@ -30,4 +33,22 @@ public interface LeaveRequestRepository extends JpaRepository<LeaveRequest, Long
         // Find approved leaves for a specific date (for Dashboard filtering)
         List<LeaveRequest> findByStartDateLessThanEqualAndEndDateGreaterThanEqualAndStatus(java.time.LocalDate date1,
                         java.time.LocalDate date2, LeaveRequest.Status status);
+
+        // Requests overlapping [from, to], newest first
+        @Query("SELECT l FROM LeaveRequest l JOIN FETCH l.employee WHERE l.status = :status "
+                        + "AND l.startDate <= :to AND l.endDate >= :from ORDER BY l.createdAt DESC")
+        List<LeaveRequest> findOverlapping(@Param("status") LeaveRequest.Status status, @Param("from") LocalDate from,
+                        @Param("to") LocalDate to);
+
+        // Rows of (employee id, start date, end date) overlapping [from, to], for LeaveIndex
+        @Query("SELECT l.employee.id, l.startDate, l.endDate FROM LeaveRequest l WHERE l.status = :status "
+                        + "AND l.startDate <= :to AND l.endDate >= :from")
+        List<Object[]> findIntervals(@Param("status") LeaveRequest.Status status, @Param("from") LocalDate from,
+                        @Param("to") LocalDate to);
+
+        @Query("SELECT l.employee.id, l.startDate, l.endDate FROM LeaveRequest l WHERE l.employee.id = :employeeId "
+                        + "AND l.status = :status AND l.startDate <= :to AND l.endDate >= :from")
+        List<Object[]> findIntervalsForEmployee(@Param("employeeId") String employeeId,
+                        @Param("status") LeaveRequest.Status status, @Param("from") LocalDate from,
+                        @Param("to") LocalDate to);
 }
@@ -0,0 +1,14 @@
+package root.cyb.mh.attendancesystem.repository;
+
+import root.cyb.mh.attendancesystem.model.MonthlyAttendanceRollup;
+
+import java.util.List;
+
+public interface MonthlyAttendanceRollupBatchRepository {
+
+    /**
+     * Inserts freshly built rollups with JDBC batching, like
+     * {@link DailyAttendanceFactBatchRepository#insertAll}.
+     */
+    void insertAll(List<MonthlyAttendanceRollup> rollups);
+}
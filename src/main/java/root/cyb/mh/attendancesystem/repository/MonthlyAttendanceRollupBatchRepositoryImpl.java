@@ -0,0 +1,70 @@
+package root.cyb.mh.attendancesystem.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import root.cyb.mh.attendancesystem.model.MonthlyAttendanceRollup;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+public class MonthlyAttendanceRollupBatchRepositoryImpl implements MonthlyAttendanceRollupBatchRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO monthly_attendance_rollup (employee_id, year, month, "
+            + "present_count, absent_count, late_count, early_leave_count, leave_count, paid_leave_count, "
+            + "unpaid_leave_count, live_day, live_present, live_absent, live_late, live_early_leave) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // Concurrent builders may store the same row; the first one wins
+    private static final String UPSERT_SQL = INSERT_SQL + " ON CONFLICT (employee_id, year, month) DO NOTHING";
+
+    private static final int BATCH_SIZE = 1000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DatabaseDialect databaseDialect;
+
+    @Override
+    public void insertAll(List<MonthlyAttendanceRollup> rollups) {
+        if (rollups.isEmpty())
+            return;
+        if (databaseDialect.isPostgres()) {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, rollups, BATCH_SIZE, this::setValues);
+            return;
+        }
+        // H2 and others: another builder may have stored some of these already
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, rollups, BATCH_SIZE, this::setValues);
+        } catch (DataIntegrityViolationException e) {
+            for (MonthlyAttendanceRollup rollup : rollups) {
+                try {
+                    jdbcTemplate.update(INSERT_SQL, ps -> setValues(ps, rollup));
+                } catch (DataIntegrityViolationException duplicate) {
+                    // Already stored
+                }
+            }
+        }
+    }
+
+    private void setValues(PreparedStatement ps, MonthlyAttendanceRollup rollup) throws SQLException {
+        ps.setString(1, rollup.getEmployeeId());
+        ps.setInt(2, rollup.getYear());
+        ps.setInt(3, rollup.getMonth());
+        ps.setInt(4, rollup.getPresentCount());
+        ps.setInt(5, rollup.getAbsentCount());
+        ps.setInt(6, rollup.getLateCount());
+        ps.setInt(7, rollup.getEarlyLeaveCount());
+        ps.setInt(8, rollup.getLeaveCount());
+        ps.setInt(9, rollup.getPaidLeaveCount());
+        ps.setInt(10, rollup.getUnpaidLeaveCount());
+        ps.setDate(11, rollup.getLiveDay() != null ? Date.valueOf(rollup.getLiveDay()) : null);
+        ps.setBoolean(12, rollup.isLivePresent());
+        ps.setBoolean(13, rollup.isLiveAbsent());
+        ps.setBoolean(14, rollup.isLiveLate());
+        ps.setBoolean(15, rollup.isLiveEarlyLeave());
+    }
+}
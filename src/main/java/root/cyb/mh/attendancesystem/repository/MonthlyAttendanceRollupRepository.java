@@ -0,0 +1,61 @@
+package root.cyb.mh.attendancesystem.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import root.cyb.mh.attendancesystem.model.MonthlyAttendanceRollup;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface MonthlyAttendanceRollupRepository
+        extends JpaRepository<MonthlyAttendanceRollup, Long>, MonthlyAttendanceRollupBatchRepository {
+
+    @Query("SELECT r FROM MonthlyAttendanceRollup r WHERE r.employeeId IN :employeeIds AND r.year = :year "
+            + "AND r.month = :month")
+    List<MonthlyAttendanceRollup> findForMonth(@Param("employeeIds") Collection<String> employeeIds,
+            @Param("year") int year, @Param("month") int month);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM MonthlyAttendanceRollup r WHERE r.employeeId IN :employeeIds AND r.year = :year "
+            + "AND r.month = :month")
+    int deleteForMonth(@Param("employeeIds") Collection<String> employeeIds, @Param("year") int year,
+            @Param("month") int month);
+
+    // Punches on a day other than the rollup's live day (which is applied on read)
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM MonthlyAttendanceRollup r WHERE r.employeeId IN :employeeIds AND r.year = :year "
+            + "AND r.month = :month AND (r.liveDay IS NULL OR r.liveDay <> :date)")
+    int deleteForPunches(@Param("employeeIds") Collection<String> employeeIds, @Param("year") int year,
+            @Param("month") int month, @Param("date") LocalDate date);
+
+    // Months are compared as year * 12 + month
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM MonthlyAttendanceRollup r WHERE r.employeeId = :employeeId "
+            + "AND r.year * 12 + r.month BETWEEN :from AND :to")
+    int deleteForEmployee(@Param("employeeId") String employeeId, @Param("from") int fromMonthIndex,
+            @Param("to") int toMonthIndex);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM MonthlyAttendanceRollup r WHERE r.employeeId = :employeeId")
+    int deleteForEmployee(@Param("employeeId") String employeeId);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM MonthlyAttendanceRollup r WHERE r.year * 12 + r.month BETWEEN :from AND :to")
+    int deleteForMonths(@Param("from") int fromMonthIndex, @Param("to") int toMonthIndex);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM MonthlyAttendanceRollup r")
+    int deleteAllRollups();
+}
@@ -0,0 +1,96 @@
+package root.cyb.mh.attendancesystem.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import root.cyb.mh.attendancesystem.dto.IngestResultDto;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Micrometer meters for the ADMS device protocol.
+ *
+ * adms.lines{sn,table,outcome} counts pushed lines as received, inserted,
+ * duplicate or rejected. adms.ingest.duration{table,phase} times the parse and
+ * persist phases (with histogram buckets). adms.device.last.seen{sn} is the
+ * epoch second of a terminal's last request, so a quiet terminal shows up as
+ * a value that stops moving.
+ *
+ * The sn tag is only the real serial number for devices registered in
+ * {@link DeviceRegistry}; anything else reaching the open /iclock endpoints is
+ * tagged sn=unknown, so made-up serials cannot grow the number of series.
+ */
+@Component
+public class AdmsMetrics {
+
+    public static final String PHASE_PARSE = "parse";
+    public static final String PHASE_PERSIST = "persist";
+
+    private static final String UNKNOWN = "unknown";
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Autowired
+    private DeviceRegistry deviceRegistry;
+
+    private final ConcurrentHashMap<String, AtomicLong> lastSeen = new ConcurrentHashMap<>();
+
+    public void deviceSeen(String sn) {
+        String key = snTag(sn);
+        lastSeen.computeIfAbsent(key, k -> {
+            AtomicLong value = new AtomicLong();
+            Gauge.builder("adms.device.last.seen", value, AtomicLong::get)
+                    .description("Epoch second of the last request from the terminal")
+                    .baseUnit("seconds")
+                    .tag("sn", k)
+                    .register(registry);
+            return value;
+        }).set(System.currentTimeMillis() / 1000);
+    }
+
+    public void recordLines(String sn, String table, IngestResultDto result) {
+        int received = result.getAccepted() + result.getDuplicates() + result.getRejected();
+        lines(sn, table, "received", received);
+        lines(sn, table, "inserted", result.getAccepted());
+        lines(sn, table, "duplicate", result.getDuplicates());
+        lines(sn, table, "rejected", result.getRejected());
+    }
+
+    public void lines(String sn, String table, String outcome, long count) {
+        if (count <= 0)
+            return;
+        Counter.builder("adms.lines")
+                .description("Lines pushed by terminals, by outcome")
+                .tag("sn", snTag(sn))
+                .tag("table", tag(table).toLowerCase())
+                .tag("outcome", outcome)
+                .register(registry)
+                .increment(count);
+    }
+
+    public Timer.Sample startTimer() {
+        return Timer.start(registry);
+    }
+
+    public void stopTimer(Timer.Sample sample, String table, String phase) {
+        sample.stop(Timer.builder("adms.ingest.duration")
+                .description("Time spent parsing and persisting device pushes")
+                .tag("table", tag(table).toLowerCase())
+                .tag("phase", phase)
+                .publishPercentileHistogram()
+                .register(registry));
+    }
+
+    private String snTag(String sn) {
+        return deviceRegistry.isRegistered(sn) ? sn : UNKNOWN;
+    }
+
+    private static String tag(String value) {
+        return value == null || value.isEmpty() ? UNKNOWN : value;
+    }
+}
@@ -1,73 +1,201 @@
 package root.cyb.mh.attendancesystem.service;
 
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import root.cyb.mh.attendancesystem.dto.IngestResultDto;
 import root.cyb.mh.attendancesystem.model.AttendanceLog;
 import root.cyb.mh.attendancesystem.model.Device;
 import root.cyb.mh.attendancesystem.repository.AttendanceLogRepository;
-import root.cyb.mh.attendancesystem.repository.DeviceRepository;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.Optional;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class AdmsService {
 
+    private static final Logger log = LoggerFactory.getLogger(AdmsService.class);
+
     @Autowired
     private AttendanceLogRepository attendanceLogRepository;
 
     @Autowired
-    private DeviceRepository deviceRepository;
+    private DeviceRegistry deviceRegistry;
+
+    @Autowired
+    private DeviceCommandQueue commandQueue;
+
+    @Autowired
+    private PhotoStore photoStore;
+
+    @Autowired
+    private AdmsMetrics metrics;
+
+    @Autowired
+    private DailyAttendanceMaterializer dailyAttendanceMaterializer;
+
+    @Autowired
+    private TodayStatusBoard todayStatusBoard;
+
+    @Autowired
+    private EmployeeDirectory employeeDirectory;
+
+    private static final DateTimeFormatter COMMAND_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    // Used when a device has never pushed anything
+    // Answer to an ATTLOG push without a serial number; nothing is stored
+    public static final String MISSING_SN_RESPONSE = "ERROR: missing SN";
 
-    private String pendingCommand = null;
+    private static final LocalDateTime HISTORY_START = LocalDateTime.of(2000, 1, 1, 0, 0);
 
+    // Re-request a little before the watermark in case punches arrived out of order
+    @Value("${app.adms.attlog-query-overlap-minutes:60}")
+    private int attlogQueryOverlapMinutes;
+
+    /**
+     * Queues a command for every registered terminal.
+     */
     public void queueCommand(String cmd) {
-        this.pendingCommand = "C:" + System.currentTimeMillis() + ":" + cmd;
-        System.out.println("Queued Command: " + this.pendingCommand);
+        java.util.Set<String> serials = deviceRegistry.serialNumbers();
+        for (String sn : serials) {
+            queueCommand(sn, cmd);
+        }
+        if (serials.isEmpty()) {
+            log.warn("No known devices to queue command for cmd={}", cmd);
+        }
     }
 
-    public String getPendingCommand() {
-        String cmd = this.pendingCommand;
-        this.pendingCommand = null; // Clear after fetching
+    public void queueCommand(String sn, String cmd) {
+        long id = commandQueue.enqueue(sn, cmd);
+        if (id < 0)
+            return;
+        log.info("Queued command id={} sn={} cmd={}", id, sn, cmd);
+    }
+
+    public String getPendingCommand(String sn) {
+        metrics.deviceSeen(sn);
+        String cmd = commandQueue.poll(sn);
         return cmd != null ? cmd : "OK";
     }
 
-    public String processCdata(String sn, String table, String data) {
-        // Find device by SN once
-        Long deviceId = 0L;
-        Optional<Device> deviceOpt = deviceRepository.findBySerialNumber(sn);
-        if (deviceOpt.isPresent()) {
-            deviceId = deviceOpt.get().getId();
-        } else {
-            // Optionally auto-register device here if needed
-            System.out.println("Unknown device SN: " + sn);
+    /**
+     * Long-poll variant of {@link #getPendingCommand}: if nothing is due, the
+     * answer is held until a command is queued for this terminal or the hold
+     * time runs out. No thread is parked while waiting.
+     */
+    public CompletableFuture<String> awaitPendingCommand(String sn, long holdMillis) {
+        metrics.deviceSeen(sn);
+        CompletableFuture<Void> signal = commandQueue.commandSignal(sn);
+        String cmd = commandQueue.poll(sn);
+        if (cmd != null)
+            return CompletableFuture.completedFuture(cmd);
+        return signal.copy()
+                .completeOnTimeout(null, holdMillis, TimeUnit.MILLISECONDS)
+                .thenApply(ignored -> getPendingCommand(sn));
+    }
+
+    /**
+     * Handles the result lines a terminal posts to /iclock/devicecmd, e.g.
+     * "ID=1712345&amp;Return=0&amp;CMD=DATA". Each acknowledged id leaves the retry set.
+     */
+    public String processCommandResults(String sn, String data) {
+        metrics.deviceSeen(sn);
+        for (String line : data.split("\\r?\\n")) {
+            Long id = null;
+            String ret = null;
+            for (String pair : line.trim().split("&")) {
+                if (pair.startsWith("ID=")) {
+                    try {
+                        id = Long.parseLong(pair.substring(3).trim());
+                    } catch (NumberFormatException e) {
+                        // Not one of ours
+                    }
+                } else if (pair.startsWith("Return=")) {
+                    ret = pair.substring(7).trim();
+                }
+            }
+            if (id != null && commandQueue.acknowledge(sn, id)) {
+                log.info("Command result id={} sn={} return={}", id, sn, ret);
+            }
         }
+        return "OK";
+    }
+
+    /**
+     * Answer to the GET /iclock/cdata handshake. Hands the terminal back the
+     * stamps it last reported so it only pushes records newer than those.
+     */
+    public String handshake(String sn) {
+        Device device = deviceRegistry.resolve(sn);
+        metrics.deviceSeen(sn);
+        StringBuilder sb = new StringBuilder("GET OPTION FROM: ").append(sn != null ? sn : "");
+        if (device != null && device.getAttlogStamp() != null)
+            sb.append('\n').append("ATTLOGStamp=").append(device.getAttlogStamp());
+        if (device != null && device.getOperlogStamp() != null)
+            sb.append('\n').append("OPERLOGStamp=").append(device.getOperlogStamp());
+        return sb.toString();
+    }
+
+    /**
+     * Queues a windowed ATTLOG query per device, starting just before the newest
+     * punch already stored for it. Pass null to query every device.
+     */
+    public void queueAttlogDownload(Long deviceId) {
+        LocalDateTime end = LocalDateTime.now().plusDays(1);
+        for (Device device : deviceRegistry.devices()) {
+            if (deviceId != null && !deviceId.equals(device.getId()))
+                continue;
+            LocalDateTime start = device.getLastPunchAt() != null
+                    ? device.getLastPunchAt().minusMinutes(attlogQueryOverlapMinutes)
+                    : HISTORY_START;
+            queueCommand(device.getSerialNumber(), "DATA QUERY ATTLOG StartTime=" + start.format(COMMAND_TIME_FORMAT)
+                    + "\tEndTime=" + end.format(COMMAND_TIME_FORMAT));
+        }
+    }
+
+    public String processCdata(String sn, String table, String stamp, String data) {
+        // Cached lookup; unknown serial numbers are registered on first contact
+        Device device = deviceRegistry.resolve(sn);
+        metrics.deviceSeen(sn);
 
         if ("attlog".equalsIgnoreCase(table)) {
-            System.out.println("Processing ATTLOG data...");
-            String[] lines = data.split("\\r?\\n");
-            for (String line : lines) {
-                if (line.trim().isEmpty())
-                    continue;
-                parseAndSaveLog(deviceId, line);
-            }
-            return "OK";
+            return storeAttlog(sn, device, stamp, new StringReader(data));
         } else if ("userinfo".equalsIgnoreCase(table)) {
-            System.out.println("Processing USERINFO data...");
             String[] lines = data.split("\\r?\\n");
+            int count = 0;
             for (String line : lines) {
                 if (line.trim().isEmpty())
                     continue;
                 // Some devices send raw "PIN=..." in userinfo, others might send "USER PIN=..."
                 String cleanLine = line.startsWith("USER ") ? line.substring(5) : line;
                 parseAndSaveUser(cleanLine);
+                count++;
             }
+            metrics.lines(sn, table, "received", count);
+            log.info("USERINFO processed sn={} lines={}", sn, count);
             return "OK";
         } else if ("operlog".equalsIgnoreCase(table)) {
             // Device sends user data mixed in OPERLOG with "USER " prefix
-            System.out.println("Processing OPERLOG data...");
             String[] lines = data.split("\\r?\\n");
+            metrics.lines(sn, table, "received", lines.length);
+            log.info("OPERLOG processed sn={} lines={}", sn, lines.length);
             for (String line : lines) {
                 if (line.startsWith("USER ")) {
                     parseAndSaveUser(line.substring(5)); // Remove "USER " prefix
@@ -75,9 +203,10 @@ public class AdmsService {
                     parseAndSaveUserPic(line.substring(8)); // Remove "USERPIC " prefix
                 }
             }
+            deviceRegistry.recordOperlog(device, stamp);
             return "OK";
         } else {
-            // System.out.println("Ignored Table: " + table);
+            log.debug("Ignored push sn={} table={}", sn, table);
             return "OK";
         }
     }
@@ -141,10 +270,11 @@ public class AdmsService {
                     emp.setPassword(password);
 
                 employeeRepository.save(emp);
-                System.out.println("Saved User: " + id + " (" + name + ")");
+                employeeDirectory.invalidate();
+                log.info("Saved user id={} name={}", id, name);
             }
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Could not save user from line={}", line, e);
         }
     }
 
@@ -165,60 +295,107 @@ public class AdmsService {
             if (id != null && content != null) {
                 root.cyb.mh.attendancesystem.model.Employee emp = employeeRepository.findById(id).orElse(null);
                 if (emp != null) {
-                    emp.setPhotoBase64(content);
-                    employeeRepository.save(emp);
-                    System.out.println("Saved Photo for User: " + id);
+                    // Decoded once into the file store; the row only keeps the hash
+                    String hash = photoStore.storeBase64(content);
+                    if (hash != null && !hash.equals(emp.getPhotoHash())) {
+                        emp.setPhotoHash(hash);
+                        employeeRepository.save(emp);
+                        log.info("Saved photo id={} hash={}", id, hash);
+                    }
                 }
             }
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Could not save user photo", e);
         }
     }
 
-    private void parseAndSaveLog(Long deviceId, String line) {
-        try {
-            // Format received: 3 2025-12-16 18:28:33 0 1 0 0 0 0 0 0 1762
-            // Tokens: [0]=ID, [1]=Time, [2]=Status, [3]=VerifyType...
+    /**
+     * ATTLOG entry point that parses straight from the request body stream,
+     * without materializing the push as a String first.
+     */
+    public String processAttlog(String sn, String stamp, Reader body) {
+        Device device = deviceRegistry.resolve(sn);
+        metrics.deviceSeen(sn);
+        return storeAttlog(sn, device, stamp, body);
+    }
 
-            String employeeId = null;
-            String timeStr = null;
+    // Every punch belongs to a registered terminal, so pushes without SN are refused
+    private String storeAttlog(String sn, Device device, String stamp, Reader body) {
+        if (device == null) {
+            log.warn("ATTLOG push without SN rejected");
+            return MISSING_SN_RESPONSE;
+        }
+        IngestResultDto result = ingestAttlog(sn, device.getId(), body);
+        deviceRegistry.recordAttlog(device, result.getNewestPunch(), stamp);
+        return result.toResponse();
+    }
 
-            String[] tokens = line.split("\\t");
+    /**
+     * Parses a whole ATTLOG push into one batch and writes it with one JDBC
+     * batch. Rows already stored are skipped by the database, so concurrent
+     * retries of the same push cannot create duplicates.
+     */
+    private IngestResultDto ingestAttlog(String sn, Long deviceId, Reader data) {
+        IngestResultDto result = new IngestResultDto();
+        Timer.Sample parseTimer = metrics.startTimer();
 
-            if (tokens.length >= 2) {
-                // Try parsing as raw tab-separated
-                // Check if it's NOT the key-value format (doesn't contain "=")
-                if (!line.contains("PIN=") && !line.contains("Time=")) {
-                    employeeId = tokens[0].trim();
-                    // Timestamp might be in token 1
-                    timeStr = tokens[1].trim();
-                } else {
-                    // Fallback to Key-Value parser
-                    for (String token : tokens) {
-                        if (token.startsWith("PIN=")) {
-                            employeeId = token.substring(4);
-                        } else if (token.startsWith("Time=")) {
-                            timeStr = token.substring(5);
-                        }
+        // Parse everything first, collapsing repeats inside the same push
+        Map<String, AttendanceLog> batch = new LinkedHashMap<>();
+        try {
+            AttlogParser.parse(data, new AttlogParser.PunchHandler() {
+                @Override
+                public void onPunch(String employeeId, LocalDateTime timestamp) {
+                    AttendanceLog punch = new AttendanceLog();
+                    punch.setEmployeeId(employeeId);
+                    punch.setTimestamp(timestamp);
+                    punch.setDeviceId(deviceId);
+                    if (result.getNewestPunch() == null || timestamp.isAfter(result.getNewestPunch())) {
+                        result.setNewestPunch(timestamp);
+                    }
+                    if (batch.putIfAbsent(punchKey(employeeId, timestamp), punch) != null) {
+                        result.setDuplicates(result.getDuplicates() + 1);
                     }
                 }
-            }
 
-            if (employeeId != null && timeStr != null) {
-                DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-                LocalDateTime timestamp = LocalDateTime.parse(timeStr, formatter);
-
-                if (!attendanceLogRepository.existsByEmployeeIdAndTimestampAndDeviceId(employeeId, timestamp,
-                        deviceId)) {
-                    AttendanceLog log = new AttendanceLog();
-                    log.setEmployeeId(employeeId);
-                    log.setTimestamp(timestamp);
-                    log.setDeviceId(deviceId);
-                    attendanceLogRepository.save(log);
+                @Override
+                public void onRejected(String line) {
+                    result.setRejected(result.getRejected() + 1);
+                    log.warn("Rejected ATTLOG line sn={} line={}", sn, line);
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        metrics.stopTimer(parseTimer, "attlog", AdmsMetrics.PHASE_PARSE);
+
+        if (!batch.isEmpty()) {
+            // The unique constraint decides what is new; no read before the write
+            Timer.Sample persistTimer = metrics.startTimer();
+            List<AttendanceLog> inserted = attendanceLogRepository
+                    .insertIgnoringDuplicates(new ArrayList<>(batch.values()));
+            metrics.stopTimer(persistTimer, "attlog", AdmsMetrics.PHASE_PERSIST);
+            result.setAccepted(inserted.size());
+            result.setDuplicates(result.getDuplicates() + batch.size() - inserted.size());
+
+            if (!inserted.isEmpty()) {
+                // Only rows that were really new change the day facts and the board
+                Map<LocalDate, Set<String>> touched = new HashMap<>();
+                for (AttendanceLog punch : inserted) {
+                    touched.computeIfAbsent(punch.getTimestamp().toLocalDate(), k -> new HashSet<>())
+                            .add(punch.getEmployeeId());
                 }
+                dailyAttendanceMaterializer.punchesChanged(touched);
+                todayStatusBoard.punches(inserted);
             }
-        } catch (Exception e) {
-            e.printStackTrace();
         }
+
+        metrics.recordLines(sn, "attlog", result);
+        log.info("ATTLOG processed sn={} accepted={} duplicates={} rejected={}", sn, result.getAccepted(),
+                result.getDuplicates(), result.getRejected());
+        return result;
+    }
+
+    private static String punchKey(String employeeId, LocalDateTime timestamp) {
+        return employeeId + '|' + timestamp;
     }
 }
@@ -0,0 +1,179 @@
+package root.cyb.mh.attendancesystem.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+/**
+ * Streaming parser for ATTLOG pushes.
+ *
+ * Reads the body in chunks instead of splitting it into a String array, finds
+ * tabs by hand instead of using a regex, and reads the fixed
+ * "yyyy-MM-dd HH:mm:ss" layout straight into a LocalDateTime without a
+ * DateTimeFormatter. Two line formats are supported:
+ *
+ * Raw: 3\t2025-12-16 18:28:33\t0\t1\t0...
+ * Key-value: PIN=3\tTime=2025-12-16 18:28:33\tStatus=0...
+ */
+public final class AttlogParser {
+
+    public interface PunchHandler {
+        void onPunch(String employeeId, LocalDateTime timestamp);
+
+        void onRejected(String line);
+    }
+
+    private static final int TIMESTAMP_LENGTH = 19;
+
+    private AttlogParser() {
+    }
+
+    public static void parse(Reader reader, PunchHandler handler) throws IOException {
+        char[] chunk = new char[8192];
+        char[] line = new char[256];
+        int length = 0;
+        int read;
+        while ((read = reader.read(chunk)) != -1) {
+            for (int i = 0; i < read; i++) {
+                char c = chunk[i];
+                if (c == '\n') {
+                    parseLine(line, length, handler);
+                    length = 0;
+                } else {
+                    if (length == line.length)
+                        line = Arrays.copyOf(line, length * 2);
+                    line[length++] = c;
+                }
+            }
+        }
+        if (length > 0)
+            parseLine(line, length, handler);
+    }
+
+    private static void parseLine(char[] line, int length, PunchHandler handler) {
+        int end = length;
+        if (end > 0 && line[end - 1] == '\r')
+            end--;
+        if (isBlank(line, 0, end))
+            return;
+
+        // Single pass over the tab-separated tokens, remembering only what we need
+        int tokenCount = 0;
+        int firstStart = -1, firstEnd = -1, secondStart = -1, secondEnd = -1;
+        int pinStart = -1, pinEnd = -1, timeStart = -1, timeEnd = -1;
+
+        int tokenStart = 0;
+        for (int i = 0; i <= end; i++) {
+            if (i < end && line[i] != '\t')
+                continue;
+
+            if (tokenCount == 0) {
+                firstStart = tokenStart;
+                firstEnd = i;
+            } else if (tokenCount == 1) {
+                secondStart = tokenStart;
+                secondEnd = i;
+            }
+            if (startsWith(line, tokenStart, i, "PIN=")) {
+                pinStart = tokenStart + 4;
+                pinEnd = i;
+            } else if (startsWith(line, tokenStart, i, "Time=")) {
+                timeStart = tokenStart + 5;
+                timeEnd = i;
+            }
+            tokenCount++;
+            tokenStart = i + 1;
+        }
+
+        String employeeId = null;
+        LocalDateTime timestamp = null;
+        if (tokenCount >= 2) {
+            if (pinStart < 0 && timeStart < 0) {
+                // Raw positional format
+                int idStart = trimStart(line, firstStart, firstEnd);
+                int idEnd = trimEnd(line, idStart, firstEnd);
+                if (idEnd > idStart)
+                    employeeId = new String(line, idStart, idEnd - idStart);
+                timestamp = parseTimestamp(line, secondStart, secondEnd);
+            } else if (pinStart >= 0 && timeStart >= 0) {
+                if (pinEnd > pinStart)
+                    employeeId = new String(line, pinStart, pinEnd - pinStart);
+                timestamp = parseTimestamp(line, timeStart, timeEnd);
+            }
+        }
+
+        if (employeeId != null && timestamp != null) {
+            handler.onPunch(employeeId, timestamp);
+        } else {
+            handler.onRejected(new String(line, 0, end));
+        }
+    }
+
+    /**
+     * Parses "yyyy-MM-dd HH:mm:ss" (surrounding whitespace allowed).
+     * Returns null if the text does not match or is not a real date/time.
+     */
+    static LocalDateTime parseTimestamp(char[] text, int from, int to) {
+        int start = trimStart(text, from, to);
+        int end = trimEnd(text, start, to);
+        if (end - start != TIMESTAMP_LENGTH)
+            return null;
+        if (text[start + 4] != '-' || text[start + 7] != '-' || text[start + 10] != ' '
+                || text[start + 13] != ':' || text[start + 16] != ':')
+            return null;
+
+        int year = digits(text, start, 4);
+        int month = digits(text, start + 5, 2);
+        int day = digits(text, start + 8, 2);
+        int hour = digits(text, start + 11, 2);
+        int minute = digits(text, start + 14, 2);
+        int second = digits(text, start + 17, 2);
+        if (year < 0 || month < 0 || day < 0 || hour < 0 || minute < 0 || second < 0)
+            return null;
+
+        try {
+            return LocalDateTime.of(year, month, day, hour, minute, second);
+        } catch (DateTimeException e) {
+            return null;
+        }
+    }
+
+    private static int digits(char[] text, int from, int count) {
+        int value = 0;
+        for (int i = from; i < from + count; i++) {
+            char c = text[i];
+            if (c < '0' || c > '9')
+                return -1;
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static boolean startsWith(char[] text, int from, int to, String prefix) {
+        if (to - from < prefix.length())
+            return false;
+        for (int i = 0; i < prefix.length(); i++) {
+            if (text[from + i] != prefix.charAt(i))
+                return false;
+        }
+        return true;
+    }
+
+    private static int trimStart(char[] text, int from, int to) {
+        while (from < to && text[from] <= ' ')
+            from++;
+        return from;
+    }
+
+    private static int trimEnd(char[] text, int from, int to) {
+        while (to > from && text[to - 1] <= ' ')
+            to--;
+        return to;
+    }
+
+    private static boolean isBlank(char[] text, int from, int to) {
+        return trimStart(text, from, to) == to;
+    }
+}
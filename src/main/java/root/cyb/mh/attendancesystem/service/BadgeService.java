@@ -12,10 +12,7 @@ import java.util.List;
 public class BadgeService {
 
     @org.springframework.beans.factory.annotation.Autowired
-    private root.cyb.mh.attendancesystem.repository.WorkScheduleRepository workScheduleRepository;
-
-    @org.springframework.beans.factory.annotation.Autowired
-    private root.cyb.mh.attendancesystem.repository.PublicHolidayRepository publicHolidayRepository;
+    private WorkCalendar workCalendar;
 
     public List<String> calculateBadges(EmployeeMonthlyDetailDto monthlyStats, List<DailyAttendanceDto> dailyLogs) {
         List<String> badges = new ArrayList<>();
@@ -34,7 +31,7 @@ public class BadgeService {
         LocalDate end = (year == now.getYear() && month == now.getMonthValue()) ? now
                 : start.withDayOfMonth(start.lengthOfMonth());
 
-        int workingDaysSoFar = calculateWorkingDays(start, end);
+        int workingDaysSoFar = workCalendar.countWorkingDays(start, end);
         if (workingDaysSoFar == 0)
             return badges; // Avoid division by zero
 
@@ -62,42 +59,4 @@ public class BadgeService {
 
         return badges;
     }
-
-    private int calculateWorkingDays(LocalDate start, LocalDate end) {
-        // 1. Get Global Schedule (Weekend Config)
-        root.cyb.mh.attendancesystem.model.WorkSchedule schedule = workScheduleRepository.findAll().stream().findFirst()
-                .orElse(null);
-        List<String> weekendDays = new ArrayList<>();
-        if (schedule != null && schedule.getWeekendDays() != null && !schedule.getWeekendDays().isEmpty()) {
-            String[] days = schedule.getWeekendDays().split(",");
-            for (String d : days) {
-                weekendDays.add(d.trim());
-            }
-        } else {
-            weekendDays.add("6"); // Default Sat
-            weekendDays.add("7"); // Default Sun
-        }
-
-        // 2. Get Holidays in Range
-        List<root.cyb.mh.attendancesystem.model.PublicHoliday> holidays = publicHolidayRepository.findAll();
-
-        int workingDays = 0;
-        LocalDate current = start;
-        while (!current.isAfter(end)) {
-            // Check Weekend
-            String dayOfWeek = String.valueOf(current.getDayOfWeek().getValue()); // 1=Mon, 7=Sun
-            boolean isWeekend = weekendDays.contains(dayOfWeek);
-
-            // Check Holiday (Single Date Check)
-            LocalDate finalCurrent = current;
-            boolean isHoliday = holidays.stream()
-                    .anyMatch(h -> h.getDate() != null && h.getDate().equals(finalCurrent));
-
-            if (!isWeekend && !isHoliday) {
-                workingDays++;
-            }
-            current = current.plusDays(1);
-        }
-        return workingDays;
-    }
 }
@@ -0,0 +1,52 @@
+package root.cyb.mh.attendancesystem.service;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * A value loaded on first use and shared until {@link #invalidate()}.
+ *
+ * One load runs at a time. An invalidation never waits for a load, and a load
+ * that was in flight when it happened is handed to its own caller but not
+ * kept, so a write followed by invalidate() is always visible to the next
+ * read after it.
+ */
+final class CachedSnapshot<T> {
+
+    private final Supplier<T> loader;
+
+    // Replaced on every invalidation, so a load can tell it was overtaken
+    private final AtomicReference<Entry<T>> entry = new AtomicReference<>(new Entry<>(null));
+
+    private final Object loadLock = new Object();
+
+    CachedSnapshot(Supplier<T> loader) {
+        this.loader = loader;
+    }
+
+    T get() {
+        T current = entry.get().value;
+        if (current != null)
+            return current;
+        synchronized (loadLock) {
+            Entry<T> before = entry.get();
+            if (before.value != null)
+                return before.value;
+            T loaded = loader.get();
+            entry.compareAndSet(before, new Entry<>(loaded));
+            return loaded;
+        }
+    }
+
+    void invalidate() {
+        entry.set(new Entry<>(null));
+    }
+
+    private static final class Entry<T> {
+        final T value;
+
+        Entry(T value) {
+            this.value = value;
+        }
+    }
+}
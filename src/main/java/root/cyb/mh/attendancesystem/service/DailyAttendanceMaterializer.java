@@ -0,0 +1,395 @@
+package root.cyb.mh.attendancesystem.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import root.cyb.mh.attendancesystem.model.AttendanceLog;
+import root.cyb.mh.attendancesystem.model.DailyAttendanceFact;
+import root.cyb.mh.attendancesystem.model.Employee;
+import root.cyb.mh.attendancesystem.model.LeaveRequest;
+import root.cyb.mh.attendancesystem.model.WorkSchedule;
+import root.cyb.mh.attendancesystem.repository.AttendanceLogRepository;
+import root.cyb.mh.attendancesystem.repository.DailyAttendanceFactRepository;
+import root.cyb.mh.attendancesystem.repository.EmployeeRepository;
+import root.cyb.mh.attendancesystem.repository.LeaveRequestRepository;
+import root.cyb.mh.attendancesystem.repository.MonthlyAttendanceRollupRepository;
+import root.cyb.mh.attendancesystem.repository.WorkScheduleRepository;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Maintains the DailyAttendanceFact table: one precomputed row per employee per
+ * day holding first in / last out, late and early flags, leave, weekend and
+ * holiday. Reports read these rows instead of re-deriving them from raw punches.
+ *
+ * Facts are built on first read and deleted whenever one of their inputs
+ * changes (punches, approved leave, shift assignments, holidays, the work
+ * schedule, an employee's joining date), so the next read rebuilds only what
+ * was invalidated. The monthly rollups summed from the facts are dropped
+ * along with them.
+ *
+ * Reads and builds run concurrently. Only the final insert is serialized with
+ * invalidation: each build is registered before it reads its inputs, an
+ * invalidation marks the registered builds whose employees and dates it
+ * covers, and a build stores rows only for employees that were not marked.
+ * A build that raced with a change still returns its rows to the caller; they
+ * just are not kept.
+ */
+@Service
+public class DailyAttendanceMaterializer {
+
+    // Keeps IN (...) lists well below database parameter limits
+    private static final int ID_CHUNK = 1000;
+
+    @Autowired
+    private DailyAttendanceFactRepository factRepository;
+
+    @Autowired
+    private AttendanceLogRepository attendanceLogRepository;
+
+    @Autowired
+    private LeaveRequestRepository leaveRequestRepository;
+
+    @Autowired
+    private WorkCalendar workCalendar;
+
+    @Autowired
+    private WorkScheduleRepository workScheduleRepository;
+
+    @Autowired
+    private ScheduleResolver scheduleResolver;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private MonthlyAttendanceRollupRepository rollupRepository;
+
+    // Guards the marks on in-flight builds, and the stores that check them
+    private final Object lock = new Object();
+
+    private final Set<Build> builds = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Returns the facts for every employee and every day in [from, to], keyed by
+     * employee id then date. Missing facts are built and stored first.
+     */
+    public Map<String, Map<LocalDate, DailyAttendanceFact>> getFacts(Collection<Employee> employees, LocalDate from,
+            LocalDate to) {
+        Map<String, Employee> byId = new LinkedHashMap<>();
+        for (Employee emp : employees) {
+            byId.put(emp.getId(), emp);
+        }
+        Map<String, Map<LocalDate, DailyAttendanceFact>> facts = new HashMap<>();
+        for (String id : byId.keySet()) {
+            facts.put(id, new HashMap<>());
+        }
+        if (byId.isEmpty() || to.isBefore(from))
+            return facts;
+
+        long days = ChronoUnit.DAYS.between(from, to) + 1;
+        for (List<String> chunk : chunks(byId.keySet())) {
+            for (DailyAttendanceFact fact : factRepository.findByEmployeeIdInAndWorkDateBetween(chunk, from, to)) {
+                facts.get(fact.getEmployeeId()).put(fact.getWorkDate(), fact);
+            }
+        }
+
+        List<Employee> incomplete = new ArrayList<>();
+        for (Employee emp : byId.values()) {
+            if (facts.get(emp.getId()).size() < days)
+                incomplete.add(emp);
+        }
+        if (incomplete.isEmpty())
+            return facts;
+
+        Set<String> ids = new HashSet<>();
+        for (Employee emp : incomplete) {
+            ids.add(emp.getId());
+        }
+        Build build = beginBuild(ids, from, to);
+        try {
+            List<DailyAttendanceFact> built = build(incomplete, from, to, facts);
+            store(build, built, DailyAttendanceFact::getEmployeeId, factRepository::insertAll);
+            for (DailyAttendanceFact fact : built) {
+                facts.get(fact.getEmployeeId()).put(fact.getWorkDate(), fact);
+            }
+        } finally {
+            endBuild(build);
+        }
+        return facts;
+    }
+
+    public Map<LocalDate, DailyAttendanceFact> getFacts(Employee employee, LocalDate from, LocalDate to) {
+        return getFacts(List.of(employee), from, to).get(employee.getId());
+    }
+
+    /**
+     * Makes sure every non-guest employee has a fact for the date, so reports
+     * can filter and page on the fact table in SQL. Once the day is complete
+     * this is a single anti-join returning nothing.
+     */
+    public void prepareDay(LocalDate date) {
+        List<Employee> missing = employeeRepository.findWithoutDailyFact(date);
+        if (!missing.isEmpty()) {
+            getFacts(missing, date, date);
+        }
+    }
+
+    // --- Builds in flight ---
+
+    /**
+     * Registers a build of rows for the employees over [from, to], also used
+     * for the monthly rollups summed from facts. Call before reading any input,
+     * and {@link #endBuild} when done.
+     */
+    Build beginBuild(Set<String> employeeIds, LocalDate from, LocalDate to) {
+        Build build = new Build(employeeIds, from, to);
+        builds.add(build);
+        return build;
+    }
+
+    void endBuild(Build build) {
+        builds.remove(build);
+    }
+
+    /**
+     * Inserts the rows of employees whose inputs have not been invalidated
+     * since the build began; the others are dropped.
+     */
+    <T> void store(Build build, List<T> rows, Function<T, String> employeeId, Consumer<List<T>> insert) {
+        synchronized (lock) {
+            if (build.allStale)
+                return;
+            List<T> fresh = rows;
+            if (!build.stale.isEmpty()) {
+                fresh = new ArrayList<>(rows.size());
+                for (T row : rows) {
+                    if (!build.stale.contains(employeeId.apply(row)))
+                        fresh.add(row);
+                }
+            }
+            insert.accept(fresh);
+        }
+    }
+
+    // Caller holds the lock. A null employee set marks every employee.
+    private void markStale(Collection<String> employeeIds, LocalDate from, LocalDate to) {
+        for (Build build : builds) {
+            if (build.to.isBefore(from) || build.from.isAfter(to))
+                continue;
+            if (employeeIds == null) {
+                build.allStale = true;
+                continue;
+            }
+            for (String id : employeeIds) {
+                if (build.employeeIds.contains(id))
+                    build.stale.add(id);
+            }
+        }
+    }
+
+    static final class Build {
+        final Set<String> employeeIds;
+        final LocalDate from;
+        final LocalDate to;
+        // Written and read under the lock
+        final Set<String> stale = new HashSet<>();
+        boolean allStale;
+
+        private Build(Set<String> employeeIds, LocalDate from, LocalDate to) {
+            this.employeeIds = employeeIds;
+            this.from = from;
+            this.to = to;
+        }
+    }
+
+    // --- Invalidation ---
+
+    /**
+     * New punches were stored. Keyed by day, the employees who punched.
+     */
+    public void punchesChanged(Map<LocalDate, Set<String>> employeesByDate) {
+        synchronized (lock) {
+            for (Map.Entry<LocalDate, Set<String>> entry : employeesByDate.entrySet()) {
+                LocalDate date = entry.getKey();
+                markStale(entry.getValue(), date, date);
+                for (List<String> chunk : chunks(entry.getValue())) {
+                    factRepository.deleteForDate(date, chunk);
+                    rollupRepository.deleteForPunches(chunk, date.getYear(), date.getMonthValue(), date);
+                }
+            }
+        }
+    }
+
+    public void invalidate(String employeeId, LocalDate from, LocalDate to) {
+        synchronized (lock) {
+            markStale(Set.of(employeeId), from, to.withMonth(12).withDayOfMonth(31));
+            factRepository.deleteForEmployee(employeeId, from, to);
+            // Leave taken in a month changes the paid/unpaid split of the rest of that year
+            rollupRepository.deleteForEmployee(employeeId, monthIndex(from), monthIndex(to.withMonth(12)));
+        }
+    }
+
+    public void invalidateEmployee(String employeeId) {
+        synchronized (lock) {
+            markStale(Set.of(employeeId), LocalDate.MIN, LocalDate.MAX);
+            factRepository.deleteForEmployee(employeeId);
+            rollupRepository.deleteForEmployee(employeeId);
+        }
+    }
+
+    public void invalidateDate(LocalDate date) {
+        synchronized (lock) {
+            markStale(null, date.withDayOfMonth(1), date.withDayOfMonth(date.lengthOfMonth()));
+            factRepository.deleteForDate(date);
+            rollupRepository.deleteForMonths(monthIndex(date), monthIndex(date));
+        }
+    }
+
+    /**
+     * Drops every fact and rollup in [from, to], e.g. after corrections made
+     * outside the application.
+     */
+    public void invalidateRange(LocalDate from, LocalDate to) {
+        synchronized (lock) {
+            markStale(null, from.withDayOfMonth(1), to.withDayOfMonth(to.lengthOfMonth()));
+            factRepository.deleteBetween(from, to);
+            rollupRepository.deleteForMonths(monthIndex(from), monthIndex(to));
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (lock) {
+            markStale(null, LocalDate.MIN, LocalDate.MAX);
+            factRepository.deleteAllFacts();
+            rollupRepository.deleteAllRollups();
+        }
+    }
+
+    // Same numbering as MonthlyAttendanceRollupRepository: year * 12 + month
+    private static int monthIndex(LocalDate date) {
+        return date.getYear() * 12 + date.getMonthValue();
+    }
+
+    // --- Building ---
+
+    private List<DailyAttendanceFact> build(List<Employee> employees, LocalDate from, LocalDate to,
+            Map<String, Map<LocalDate, DailyAttendanceFact>> existing) {
+        WorkSchedule globalSchedule = workScheduleRepository.findAll().stream().findFirst().orElse(new WorkSchedule());
+
+        Set<String> ids = new HashSet<>();
+        for (Employee emp : employees) {
+            ids.add(emp.getId());
+        }
+
+        // Approved leave overlapping the range, newest first per employee
+        Map<String, List<LeaveRequest>> leavesByEmployee = new HashMap<>();
+        for (LeaveRequest l : leaveRequestRepository.findOverlapping(LeaveRequest.Status.APPROVED, from, to)) {
+            String empId = l.getEmployee().getId();
+            if (ids.contains(empId))
+                leavesByEmployee.computeIfAbsent(empId, k -> new ArrayList<>()).add(l);
+        }
+
+        // One pass over the punches, bucketed by employee and day
+        PunchIndex punches = new PunchIndex(from, to);
+        for (List<String> chunk : chunks(ids)) {
+            for (AttendanceLog log : attendanceLogRepository.findInRangeForEmployees(chunk, from.atStartOfDay(),
+                    to.plusDays(1).atStartOfDay())) {
+                punches.add(log.getEmployeeId(), log.getTimestamp());
+            }
+        }
+
+        List<DailyAttendanceFact> built = new ArrayList<>();
+        for (Employee emp : employees) {
+            Map<LocalDate, DailyAttendanceFact> have = existing.get(emp.getId());
+            List<LeaveRequest> empLeaves = leavesByEmployee.getOrDefault(emp.getId(), List.of());
+            for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+                if (have.containsKey(date))
+                    continue;
+                built.add(buildFact(emp, date, scheduleResolver.resolveSchedule(emp.getId(), date, globalSchedule),
+                        empLeaves, punches));
+            }
+        }
+        return built;
+    }
+
+    private DailyAttendanceFact buildFact(Employee emp, LocalDate date, WorkSchedule schedule,
+            List<LeaveRequest> leaves, PunchIndex punches) {
+        DailyAttendanceFact fact = new DailyAttendanceFact();
+        fact.setEmployeeId(emp.getId());
+        fact.setWorkDate(date);
+        fact.setNotJoined(emp.getJoiningDate() != null && date.isBefore(emp.getJoiningDate()));
+        fact.setWeekend(workCalendar.isWeekend(date));
+        fact.setHoliday(workCalendar.isHoliday(date));
+
+        for (LeaveRequest l : leaves) {
+            if (!date.isBefore(l.getStartDate()) && !date.isAfter(l.getEndDate())) {
+                fact.setOnLeave(true);
+                fact.setLeaveType(l.getLeaveType());
+                break;
+            }
+        }
+
+        fact.setPunchCount(punches.count(emp.getId(), date));
+        if (fact.getPunchCount() == 0)
+            return fact;
+
+        fact.setFirstIn(punches.firstIn(emp.getId(), date));
+        fact.setLastOut(punches.lastOut(emp.getId(), date));
+        applySchedule(fact, schedule);
+        return fact;
+    }
+
+    /**
+     * Sets the late and early leave flags and minutes of a fact from its first
+     * in / last out and the schedule in force that day.
+     */
+    static void applySchedule(DailyAttendanceFact fact, WorkSchedule schedule) {
+        fact.setLate(false);
+        fact.setLateMinutes(0);
+        fact.setEarlyLeave(false);
+        fact.setEarlyLeaveMinutes(0);
+        LocalTime inTime = fact.getFirstIn();
+        LocalTime outTime = fact.getLastOut();
+        if (inTime == null || outTime == null)
+            return;
+
+        if (schedule.getStartTime() != null) {
+            LocalTime lateThreshold = schedule.getStartTime().plusMinutes(schedule.getLateToleranceMinutes());
+            if (inTime.isAfter(lateThreshold)) {
+                fact.setLate(true);
+                // Lateness counts from the start time, not the threshold
+                fact.setLateMinutes(Duration.between(schedule.getStartTime(), inTime).toMinutes());
+            }
+        }
+        if (schedule.getEndTime() != null) {
+            LocalTime earlyThreshold = schedule.getEndTime().minusMinutes(schedule.getEarlyLeaveToleranceMinutes());
+            if (outTime.isBefore(earlyThreshold)) {
+                fact.setEarlyLeave(true);
+                fact.setEarlyLeaveMinutes(Duration.between(outTime, schedule.getEndTime()).toMinutes());
+            }
+        }
+    }
+
+    private static List<List<String>> chunks(Collection<String> ids) {
+        List<String> all = new ArrayList<>(ids);
+        List<List<String>> chunks = new ArrayList<>();
+        for (int i = 0; i < all.size(); i += ID_CHUNK) {
+            chunks.add(all.subList(i, Math.min(all.size(), i + ID_CHUNK)));
+        }
+        return chunks;
+    }
+}
@@ -0,0 +1,168 @@
+package root.cyb.mh.attendancesystem.service;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import root.cyb.mh.attendancesystem.dto.DailyAttendanceDto;
+import root.cyb.mh.attendancesystem.dto.DashboardMetricsDto;
+import root.cyb.mh.attendancesystem.dto.MonthlySummaryDto;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Builds the dashboard "inspiration metrics" once and shares them between
+ * every admin and employee dashboard view.
+ *
+ * The daily figures (early birds, department champion, health score) come
+ * from TodayStatusBoard and are rebuilt on the next read after a punch or
+ * status change. The punctuality stars need this month's summaries for all
+ * staff, so they are rebuilt at most once per app.dashboard.metrics-ttl-seconds.
+ *
+ * One thread rebuilds at a time; while it does, other readers get the previous
+ * snapshot instead of waiting. Only the very first read blocks.
+ */
+@Service
+public class DashboardMetricsService implements TodayStatusBoard.Listener {
+
+    @Autowired
+    private TodayStatusBoard todayStatusBoard;
+
+    @Autowired
+    private ReportService reportService;
+
+    @Value("${app.dashboard.metrics-ttl-seconds:300}")
+    private long ttlSeconds;
+
+    private volatile DashboardMetricsDto metrics;
+
+    // Set by the board; the daily figures are stale
+    private volatile boolean todayChanged = true;
+
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    // Guarded by refreshLock
+    private List<MonthlySummaryDto> monthlyStats;
+    // Written under refreshLock, read by the fast path
+    private volatile YearMonth monthlyMonth;
+    private volatile long monthlyBuiltAt;
+
+    @PostConstruct
+    public void register() {
+        todayStatusBoard.addListener(this);
+    }
+
+    @Override
+    public void statusChanged(LocalDate day, List<DailyAttendanceDto> changed, List<String> removed) {
+        todayChanged = true;
+    }
+
+    public DashboardMetricsDto getMetrics() {
+        DashboardMetricsDto current = metrics;
+        if (current != null && !todayChanged && monthlyFresh())
+            return current;
+        if (current == null) {
+            refreshLock.lock();
+        } else if (!refreshLock.tryLock()) {
+            return current; // Another thread is refreshing
+        }
+        try {
+            if (metrics == null || todayChanged || !monthlyFresh()) {
+                metrics = build();
+            }
+            return metrics;
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private boolean monthlyFresh() {
+        return YearMonth.now().equals(monthlyMonth)
+                && System.currentTimeMillis() - monthlyBuiltAt < ttlSeconds * 1000;
+    }
+
+    private DashboardMetricsDto build() {
+        // Cleared first so a change while building marks the result stale again
+        todayChanged = false;
+        List<DailyAttendanceDto> dailyReport = todayStatusBoard.snapshot(); // Guests excluded
+
+        // 1. Early Birds (Today's first 5 arrivals)
+        List<DailyAttendanceDto> earlyBirds = dailyReport.stream()
+                .filter(d -> d.getInTime() != null)
+                .sorted(Comparator.comparing(DailyAttendanceDto::getInTime))
+                .limit(5)
+                .collect(Collectors.toList());
+
+        // 2. Department Champion (Dept with highest Present %)
+        Map<String, List<DailyAttendanceDto>> byDept = dailyReport.stream()
+                .filter(d -> d.getDepartmentName() != null && !d.getDepartmentName().equals("Unassigned"))
+                .collect(Collectors.groupingBy(DailyAttendanceDto::getDepartmentName));
+
+        String championDept = "N/A";
+        double maxPercent = -1.0;
+        for (Map.Entry<String, List<DailyAttendanceDto>> entry : byDept.entrySet()) {
+            if (entry.getKey().equalsIgnoreCase("Guest"))
+                continue; // Explicitly skip Guest dept
+            long deptTotal = entry.getValue().size();
+            if (deptTotal == 0)
+                continue;
+            long deptPresent = entry.getValue().stream().filter(DashboardMetricsService::isPresent).count();
+            double percent = (double) deptPresent / deptTotal;
+            if (percent > maxPercent) {
+                maxPercent = percent;
+                championDept = entry.getKey();
+            }
+        }
+        if (maxPercent <= 0) {
+            championDept = "No Data";
+            maxPercent = 0;
+        }
+
+        // 3. Attendance Health Score: % of present employees who were on time
+        long onTimeCount = dailyReport.stream()
+                .filter(d -> d.getStatus().contains("PRESENT") || d.getStatus().equals("EARLY LEAVE"))
+                .filter(d -> !d.getStatus().contains("LATE"))
+                .count();
+        long presentCount = dailyReport.stream().filter(DashboardMetricsService::isPresent).count();
+        int healthScore = presentCount > 0 ? (int) ((onTimeCount * 100) / presentCount) : 0;
+
+        // 4. Punctuality Stars & Streak (current month, guests excluded)
+        Set<String> staffIds = new HashSet<>();
+        for (DailyAttendanceDto d : dailyReport) {
+            staffIds.add(d.getEmployeeId());
+        }
+        List<MonthlySummaryDto> punctualityStars = monthlyStats(staffIds).stream()
+                .filter(d -> staffIds.contains(d.getEmployeeId()))
+                .sorted(Comparator.comparingInt(MonthlySummaryDto::getPresentCount).reversed()
+                        .thenComparingInt(MonthlySummaryDto::getLateCount))
+                .limit(5)
+                .collect(Collectors.toList());
+        MonthlySummaryDto streakTop = punctualityStars.isEmpty() ? null : punctualityStars.get(0);
+
+        return new DashboardMetricsDto(Collections.unmodifiableList(earlyBirds), championDept,
+                Math.round(maxPercent * 100), healthScore, Collections.unmodifiableList(punctualityStars), streakTop);
+    }
+
+    private List<MonthlySummaryDto> monthlyStats(Set<String> staffIds) {
+        if (!monthlyFresh()) {
+            YearMonth month = YearMonth.now();
+            monthlyStats = reportService.getMonthlySummaries(staffIds, month, month);
+            monthlyMonth = month;
+            monthlyBuiltAt = System.currentTimeMillis();
+        }
+        return monthlyStats;
+    }
+
+    private static boolean isPresent(DailyAttendanceDto d) {
+        return d.getStatus().contains("PRESENT") || d.getStatus().contains("LATE") || d.getStatus().contains("EARLY");
+    }
+}
@@ -28,6 +28,17 @@ public class DataImportExportService {
     private WorkScheduleRepository workScheduleRepository;
     @Autowired
     private UserRepository userRepository;
+    @Autowired
+    private DeviceRegistry deviceRegistry;
+    @Autowired
+    private DailyAttendanceMaterializer dailyAttendanceMaterializer;
+
+    @Autowired
+    private TodayStatusBoard todayStatusBoard;
+    @Autowired
+    private WorkCalendar workCalendar;
+    @Autowired
+    private EmployeeDirectory employeeDirectory;
 
     // --- EXPORT METODS ---
 
@@ -103,6 +114,9 @@ public class DataImportExportService {
                 emp.setCardId(record.get("CardID"));
             employeeRepository.save(emp);
         }
+        employeeDirectory.invalidate();
+        // Names and departments are shown on today's board
+        todayStatusBoard.reload();
     }
 
     public void importDepartments(InputStream is) throws IOException {
@@ -118,6 +132,8 @@ public class DataImportExportService {
             dept.setName(record.get("Name"));
             departmentRepository.save(dept);
         }
+        employeeDirectory.invalidate();
+        todayStatusBoard.reload();
     }
 
     public void importLeaveRequests(InputStream is) throws IOException {
@@ -146,6 +162,8 @@ public class DataImportExportService {
             }
             leaveRequestRepository.save(lr);
         }
+        dailyAttendanceMaterializer.invalidateAll();
+        todayStatusBoard.reload();
     }
 
     public void importDevices(InputStream is) throws IOException {
@@ -155,7 +173,13 @@ public class DataImportExportService {
             Device d = new Device();
             if (record.isMapped("ID") && !record.get("ID").isEmpty()) {
                 Long id = Long.parseLong(record.get("ID"));
-                deviceRepository.findById(id).ifPresent(found -> d.setId(found.getId()));
+                deviceRepository.findById(id).ifPresent(found -> {
+                    d.setId(found.getId());
+                    // Keep the push watermark; it is not part of the export
+                    d.setLastPunchAt(found.getLastPunchAt());
+                    d.setAttlogStamp(found.getAttlogStamp());
+                    d.setOperlogStamp(found.getOperlogStamp());
+                });
             }
             d.setName(record.get("Name"));
             d.setIpAddress(record.get("IP"));
@@ -164,6 +188,7 @@ public class DataImportExportService {
                 d.setSerialNumber(record.get("Serial"));
             deviceRepository.save(d);
         }
+        deviceRegistry.refresh();
     }
 
     public void importSettings(InputStream is) throws IOException {
@@ -178,6 +203,9 @@ public class DataImportExportService {
             ws.setWeekendDays(record.get("Weekends"));
             workScheduleRepository.save(ws);
         }
+        workCalendar.invalidate();
+        dailyAttendanceMaterializer.invalidateAll();
+        todayStatusBoard.reload();
     }
 
     public void importUsers(InputStream is) throws IOException {
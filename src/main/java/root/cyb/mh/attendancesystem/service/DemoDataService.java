@@ -21,6 +21,15 @@ public class DemoDataService {
     private PayslipRepository payslipRepository;
     @Autowired
     private PayrollService payrollService;
+    @Autowired
+    private DailyAttendanceMaterializer dailyAttendanceMaterializer;
+
+    @Autowired
+    private TodayStatusBoard todayStatusBoard;
+    @Autowired
+    private EmployeeDirectory employeeDirectory;
+    @Autowired
+    private ScheduleResolver scheduleResolver;
 
     // New Repositories
     @Autowired
@@ -29,6 +38,8 @@ public class DemoDataService {
     private EmployeeShiftRepository employeeShiftRepository;
     @Autowired
     private LeaveRequestRepository leaveRequestRepository;
+    @Autowired
+    private DeviceRepository deviceRepository;
 
     // Constants for Demo Data
     private static final String DEMO_PREFIX = "demo_";
@@ -68,6 +79,66 @@ public class DemoDataService {
         System.out.println("Demo Data Injection Complete.");
     }
 
+    /**
+     * Today's punches for a handful of fixed employees (101-105), one per
+     * late/early case, for trying out the dashboards.
+     */
+    public void generateTodayScenarios() {
+        LocalDate today = LocalDate.now();
+        Long deviceId = deviceRepository.count() > 0 ? deviceRepository.findAll().get(0).getId() : 1L;
+
+        // Ensure employees exist
+        createScenarioEmployee("101", "Alice OnTime");
+        createScenarioEmployee("102", "Bob Late");
+        createScenarioEmployee("103", "Charlie Early");
+        createScenarioEmployee("104", "Dave LateEarly");
+        createScenarioEmployee("105", "Eve Absent");
+        // 106 will be on leave if we add leave request, for now just skip logs
+
+        List<AttendanceLog> logs = new ArrayList<>();
+
+        // 1. Alice: On Time (09:00 - 18:00)
+        logs.add(punch("101", today.atTime(8, 55), deviceId));
+        logs.add(punch("101", today.atTime(18, 5), deviceId));
+
+        // 2. Bob: Late (09:30 - 18:05)
+        logs.add(punch("102", today.atTime(9, 30), deviceId));
+        logs.add(punch("102", today.atTime(18, 5), deviceId));
+
+        // 3. Charlie: Early (08:50 - 17:00)
+        logs.add(punch("103", today.atTime(8, 50), deviceId));
+        logs.add(punch("103", today.atTime(17, 0), deviceId));
+
+        // 4. Dave: Late & Early (09:45 - 16:30)
+        logs.add(punch("104", today.atTime(9, 45), deviceId));
+        logs.add(punch("104", today.atTime(16, 30), deviceId));
+
+        // Logs already there from an earlier run are skipped by the unique constraint
+        attendanceRepository.insertIgnoringDuplicates(logs);
+
+        dailyAttendanceMaterializer.invalidateDate(today);
+        todayStatusBoard.reload();
+    }
+
+    private void createScenarioEmployee(String id, String name) {
+        if (!employeeRepository.existsById(id)) {
+            Employee emp = new Employee();
+            emp.setId(id);
+            emp.setName(name);
+            emp.setRole("User");
+            employeeRepository.save(emp);
+            employeeDirectory.invalidate();
+        }
+    }
+
+    private static AttendanceLog punch(String empId, LocalDateTime ts, Long deviceId) {
+        AttendanceLog log = new AttendanceLog();
+        log.setEmployeeId(empId);
+        log.setTimestamp(ts);
+        log.setDeviceId(deviceId);
+        return log;
+    }
+
     public void clearDemoData() {
         // Delete all data associated with demo users
         List<Employee> demoEmps = employeeRepository.findAll().stream()
@@ -86,6 +157,7 @@ public class DemoDataService {
             // Delete related Shifts
             List<EmployeeShift> shifts = employeeShiftRepository.findByEmployeeId(emp.getId());
             employeeShiftRepository.deleteAll(shifts);
+            scheduleResolver.invalidate();
 
             // Delete related Logs/Leaves (Need to check if mapped by ID)
             // LeaveRequests have a ManyToOne Employee.
@@ -100,6 +172,9 @@ public class DemoDataService {
 
             // Delete Employee
             employeeRepository.delete(emp);
+            employeeDirectory.invalidate();
+            dailyAttendanceMaterializer.invalidateEmployee(emp.getId());
+            todayStatusBoard.recompute(emp.getId());
         }
         System.out.println("Demo Data Cleared.");
     }
@@ -137,6 +212,7 @@ public class DemoDataService {
         emp.setMonthlySalary(salary);
         emp.setJoiningDate(LocalDate.now().minusMonths(8)); // Joined 8 months ago
         emp = employeeRepository.save(emp);
+        employeeDirectory.invalidate();
 
         // Assign Shift if provided (for last 6 months)
         if (shift != null) {
@@ -146,6 +222,7 @@ public class DemoDataService {
             es.setStartDate(LocalDate.now().minusMonths(8));
             es.setEndDate(LocalDate.now().plusMonths(12)); // Valid for a year more
             employeeShiftRepository.save(es);
+            scheduleResolver.invalidate();
         }
 
         // Generate 6 Months History
@@ -153,6 +230,8 @@ public class DemoDataService {
         LocalDate end = LocalDate.now();
 
         generateAttendanceHistory(emp, start, end, behavior);
+        dailyAttendanceMaterializer.invalidateEmployee(emp.getId());
+        todayStatusBoard.recompute(emp.getId());
         generatePayrollHistory(emp, start, end);
 
         return emp;
@@ -168,6 +247,10 @@ public class DemoDataService {
         if (status == LeaveRequest.Status.REJECTED)
             le.setAdminComment("Demo Rejection");
         leaveRequestRepository.save(le);
+        if (status == LeaveRequest.Status.APPROVED) {
+            dailyAttendanceMaterializer.invalidate(emp.getId(), start, end);
+            todayStatusBoard.recompute(emp.getId(), start, end);
+        }
     }
 
     private void generateAttendanceHistory(Employee emp, LocalDate start, LocalDate end, String behavior) {
@@ -175,14 +258,14 @@ public class DemoDataService {
         LocalTime defaultStart = LocalTime.of(9, 0);
         LocalTime defaultEnd = LocalTime.of(18, 0);
 
+        List<AttendanceLog> punches = new ArrayList<>();
         for (LocalDate date = start; date.isBefore(end); date = date.plusDays(1)) {
             // Check for explicit Shift
             LocalTime workStart = defaultStart;
             LocalTime workEnd = defaultEnd;
 
-            Optional<EmployeeShift> esOpt = employeeShiftRepository.findActiveShiftForEmployee(emp.getId(), date);
-            if (esOpt.isPresent()) {
-                Shift s = esOpt.get().getShift();
+            Shift s = scheduleResolver.getShift(emp.getId(), date);
+            if (s != null) {
                 if (s.getStartTime() != null)
                     workStart = s.getStartTime();
                 if (s.getEndTime() != null)
@@ -238,16 +321,18 @@ public class DemoDataService {
                 checkIn.setEmployeeId(emp.getId());
                 checkIn.setTimestamp(checkInDT);
                 checkIn.setDeviceId(1L);
-                attendanceRepository.save(checkIn);
+                punches.add(checkIn);
 
                 // Create Check Out Log
                 AttendanceLog checkOut = new AttendanceLog();
                 checkOut.setEmployeeId(emp.getId());
                 checkOut.setTimestamp(checkOutDT);
                 checkOut.setDeviceId(1L);
-                attendanceRepository.save(checkOut);
+                punches.add(checkOut);
             }
         }
+        // Re-running the generator must not trip the punch unique constraint
+        attendanceRepository.insertIgnoringDuplicates(punches);
     }
 
     private void generatePayrollHistory(Employee emp, LocalDate start, LocalDate end) {
@@ -0,0 +1,200 @@
+package root.cyb.mh.attendancesystem.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-terminal command queues for the ADMS push protocol.
+ *
+ * Each serial number has its own lock-free queue of pending commands and a map
+ * of commands sent but not yet confirmed through /iclock/devicecmd. Commands
+ * that stay unconfirmed are re-sent on a later poll, up to a retry limit.
+ * Pollers for different terminals never contend with each other.
+ *
+ * Queues exist only for serial numbers registered in {@link DeviceRegistry},
+ * so polls with made-up serials from the open /iclock endpoints allocate
+ * nothing. Queues left empty and unpolled for idle-minutes are evicted.
+ */
+@Component
+public class DeviceCommandQueue {
+
+    private static final Logger log = LoggerFactory.getLogger(DeviceCommandQueue.class);
+
+    @Autowired
+    private DeviceRegistry deviceRegistry;
+
+    // Seeded with the clock so ids stay unique across restarts
+    private final AtomicLong nextId = new AtomicLong(System.currentTimeMillis());
+
+    private final ConcurrentHashMap<String, DeviceQueue> queues = new ConcurrentHashMap<>();
+
+    // Completed (and replaced) whenever a command is queued for the serial; used by held getrequest polls
+    private final ConcurrentHashMap<String, CompletableFuture<Void>> signals = new ConcurrentHashMap<>();
+
+    @Value("${app.adms.command-retry-seconds:60}")
+    private int retrySeconds;
+
+    @Value("${app.adms.command-max-attempts:3}")
+    private int maxAttempts;
+
+    // Upper bound on commands handed to one device in a single poll
+    @Value("${app.adms.commands-per-poll:10}")
+    private int commandsPerPoll;
+
+    // Empty queues not polled for this long are dropped
+    @Value("${app.adms.command-queue-idle-minutes:60}")
+    private int idleMinutes;
+
+    /**
+     * Queues a command for a registered terminal. Returns its id, or -1 if the
+     * serial number is not registered.
+     */
+    public long enqueue(String sn, String command) {
+        if (!deviceRegistry.isRegistered(sn)) {
+            log.warn("Not queuing command for unregistered sn={} cmd={}", sn, command);
+            return -1;
+        }
+        long id = nextId.incrementAndGet();
+        // Added inside compute so the idle sweep cannot drop the queue in between
+        queues.compute(sn, (k, queue) -> {
+            DeviceQueue q = queue != null ? queue : new DeviceQueue();
+            q.pending.add(new Command(id, command));
+            q.touch();
+            return q;
+        });
+        CompletableFuture<Void> signal = signals.remove(sn);
+        if (signal != null)
+            signal.complete(null);
+        return id;
+    }
+
+    /**
+     * Future that completes the next time a command is queued for this terminal.
+     * Take the signal before polling, so a command queued in between is not missed.
+     * Unregistered terminals get a future that never completes.
+     */
+    public CompletableFuture<Void> commandSignal(String sn) {
+        if (!deviceRegistry.isRegistered(sn))
+            return new CompletableFuture<>();
+        return signals.computeIfAbsent(sn, k -> new CompletableFuture<>());
+    }
+
+    /**
+     * Returns the commands due for this terminal as protocol lines
+     * ("C:&lt;id&gt;:&lt;command&gt;", newline separated), or null if there are none.
+     */
+    public String poll(String sn) {
+        DeviceQueue queue = sn != null ? queues.get(sn) : null;
+        if (queue == null)
+            return null;
+        queue.touch();
+        long now = System.currentTimeMillis();
+        long retryMillis = retrySeconds * 1000L;
+        List<Command> due = new ArrayList<>();
+
+        // Unacknowledged commands first, so they keep their original order
+        for (Command command : queue.inFlight.values()) {
+            if (due.size() >= commandsPerPoll)
+                break;
+            long sentAt = command.sentAt.get();
+            if (now - sentAt < retryMillis)
+                continue;
+            if (command.attempts.get() >= maxAttempts) {
+                queue.inFlight.remove(command.id);
+                log.warn("Dropping command id={} sn={} attempts={} cmd={}", command.id, sn,
+                        command.attempts.get(), command.text);
+                continue;
+            }
+            // Only one concurrent poll may claim the re-send
+            if (command.sentAt.compareAndSet(sentAt, now)) {
+                command.attempts.incrementAndGet();
+                due.add(command);
+            }
+        }
+
+        Command next;
+        while (due.size() < commandsPerPoll && (next = queue.pending.poll()) != null) {
+            next.sentAt.set(now);
+            next.attempts.incrementAndGet();
+            queue.inFlight.put(next.id, next);
+            due.add(next);
+        }
+
+        if (due.isEmpty())
+            return null;
+
+        due.sort((a, b) -> Long.compare(a.id, b.id));
+        StringBuilder sb = new StringBuilder();
+        for (Command command : due) {
+            if (sb.length() > 0)
+                sb.append('\n');
+            sb.append("C:").append(command.id).append(':').append(command.text);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Marks a command as executed by the terminal. Returns false if the id is
+     * unknown (already acknowledged, dropped, or from before a restart).
+     */
+    public boolean acknowledge(String sn, long id) {
+        DeviceQueue queue = queues.get(sn);
+        return queue != null && queue.inFlight.remove(id) != null;
+    }
+
+    /**
+     * Drops queues of deleted devices, and queues with nothing pending or in
+     * flight that have not been polled for idle-minutes, with their signals.
+     */
+    @Scheduled(fixedDelayString = "${app.adms.command-queue-sweep-ms:300000}")
+    public void evictIdle() {
+        long idleBefore = System.currentTimeMillis() - idleMinutes * 60_000L;
+        for (String sn : queues.keySet()) {
+            boolean registered = deviceRegistry.isRegistered(sn);
+            // Atomic per serial against enqueue
+            DeviceQueue kept = queues.computeIfPresent(sn,
+                    (k, queue) -> !registered || (queue.isEmpty() && queue.lastUsed < idleBefore) ? null : queue);
+            if (kept == null)
+                signals.remove(sn);
+        }
+        signals.keySet().removeIf(sn -> !deviceRegistry.isRegistered(sn));
+    }
+
+    private static final class DeviceQueue {
+        final ConcurrentLinkedQueue<Command> pending = new ConcurrentLinkedQueue<>();
+        final ConcurrentHashMap<Long, Command> inFlight = new ConcurrentHashMap<>();
+        volatile long lastUsed = System.currentTimeMillis();
+
+        void touch() {
+            lastUsed = System.currentTimeMillis();
+        }
+
+        boolean isEmpty() {
+            return pending.isEmpty() && inFlight.isEmpty();
+        }
+    }
+
+    private static final class Command {
+        final long id;
+        final String text;
+        final AtomicLong sentAt = new AtomicLong();
+        final AtomicInteger attempts = new AtomicInteger();
+
+        Command(long id, String text) {
+            this.id = id;
+            this.text = text;
+        }
+    }
+}
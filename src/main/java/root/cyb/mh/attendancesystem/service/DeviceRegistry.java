@@ -0,0 +1,134 @@
+package root.cyb.mh.attendancesystem.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import root.cyb.mh.attendancesystem.model.Device;
+import root.cyb.mh.attendancesystem.repository.DeviceRepository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory view of the Device table keyed by serial number, so device pushes
+ * and heartbeats do not query the database on every request.
+ *
+ * Call {@link #refresh()} after any write to the Device table.
+ */
+@Component
+public class DeviceRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(DeviceRegistry.class);
+
+    @Autowired
+    private DeviceRepository deviceRepository;
+
+    private volatile ConcurrentHashMap<String, Device> bySerial = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void refresh() {
+        ConcurrentHashMap<String, Device> loaded = new ConcurrentHashMap<>();
+        for (Device device : deviceRepository.findAll()) {
+            if (device.getSerialNumber() != null && !device.getSerialNumber().isEmpty()) {
+                loaded.putIfAbsent(device.getSerialNumber(), device);
+            }
+        }
+        // Swap in one step so lookups never see a half-filled map
+        bySerial = loaded;
+    }
+
+    /**
+     * Returns the device for a serial number, registering it on first contact.
+     * Returns null only when no serial number was sent.
+     */
+    public Device resolve(String sn) {
+        if (sn == null || sn.isEmpty())
+            return null;
+        Device device = bySerial.get(sn);
+        return device != null ? device : register(sn);
+    }
+
+    public boolean isRegistered(String sn) {
+        return sn != null && bySerial.containsKey(sn);
+    }
+
+    public Set<String> serialNumbers() {
+        return bySerial.keySet();
+    }
+
+    public Collection<Device> devices() {
+        return bySerial.values();
+    }
+
+    /**
+     * Records what a terminal has pushed so far. Updates the cached entry and
+     * writes only the watermark columns, never the admin-edited fields.
+     */
+    public void recordAttlog(Device device, LocalDateTime newestPunch, String stamp) {
+        if (device == null || device.getId() == null)
+            return;
+        if (newestPunch != null && (device.getLastPunchAt() == null || device.getLastPunchAt().isBefore(newestPunch))) {
+            device.setLastPunchAt(newestPunch);
+            deviceRepository.advanceLastPunchAt(device.getId(), newestPunch);
+        }
+        Long value = stampValue(device, stamp);
+        if (value != null && isNewer(value, device.getAttlogStamp())) {
+            device.setAttlogStamp(stamp);
+            deviceRepository.advanceAttlogStamp(device.getId(), stamp, value);
+        }
+    }
+
+    public void recordOperlog(Device device, String stamp) {
+        if (device == null || device.getId() == null)
+            return;
+        Long value = stampValue(device, stamp);
+        if (value != null && isNewer(value, device.getOperlogStamp())) {
+            device.setOperlogStamp(stamp);
+            deviceRepository.advanceOperlogStamp(device.getId(), stamp, value);
+        }
+    }
+
+    private static Long stampValue(Device device, String stamp) {
+        if (stamp == null)
+            return null;
+        try {
+            return Long.parseLong(stamp.trim());
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring non-numeric stamp sn={} stamp={}", device.getSerialNumber(), stamp);
+            return null;
+        }
+    }
+
+    // A push delivered late must not move the stamp back
+    private static boolean isNewer(long value, String current) {
+        if (current == null)
+            return true;
+        try {
+            return value > Long.parseLong(current.trim());
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+    private synchronized Device register(String sn) {
+        Device device = bySerial.get(sn);
+        if (device != null)
+            return device;
+
+        // Added by another path (UI, import, startup seed) since the last refresh?
+        device = deviceRepository.findBySerialNumber(sn).orElse(null);
+        if (device == null) {
+            device = new Device();
+            device.setName("Auto-registered " + sn);
+            device.setSerialNumber(sn);
+            device = deviceRepository.save(device);
+            log.info("Auto-registered device sn={}", sn);
+        }
+        bySerial.put(sn, device);
+        return device;
+    }
+}
@@ -0,0 +1,81 @@
+package root.cyb.mh.attendancesystem.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import root.cyb.mh.attendancesystem.repository.EmployeeRepository;
+import root.cyb.mh.attendancesystem.repository.EmployeeSummary;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cached id, name, department, guest flag and joining date of every employee,
+ * for views that only list or label employees.
+ *
+ * Loaded with one projection query on first use, ordered by id, and shared
+ * read-only until {@link #invalidate()} is called by the endpoints that
+ * create, edit or delete employees or departments.
+ */
+@Component
+public class EmployeeDirectory {
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    private final CachedSnapshot<Snapshot> snapshot = new CachedSnapshot<>(
+            () -> new Snapshot(employeeRepository.findAllSummaries()));
+
+    public List<EmployeeSummary> all() {
+        return snapshot().all;
+    }
+
+    // Everyone except guests
+    public List<EmployeeSummary> staff() {
+        return snapshot().staff;
+    }
+
+    public EmployeeSummary get(String employeeId) {
+        return snapshot().byId.get(employeeId);
+    }
+
+    // Employee id to name
+    public Map<String, String> names() {
+        return snapshot().names;
+    }
+
+    public void invalidate() {
+        snapshot.invalidate();
+    }
+
+    private Snapshot snapshot() {
+        return snapshot.get();
+    }
+
+    private static final class Snapshot {
+        final List<EmployeeSummary> all;
+        final List<EmployeeSummary> staff;
+        final Map<String, EmployeeSummary> byId;
+        final Map<String, String> names;
+
+        Snapshot(List<EmployeeSummary> employees) {
+            List<EmployeeSummary> staff = new ArrayList<>(employees.size());
+            Map<String, EmployeeSummary> byId = new HashMap<>(employees.size() * 2);
+            Map<String, String> names = new HashMap<>(employees.size() * 2);
+            for (EmployeeSummary emp : employees) {
+                if (!emp.isGuest())
+                    staff.add(emp);
+                byId.put(emp.getId(), emp);
+                // The dashboard falls back to the id for unnamed employees
+                if (emp.getName() != null)
+                    names.put(emp.getId(), emp.getName());
+            }
+            this.all = Collections.unmodifiableList(new ArrayList<>(employees));
+            this.staff = Collections.unmodifiableList(staff);
+            this.byId = Collections.unmodifiableMap(byId);
+            this.names = Collections.unmodifiableMap(names);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package root.cyb.mh.attendancesystem.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import root.cyb.mh.attendancesystem.model.Department;
+import root.cyb.mh.attendancesystem.model.Employee;
+import root.cyb.mh.attendancesystem.repository.EmployeeRepository;
+
+import java.util.List;
+
+/**
+ * Writes to employees from the admin screens, and drops what is derived from
+ * them: the employee directory, the day facts and the today board.
+ */
+@Service
+public class EmployeeService {
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private EmployeeDirectory employeeDirectory;
+
+    @Autowired
+    private DailyAttendanceMaterializer dailyAttendanceMaterializer;
+
+    @Autowired
+    private TodayStatusBoard todayStatusBoard;
+
+    public Employee save(Employee employee) {
+        Employee saved = employeeRepository.save(employee);
+        employeeDirectory.invalidate();
+        // Joining date may have moved
+        dailyAttendanceMaterializer.invalidateEmployee(saved.getId());
+        todayStatusBoard.recompute(saved.getId());
+        return saved;
+    }
+
+    public void delete(String id) {
+        employeeRepository.deleteById(id);
+        employeeDirectory.invalidate();
+        dailyAttendanceMaterializer.invalidateEmployee(id);
+        todayStatusBoard.recompute(id);
+    }
+
+    public void assignDepartment(List<String> employeeIds, Department department) {
+        List<Employee> employees = employeeRepository.findAllById(employeeIds);
+        for (Employee emp : employees) {
+            emp.setDepartment(department);
+        }
+        employeeRepository.saveAll(employees);
+        employeeDirectory.invalidate();
+        todayStatusBoard.reload();
+    }
+}
@@ -0,0 +1,409 @@
+package root.cyb.mh.attendancesystem.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Staged ingest for device pushes (/iclock/cdata).
+ *
+ * The controller appends each push to a memory-mapped, append-only spool file
+ * and answers the terminal immediately. A bounded pool of workers drains the
+ * spool into the database through {@link AdmsService#processCdata}. Each SN is
+ * hashed to one worker, so a device's pushes are applied in the order they
+ * arrived. A push that keeps failing is retried in place up to max-attempts
+ * times, then marked dead so it cannot hold up the spool; segments holding
+ * dead pushes are kept on disk for inspection. Records that were not drained
+ * before a shutdown or crash are replayed on startup.
+ *
+ * Record layout inside a segment: [int length][byte state][payload], where the
+ * payload is UTF-8 "SN\nTABLE\nSTAMP\nBODY". The length is written last, so a record
+ * with a non-zero length is always complete.
+ */
+@Service
+public class IngestSpoolService {
+
+    private static final Logger log = LoggerFactory.getLogger(IngestSpoolService.class);
+
+    private static final byte STATE_PENDING = 0;
+    private static final byte STATE_DONE = 1;
+    private static final byte STATE_DEAD = 2;
+    private static final int HEADER_BYTES = 5;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".spool";
+
+    @Autowired
+    private AdmsService admsService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.ingest.spool.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.ingest.spool.dir:spool}")
+    private String spoolDir;
+
+    @Value("${app.ingest.spool.segment-size-mb:8}")
+    private int segmentSizeMb;
+
+    // Max pushes spooled but not yet written to the database
+    @Value("${app.ingest.spool.queue-depth:500}")
+    private int queueDepth;
+
+    @Value("${app.ingest.spool.workers:2}")
+    private int workerCount;
+
+    // Seconds the device should wait before re-sending when the spool is full
+    @Value("${app.ingest.spool.retry-after-seconds:30}")
+    private int retryAfterSeconds;
+
+    // Tries per push before it is marked dead, and the pause between them
+    @Value("${app.ingest.spool.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${app.ingest.spool.retry-delay-ms:5000}")
+    private long retryDelayMs;
+
+    // One queue per worker; a push goes to the queue its SN hashes to
+    private final List<BlockingQueue<SpoolRecord>> queues = new ArrayList<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final List<Segment> segments = new ArrayList<>();
+
+    private Path directory;
+    private Segment activeSegment;
+    private long nextSegmentId = 1;
+    private ExecutorService workers;
+    private Counter deadPushes;
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!enabled)
+            return;
+
+        directory = Paths.get(spoolDir);
+        Files.createDirectories(directory);
+
+        List<SpoolRecord> replay = replaySegments();
+        activeSegment = openSegment(segmentBytes());
+
+        for (int i = 0; i < Math.max(1, workerCount); i++) {
+            queues.add(new LinkedBlockingQueue<>());
+        }
+        for (SpoolRecord record : replay) {
+            queueFor(record.sn).add(record);
+        }
+
+        Gauge.builder("adms.spool.pending", pendingCount, AtomicInteger::get)
+                .description("Device pushes acknowledged but not yet written to the database")
+                .register(meterRegistry);
+        deadPushes = Counter.builder("adms.spool.dead")
+                .description("Device pushes given up on after max-attempts failures")
+                .register(meterRegistry);
+
+        workers = Executors.newFixedThreadPool(queues.size(), r -> {
+            Thread t = new Thread(r, "ingest-worker");
+            t.setDaemon(true);
+            return t;
+        });
+        for (BlockingQueue<SpoolRecord> queue : queues) {
+            workers.submit(() -> drainLoop(queue));
+        }
+
+        if (!replay.isEmpty()) {
+            log.info("Replaying un-drained device pushes from spool count={}", replay.size());
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (workers != null) {
+            workers.shutdownNow();
+        }
+        synchronized (this) {
+            for (Segment segment : segments) {
+                segment.close();
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    /**
+     * Appends a push to the spool. Returns false when the spool already holds
+     * queue-depth un-drained pushes; the caller should ask the device to retry.
+     */
+    public boolean offer(String sn, String table, String stamp, String body) {
+        byte[] payload = ((sn != null ? sn : "") + "\n" + table + "\n" + (stamp != null ? stamp : "") + "\n" + body)
+                .getBytes(StandardCharsets.UTF_8);
+
+        SpoolRecord record;
+        BlockingQueue<SpoolRecord> queue = queueFor(sn);
+        synchronized (this) {
+            if (pendingCount.get() >= queueDepth)
+                return false;
+            try {
+                int needed = HEADER_BYTES + payload.length;
+                if (activeSegment.remaining() < needed) {
+                    activeSegment.sealed = true;
+                    deleteIfDrained(activeSegment);
+                    activeSegment = openSegment(Math.max(segmentBytes(), needed + HEADER_BYTES));
+                }
+                record = activeSegment.append(payload, sn, table, stamp, body);
+            } catch (IOException e) {
+                log.error("Spool write failed sn={} table={}", sn, table, e);
+                return false;
+            }
+            pendingCount.incrementAndGet();
+            record.segment.flushing++;
+            // Queued under the lock so the worker sees this SN's pushes in spool order
+            queue.add(record);
+        }
+        // Flush only this record's pages, outside the lock, so concurrent acks
+        // do not wait behind each other's flushes
+        try {
+            record.segment.buffer.force(record.offset, HEADER_BYTES + payload.length);
+        } finally {
+            synchronized (this) {
+                record.segment.flushing--;
+                deleteIfDrained(record.segment);
+            }
+        }
+        return true;
+    }
+
+    private BlockingQueue<SpoolRecord> queueFor(String sn) {
+        return queues.get(Math.floorMod(Objects.hashCode(sn), queues.size()));
+    }
+
+    private void drainLoop(BlockingQueue<SpoolRecord> queue) {
+        while (!Thread.currentThread().isInterrupted()) {
+            SpoolRecord record;
+            try {
+                record = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (!drain(record))
+                return;
+        }
+    }
+
+    // Retries in place so later pushes from the same SN stay behind this one.
+    // Returns false if interrupted; the record then stays pending for replay.
+    private boolean drain(SpoolRecord record) {
+        for (int attempt = 1;; attempt++) {
+            try {
+                admsService.processCdata(record.sn, record.table, record.stamp, record.body);
+                complete(record, STATE_DONE);
+                return true;
+            } catch (Exception e) {
+                if (attempt >= maxAttempts) {
+                    log.error("Spool push dead after attempts={} sn={} table={} segment={} offset={}", attempt,
+                            record.sn, record.table, record.segment.path, record.offset, e);
+                    deadPushes.increment();
+                    complete(record, STATE_DEAD);
+                    return true;
+                }
+                log.warn("Spool drain failed, will retry attempt={} sn={} table={}", attempt, record.sn,
+                        record.table, e);
+            }
+            try {
+                TimeUnit.MILLISECONDS.sleep(retryDelayMs);
+            } catch (InterruptedException e) {
+                return false;
+            }
+        }
+    }
+
+    private synchronized void complete(SpoolRecord record, byte state) {
+        Segment segment = record.segment;
+        // Not forced: a lost mark only replays a push the unique constraint absorbs
+        segment.buffer.put(record.offset + 4, state);
+        segment.pending--;
+        if (state == STATE_DEAD)
+            segment.dead++;
+        pendingCount.decrementAndGet();
+        deleteIfDrained(segment);
+    }
+
+    private void deleteIfDrained(Segment segment) {
+        if (!segment.sealed || segment.pending > 0 || segment.flushing > 0 || !segments.contains(segment))
+            return;
+        segment.close();
+        segments.remove(segment);
+        if (segment.dead > 0) {
+            log.warn("Spool segment kept for its dead pushes path={} dead={}", segment.path, segment.dead);
+            return;
+        }
+        try {
+            Files.deleteIfExists(segment.path);
+        } catch (IOException e) {
+            log.warn("Could not delete drained spool segment path={}", segment.path);
+        }
+    }
+
+    private List<SpoolRecord> replaySegments() throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(p -> p.getFileName().toString().startsWith(SEGMENT_PREFIX)
+                    && p.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted((a, b) -> Long.compare(segmentId(a), segmentId(b)))
+                    .toList();
+        }
+
+        List<SpoolRecord> replay = new ArrayList<>();
+        for (Path file : files) {
+            nextSegmentId = Math.max(nextSegmentId, segmentId(file) + 1);
+            Segment segment = mapSegment(file, (int) Files.size(file), segmentId(file));
+            segment.sealed = true; // Never append to a segment from a previous run
+
+            int pos = 0;
+            while (pos + HEADER_BYTES <= segment.capacity) {
+                int length = segment.buffer.getInt(pos);
+                if (length <= 0 || pos + HEADER_BYTES + length > segment.capacity)
+                    break;
+                byte state = segment.buffer.get(pos + 4);
+                if (state == STATE_DEAD) {
+                    segment.dead++;
+                } else if (state == STATE_PENDING) {
+                    byte[] payload = new byte[length];
+                    segment.buffer.get(pos + HEADER_BYTES, payload);
+                    String[] parts = new String(payload, StandardCharsets.UTF_8).split("\n", 4);
+                    if (parts.length == 4) {
+                        replay.add(new SpoolRecord(segment, pos, parts[0].isEmpty() ? null : parts[0], parts[1],
+                                parts[2].isEmpty() ? null : parts[2], parts[3]));
+                        segment.pending++;
+                    }
+                }
+                pos += HEADER_BYTES + length;
+            }
+            segment.writePos = pos;
+
+            segments.add(segment);
+            deleteIfDrained(segment);
+        }
+        pendingCount.set(replay.size());
+        return replay;
+    }
+
+    private Segment openSegment(int capacity) throws IOException {
+        long id = nextSegmentId++;
+        Path file = directory.resolve(SEGMENT_PREFIX + id + SEGMENT_SUFFIX);
+        Segment segment = mapSegment(file, capacity, id);
+        segments.add(segment);
+        return segment;
+    }
+
+    private Segment mapSegment(Path file, int capacity, long id) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        return new Segment(id, file, channel, buffer, capacity);
+    }
+
+    private int segmentBytes() {
+        return segmentSizeMb * 1024 * 1024;
+    }
+
+    private static long segmentId(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static final class Segment {
+        final long id;
+        final Path path;
+        final FileChannel channel;
+        final MappedByteBuffer buffer;
+        final int capacity;
+        int writePos;
+        int pending;
+        int dead;
+        int flushing; // appends whose pages are still being forced
+        boolean sealed;
+
+        Segment(long id, Path path, FileChannel channel, MappedByteBuffer buffer, int capacity) {
+            this.id = id;
+            this.path = path;
+            this.channel = channel;
+            this.buffer = buffer;
+            this.capacity = capacity;
+        }
+
+        int remaining() {
+            return capacity - writePos;
+        }
+
+        SpoolRecord append(byte[] payload, String sn, String table, String stamp, String body) {
+            int offset = writePos;
+            buffer.put(offset + 4, STATE_PENDING);
+            buffer.put(offset + HEADER_BYTES, payload);
+            // Length goes in last and marks the record as complete
+            buffer.putInt(offset, payload.length);
+
+            writePos += HEADER_BYTES + payload.length;
+            pending++;
+            return new SpoolRecord(this, offset, sn, table, stamp, body);
+        }
+
+        void close() {
+            try {
+                buffer.force();
+                channel.close();
+            } catch (IOException e) {
+                // Nothing useful to do on shutdown
+            }
+        }
+    }
+
+    private static final class SpoolRecord {
+        final Segment segment;
+        final int offset;
+        final String sn;
+        final String table;
+        final String stamp;
+        final String body;
+
+        SpoolRecord(Segment segment, int offset, String sn, String table, String stamp, String body) {
+            this.segment = segment;
+            this.offset = offset;
+            this.sn = sn;
+            this.table = table;
+            this.stamp = stamp;
+            this.body = body;
+        }
+    }
+}
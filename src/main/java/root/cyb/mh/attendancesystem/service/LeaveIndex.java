@@ -0,0 +1,104 @@
+package root.cyb.mh.attendancesystem.service;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Approved leave for a report window, indexed by employee.
+ *
+ * Per employee the leave dates are kept as sorted, merged [start, end]
+ * intervals (binary search for "on leave that day?"), and leave days are
+ * summed per year by start month into a running total, so "days taken this
+ * year before month m" is an array read.
+ *
+ * Built from rows of (employee id, start date, end date) as returned by
+ * LeaveRequestRepository.findIntervals. For yearly totals the window must
+ * start no later than January 1st of the years asked about.
+ */
+public final class LeaveIndex {
+
+    private final Map<String, long[][]> intervals = new HashMap<>();
+    // employee -> year -> daysBefore[month], month 1..12 (index 13 = whole year)
+    private final Map<String, Map<Integer, int[]>> daysBeforeMonth = new HashMap<>();
+
+    public static LeaveIndex of(List<Object[]> rows) {
+        return new LeaveIndex(rows);
+    }
+
+    private LeaveIndex(List<Object[]> rows) {
+        Map<String, List<long[]>> raw = new HashMap<>();
+        for (Object[] row : rows) {
+            String employeeId = (String) row[0];
+            LocalDate start = (LocalDate) row[1];
+            LocalDate end = (LocalDate) row[2];
+            if (employeeId == null || start == null || end == null || end.isBefore(start))
+                continue;
+            raw.computeIfAbsent(employeeId, k -> new ArrayList<>())
+                    .add(new long[] { start.toEpochDay(), end.toEpochDay() });
+
+            // Same rule as before: the whole leave counts in the month it starts
+            int[] months = daysBeforeMonth.computeIfAbsent(employeeId, k -> new HashMap<>())
+                    .computeIfAbsent(start.getYear(), k -> new int[14]);
+            months[start.getMonthValue() + 1] += (int) (ChronoUnit.DAYS.between(start, end) + 1);
+        }
+
+        for (Map<Integer, int[]> years : daysBeforeMonth.values()) {
+            for (int[] months : years.values()) {
+                for (int m = 2; m < months.length; m++) {
+                    months[m] += months[m - 1];
+                }
+            }
+        }
+
+        for (Map.Entry<String, List<long[]>> entry : raw.entrySet()) {
+            intervals.put(entry.getKey(), merge(entry.getValue()));
+        }
+    }
+
+    public boolean isOnLeave(String employeeId, LocalDate date) {
+        long[][] merged = intervals.get(employeeId);
+        if (merged == null)
+            return false;
+        long day = date.toEpochDay();
+        int index = Arrays.binarySearch(merged[0], day);
+        if (index >= 0)
+            return true;
+        int before = -index - 2; // Last interval starting before the day
+        return before >= 0 && merged[1][before] >= day;
+    }
+
+    /**
+     * Leave days, counted by start date, taken in the year before the given
+     * month.
+     */
+    public int daysBeforeMonth(String employeeId, int year, int month) {
+        Map<Integer, int[]> years = daysBeforeMonth.get(employeeId);
+        int[] months = years != null ? years.get(year) : null;
+        return months != null ? months[month] : 0;
+    }
+
+    // Sorted, non-overlapping intervals as {starts[], ends[]}
+    private static long[][] merge(List<long[]> list) {
+        list.sort((a, b) -> Long.compare(a[0], b[0]));
+        List<long[]> merged = new ArrayList<>();
+        for (long[] interval : list) {
+            long[] last = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+            if (last != null && interval[0] <= last[1] + 1) {
+                last[1] = Math.max(last[1], interval[1]);
+            } else {
+                merged.add(new long[] { interval[0], interval[1] });
+            }
+        }
+        long[][] result = new long[2][merged.size()];
+        for (int i = 0; i < merged.size(); i++) {
+            result[0][i] = merged.get(i)[0];
+            result[1][i] = merged.get(i)[1];
+        }
+        return result;
+    }
+}
@@ -15,6 +15,12 @@ public class LeaveService {
     @Autowired
     private LeaveRequestRepository leaveRequestRepository;
 
+    @Autowired
+    private DailyAttendanceMaterializer dailyAttendanceMaterializer;
+
+    @Autowired
+    private TodayStatusBoard todayStatusBoard;
+
     public LeaveRequest createRequest(Employee employee, LeaveRequest request) {
         request.setEmployee(employee);
         request.setStatus(LeaveRequest.Status.PENDING);
@@ -58,9 +64,18 @@ public class LeaveService {
         request.setReviewedBy(reviewerEmail + " (" + reviewerRole + ")");
 
         leaveRequestRepository.save(request);
+        dailyAttendanceMaterializer.invalidate(request.getEmployee().getId(), request.getStartDate(),
+                request.getEndDate());
+        todayStatusBoard.recompute(request.getEmployee().getId(), request.getStartDate(), request.getEndDate());
     }
 
     public void deleteRequest(Long id) {
+        LeaveRequest request = leaveRequestRepository.findById(id).orElse(null);
         leaveRequestRepository.deleteById(id);
+        if (request != null) {
+            dailyAttendanceMaterializer.invalidate(request.getEmployee().getId(), request.getStartDate(),
+                    request.getEndDate());
+            todayStatusBoard.recompute(request.getEmployee().getId(), request.getStartDate(), request.getEndDate());
+        }
     }
 }
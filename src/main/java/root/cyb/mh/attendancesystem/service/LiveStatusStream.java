@@ -0,0 +1,265 @@
+package root.cyb.mh.attendancesystem.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import root.cyb.mh.attendancesystem.dto.DailyAttendanceDto;
+import root.cyb.mh.attendancesystem.dto.LiveStatusDto;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Server-Sent Events feed of the dashboard's live status board.
+ *
+ * A new subscriber gets a "snapshot" event with every card, then "delta"
+ * events holding only the employees whose status or time changed, as
+ * TodayStatusBoard reports them. Each event carries an increasing id; a
+ * browser reconnecting with Last-Event-ID is replayed the deltas it missed,
+ * or sent a fresh snapshot if they are no longer kept (or the id is from
+ * before a restart). Comment heartbeats keep idle connections open through
+ * proxies.
+ *
+ * All sends happen on one dispatcher thread, so a subscriber always sees its
+ * snapshot before any later delta, and a slow client never holds up the board.
+ */
+@Service
+public class LiveStatusStream implements TodayStatusBoard.Listener {
+
+    private static final Logger log = LoggerFactory.getLogger(LiveStatusStream.class);
+
+    public static final Comparator<LiveStatusDto> BY_NAME = Comparator.comparing(LiveStatusDto::getName,
+            Comparator.nullsLast(Comparator.naturalOrder()));
+
+    @Autowired
+    private TodayStatusBoard todayStatusBoard;
+
+    @Value("${app.live.max-subscribers:50}")
+    private int maxSubscribers;
+
+    // Deltas kept for Last-Event-ID resume
+    @Value("${app.live.replay-events:500}")
+    private int replayEvents;
+
+    @Value("${app.live.stream-timeout-minutes:30}")
+    private long streamTimeoutMinutes;
+
+    // Browser reconnect delay after a dropped stream, and the Retry-After when full
+    @Value("${app.live.retry-after-seconds:30}")
+    private int retryAfterSeconds;
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+
+    // Prefix of every event id, so ids from before a restart are never replayed
+    private final String run = Long.toString(System.currentTimeMillis(), 36);
+
+    // Dispatcher thread only
+    private final ArrayDeque<Delta> recent = new ArrayDeque<>();
+    private long lastEventId;
+    private LocalDate day;
+
+    private ExecutorService dispatcher;
+
+    @PostConstruct
+    public void start() {
+        dispatcher = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "live-status");
+            t.setDaemon(true);
+            return t;
+        });
+        todayStatusBoard.addListener(this);
+    }
+
+    @PreDestroy
+    public void stop() {
+        dispatcher.shutdownNow();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    /**
+     * Opens a stream. Returns null when max-subscribers streams are already
+     * open; the caller should ask the browser to come back later.
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            log.warn("Live status stream refused, subscriber cap reached max={}", maxSubscribers);
+            return null;
+        }
+        Subscriber subscriber = new Subscriber(new SseEmitter(TimeUnit.MINUTES.toMillis(streamTimeoutMinutes)));
+        subscriber.emitter.onCompletion(() -> drop(subscriber));
+        subscriber.emitter.onTimeout(() -> drop(subscriber));
+        subscriber.emitter.onError(e -> drop(subscriber));
+
+        dispatcher.execute(() -> {
+            if (subscriber.closed.get())
+                return;
+            if (resume(subscriber, lastEventId) && !subscriber.closed.get())
+                subscribers.add(subscriber);
+        });
+        return subscriber.emitter;
+    }
+
+    @Override
+    public void statusChanged(LocalDate day, List<DailyAttendanceDto> changed, List<String> removed) {
+        // Called on the thread that changed the board: convert and send later
+        dispatcher.execute(() -> broadcast(day, changed, removed));
+    }
+
+    @Scheduled(fixedRateString = "${app.live.heartbeat-ms:15000}")
+    public void heartbeat() {
+        if (subscribers.isEmpty())
+            return;
+        dispatcher.execute(() -> {
+            for (Subscriber subscriber : subscribers) {
+                send(subscriber, () -> SseEmitter.event().comment("heartbeat"));
+            }
+        });
+    }
+
+    private void broadcast(LocalDate day, List<DailyAttendanceDto> changed, List<String> removed) {
+        lastEventId++;
+        if (!day.equals(this.day)) {
+            // New day: earlier deltas no longer apply
+            this.day = day;
+            recent.clear();
+            List<LiveStatusDto> cards = toCards(changed);
+            for (Subscriber subscriber : subscribers) {
+                send(subscriber, () -> snapshotEvent(cards));
+            }
+            return;
+        }
+
+        Delta delta = new Delta(eventId(lastEventId), lastEventId, toCards(changed), removed);
+        recent.addLast(delta);
+        while (recent.size() > replayEvents) {
+            recent.removeFirst();
+        }
+        for (Subscriber subscriber : subscribers) {
+            send(subscriber, delta::event);
+        }
+    }
+
+    // Replays missed deltas when possible, otherwise sends a snapshot
+    private boolean resume(Subscriber subscriber, String lastEventIdHeader) {
+        long from = parseEventId(lastEventIdHeader);
+        boolean canReplay = from >= 0 && from <= lastEventId
+                && (from == lastEventId || (!recent.isEmpty() && recent.peekFirst().id <= from + 1));
+        if (canReplay) {
+            for (Delta delta : recent) {
+                if (delta.id > from && !send(subscriber, delta::event))
+                    return false;
+            }
+            return true;
+        }
+        List<LiveStatusDto> cards = toCards(todayStatusBoard.snapshot());
+        return send(subscriber, () -> snapshotEvent(cards));
+    }
+
+    private SseEmitter.SseEventBuilder snapshotEvent(List<LiveStatusDto> cards) {
+        return SseEmitter.event()
+                .id(eventId(lastEventId))
+                .name("snapshot")
+                .reconnectTime(TimeUnit.SECONDS.toMillis(retryAfterSeconds))
+                .data(cards, MediaType.APPLICATION_JSON);
+    }
+
+    // Builders cannot be sent twice, so each subscriber gets its own
+    private boolean send(Subscriber subscriber, Supplier<SseEmitter.SseEventBuilder> event) {
+        try {
+            subscriber.emitter.send(event.get());
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            // Client went away; the container completes the emitter
+            drop(subscriber);
+            return false;
+        }
+    }
+
+    private void drop(Subscriber subscriber) {
+        if (subscriber.closed.compareAndSet(false, true)) {
+            subscribers.remove(subscriber);
+            subscriberCount.decrementAndGet();
+        }
+    }
+
+    private static List<LiveStatusDto> toCards(List<DailyAttendanceDto> rows) {
+        List<LiveStatusDto> cards = new ArrayList<>(rows.size());
+        for (DailyAttendanceDto row : rows) {
+            cards.add(LiveStatusDto.from(row));
+        }
+        cards.sort(BY_NAME);
+        return cards;
+    }
+
+    private String eventId(long sequence) {
+        return run + "." + sequence;
+    }
+
+    // Sequence number of an id issued by this run, or -1
+    private long parseEventId(String value) {
+        if (value == null || !value.startsWith(run + "."))
+            return -1;
+        try {
+            return Long.parseLong(value.substring(run.length() + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static final class Subscriber {
+        final SseEmitter emitter;
+        final AtomicBoolean closed = new AtomicBoolean();
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+    }
+
+    private static final class Delta {
+        final String eventId;
+        final long id;
+        final List<LiveStatusDto> employees;
+        final List<String> removed;
+
+        Delta(String eventId, long id, List<LiveStatusDto> employees, List<String> removed) {
+            this.eventId = eventId;
+            this.id = id;
+            this.employees = employees;
+            this.removed = removed;
+        }
+
+        SseEmitter.SseEventBuilder event() {
+            return SseEmitter.event()
+                    .id(eventId)
+                    .name("delta")
+                    .data(Map.of("employees", employees, "removed", removed), MediaType.APPLICATION_JSON);
+        }
+    }
+}
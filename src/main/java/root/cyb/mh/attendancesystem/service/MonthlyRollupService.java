@@ -0,0 +1,286 @@
+package root.cyb.mh.attendancesystem.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import root.cyb.mh.attendancesystem.dto.MonthlySummaryDto;
+import root.cyb.mh.attendancesystem.model.DailyAttendanceFact;
+import root.cyb.mh.attendancesystem.model.Employee;
+import root.cyb.mh.attendancesystem.model.LeaveRequest;
+import root.cyb.mh.attendancesystem.model.MonthlyAttendanceRollup;
+import root.cyb.mh.attendancesystem.model.WorkSchedule;
+import root.cyb.mh.attendancesystem.repository.EmployeeRepository;
+import root.cyb.mh.attendancesystem.repository.LeaveRequestRepository;
+import root.cyb.mh.attendancesystem.repository.MonthlyAttendanceRollupRepository;
+import root.cyb.mh.attendancesystem.repository.WorkScheduleRepository;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains the MonthlyAttendanceRollup table behind the monthly report.
+ *
+ * A rollup is summed once from the month's day facts and stored. Rollups of
+ * closed months are then read as they are; DailyAttendanceMaterializer drops
+ * them only when one of their inputs is corrected. The current month's rollup
+ * is built once a day: punches that arrive later only change today, so today
+ * is swapped for its latest fact on each read instead of re-summing the month.
+ * Corrections made outside the application (direct SQL, restored backups)
+ * bypass those hooks; rebuild(from, to) recomputes the affected months. The
+ * nightly job can repeat that for recent closed months but is off by default.
+ */
+@Service
+public class MonthlyRollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(MonthlyRollupService.class);
+
+    // Keeps IN (...) lists well below database parameter limits
+    private static final int ID_CHUNK = 1000;
+
+    @Autowired
+    private MonthlyAttendanceRollupRepository rollupRepository;
+
+    @Autowired
+    private DailyAttendanceMaterializer dailyAttendanceMaterializer;
+
+    @Autowired
+    private LeaveRequestRepository leaveRequestRepository;
+
+    @Autowired
+    private WorkScheduleRepository workScheduleRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    // Closed months rebuilt by the nightly job (0, the default, turns it off)
+    @Value("${app.rollup.rebuild-months:0}")
+    private int rebuildMonths;
+
+    /**
+     * Monthly report rows for the employees, in the order given.
+     */
+    public List<MonthlySummaryDto> getSummaries(Collection<Employee> employees, int year, int month) {
+        LocalDate today = LocalDate.now();
+        Map<String, MonthlyAttendanceRollup> rollups = getRollups(employees, year, month, today);
+
+        // The live day's counts come from its latest fact
+        List<Employee> live = new ArrayList<>();
+        for (Employee emp : employees) {
+            if (today.equals(rollups.get(emp.getId()).getLiveDay()))
+                live.add(emp);
+        }
+        Map<String, Map<LocalDate, DailyAttendanceFact>> todayFacts = live.isEmpty() ? Map.of()
+                : dailyAttendanceMaterializer.getFacts(live, today, today);
+
+        List<MonthlySummaryDto> summaries = new ArrayList<>(employees.size());
+        for (Employee emp : employees) {
+            Map<LocalDate, DailyAttendanceFact> facts = todayFacts.get(emp.getId());
+            summaries.add(toSummary(emp, rollups.get(emp.getId()), facts != null ? facts.get(today) : null));
+        }
+        return summaries;
+    }
+
+    /**
+     * Rebuilds the rollups (and the day facts under them) of every employee
+     * for the months in [from, to].
+     */
+    public void rebuild(YearMonth from, YearMonth to) {
+        dailyAttendanceMaterializer.invalidateRange(from.atDay(1), to.atEndOfMonth());
+        List<Employee> employees = employeeRepository.findAll();
+        LocalDate today = LocalDate.now();
+        for (YearMonth m = from; !m.isAfter(to); m = m.plusMonths(1)) {
+            getRollups(employees, m.getYear(), m.getMonthValue(), today);
+        }
+        log.info("Monthly rollups rebuilt from={} to={} employees={}", from, to, employees.size());
+    }
+
+    @Scheduled(cron = "${app.rollup.rebuild-cron:0 30 2 * * *}")
+    public void rebuildRecentMonths() {
+        if (rebuildMonths <= 0)
+            return;
+        YearMonth last = YearMonth.now().minusMonths(1);
+        rebuild(last.minusMonths(rebuildMonths - 1), last);
+    }
+
+    private Map<String, MonthlyAttendanceRollup> getRollups(Collection<Employee> employees, int year, int month,
+            LocalDate today) {
+        Map<String, Employee> byId = new LinkedHashMap<>();
+        for (Employee emp : employees) {
+            byId.put(emp.getId(), emp);
+        }
+        Map<String, MonthlyAttendanceRollup> rollups = new HashMap<>();
+        if (byId.isEmpty())
+            return rollups;
+
+        // Registered before any read, so an invalidation while building drops
+        // the affected rows instead of letting them be stored
+        YearMonth ym = YearMonth.of(year, month);
+        DailyAttendanceMaterializer.Build build = dailyAttendanceMaterializer.beginBuild(byId.keySet(), ym.atDay(1),
+                ym.atEndOfMonth());
+        try {
+            List<String> ids = new ArrayList<>(byId.keySet());
+            List<String> stale = new ArrayList<>();
+            for (int i = 0; i < ids.size(); i += ID_CHUNK) {
+                for (MonthlyAttendanceRollup r : rollupRepository.findForMonth(
+                        ids.subList(i, Math.min(ids.size(), i + ID_CHUNK)), year, month)) {
+                    // Built on an earlier day of what was then the current month
+                    if (r.getLiveDay() != null && !r.getLiveDay().equals(today))
+                        stale.add(r.getEmployeeId());
+                    else
+                        rollups.put(r.getEmployeeId(), r);
+                }
+            }
+            for (int i = 0; i < stale.size(); i += ID_CHUNK) {
+                rollupRepository.deleteForMonth(stale.subList(i, Math.min(stale.size(), i + ID_CHUNK)), year, month);
+            }
+
+            List<Employee> missing = new ArrayList<>();
+            for (Employee emp : byId.values()) {
+                if (!rollups.containsKey(emp.getId()))
+                    missing.add(emp);
+            }
+            if (!missing.isEmpty()) {
+                List<MonthlyAttendanceRollup> built = build(missing, year, month, today);
+                dailyAttendanceMaterializer.store(build, built, MonthlyAttendanceRollup::getEmployeeId,
+                        rollupRepository::insertAll);
+                for (MonthlyAttendanceRollup r : built) {
+                    rollups.put(r.getEmployeeId(), r);
+                }
+            }
+            return rollups;
+        } finally {
+            dailyAttendanceMaterializer.endBuild(build);
+        }
+    }
+
+    private List<MonthlyAttendanceRollup> build(List<Employee> employees, int year, int month, LocalDate today) {
+        YearMonth ym = YearMonth.of(year, month);
+        LocalDate start = ym.atDay(1);
+        LocalDate end = ym.atEndOfMonth();
+
+        WorkSchedule globalSchedule = workScheduleRepository.findAll().stream().findFirst().orElse(new WorkSchedule());
+        int defaultQuota = globalSchedule.getDefaultAnnualLeaveQuota() != null
+                ? globalSchedule.getDefaultAnnualLeaveQuota()
+                : 12;
+        // Approved leave from Jan 1st, for the quota left at the start of the month
+        LeaveIndex leaveIndex = LeaveIndex.of(
+                leaveRequestRepository.findIntervals(LeaveRequest.Status.APPROVED, LocalDate.of(year, 1, 1), end));
+        Map<String, Map<LocalDate, DailyAttendanceFact>> facts = dailyAttendanceMaterializer.getFacts(employees,
+                start, end);
+
+        LocalDate liveDay = !today.isBefore(start) && !today.isAfter(end) ? today : null;
+        List<MonthlyAttendanceRollup> built = new ArrayList<>(employees.size());
+        for (Employee emp : employees) {
+            int effectiveQuota = emp.getEffectiveQuota(defaultQuota);
+            int leavesTakenBefore = leaveIndex.daysBeforeMonth(emp.getId(), year, month);
+            built.add(sum(emp.getId(), year, month, facts.get(emp.getId()),
+                    Math.max(0, effectiveQuota - leavesTakenBefore), liveDay));
+        }
+        return built;
+    }
+
+    private static MonthlyAttendanceRollup sum(String employeeId, int year, int month,
+            Map<LocalDate, DailyAttendanceFact> empFacts, int remainingQuota, LocalDate liveDay) {
+        MonthlyAttendanceRollup r = new MonthlyAttendanceRollup();
+        r.setEmployeeId(employeeId);
+        r.setYear(year);
+        r.setMonth(month);
+        r.setLiveDay(liveDay);
+
+        LocalDate start = LocalDate.of(year, month, 1);
+        LocalDate end = start.withDayOfMonth(start.lengthOfMonth());
+        for (LocalDate date = start; !date.isAfter(end); date = date.plusDays(1)) {
+            DailyAttendanceFact fact = empFacts.get(date);
+
+            if (fact.isOnLeave()) {
+                r.setLeaveCount(r.getLeaveCount() + 1);
+                if (remainingQuota > 0) {
+                    r.setPaidLeaveCount(r.getPaidLeaveCount() + 1);
+                    remainingQuota--;
+                } else {
+                    r.setUnpaidLeaveCount(r.getUnpaidLeaveCount() + 1);
+                }
+                continue;
+            }
+
+            DayCounts day = DayCounts.of(fact);
+            r.setPresentCount(r.getPresentCount() + (day.present ? 1 : 0));
+            r.setAbsentCount(r.getAbsentCount() + (day.absent ? 1 : 0));
+            r.setLateCount(r.getLateCount() + (day.late ? 1 : 0));
+            r.setEarlyLeaveCount(r.getEarlyLeaveCount() + (day.earlyLeave ? 1 : 0));
+            if (date.equals(liveDay)) {
+                r.setLivePresent(day.present);
+                r.setLiveAbsent(day.absent);
+                r.setLiveLate(day.late);
+                r.setLiveEarlyLeave(day.earlyLeave);
+            }
+        }
+        return r;
+    }
+
+    private static MonthlySummaryDto toSummary(Employee emp, MonthlyAttendanceRollup r, DailyAttendanceFact today) {
+        MonthlySummaryDto dto = new MonthlySummaryDto();
+        dto.setEmployeeId(emp.getId());
+        dto.setEmployeeName(emp.getName());
+        dto.setDepartmentName(emp.getDepartment() != null ? emp.getDepartment().getName() : "Unassigned");
+        dto.setMonth(r.getMonth());
+        dto.setYear(r.getYear());
+
+        int present = r.getPresentCount();
+        int absent = r.getAbsentCount();
+        int late = r.getLateCount();
+        int early = r.getEarlyLeaveCount();
+        if (today != null && !today.isOnLeave()) {
+            // Swap the live day's counts at build time for its current ones
+            DayCounts now = DayCounts.of(today);
+            present += (now.present ? 1 : 0) - (r.isLivePresent() ? 1 : 0);
+            absent += (now.absent ? 1 : 0) - (r.isLiveAbsent() ? 1 : 0);
+            late += (now.late ? 1 : 0) - (r.isLiveLate() ? 1 : 0);
+            early += (now.earlyLeave ? 1 : 0) - (r.isLiveEarlyLeave() ? 1 : 0);
+        }
+        dto.setPresentCount(present);
+        dto.setAbsentCount(absent);
+        dto.setLateCount(late);
+        dto.setEarlyLeaveCount(early);
+        dto.setLeaveCount(r.getLeaveCount());
+        dto.setPaidLeaveCount(r.getPaidLeaveCount());
+        dto.setUnpaidLeaveCount(r.getUnpaidLeaveCount());
+        return dto;
+    }
+
+    // What one day outside leave adds to the monthly counts
+    private static final class DayCounts {
+        final boolean present;
+        final boolean absent;
+        final boolean late;
+        final boolean earlyLeave;
+
+        private DayCounts(boolean present, boolean absent, boolean late, boolean earlyLeave) {
+            this.present = present;
+            this.absent = absent;
+            this.late = late;
+            this.earlyLeave = earlyLeave;
+        }
+
+        static DayCounts of(DailyAttendanceFact fact) {
+            if (fact.isNotJoined()) {
+                // Skip checking attendance for days before joining
+                return new DayCounts(false, false, false, false);
+            }
+            boolean isWorkingDay = !fact.isWeekend() && !fact.isHoliday();
+            if (fact.isPresent()) {
+                return new DayCounts(true, false, isWorkingDay && fact.isLate(), isWorkingDay && fact.isEarlyLeave());
+            }
+            return new DayCounts(false, isWorkingDay, false, false);
+        }
+    }
+}
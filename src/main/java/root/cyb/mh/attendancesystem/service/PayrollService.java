@@ -19,22 +19,19 @@ public class PayrollService {
     private EmployeeRepository employeeRepository;
 
     @Autowired
-    private AttendanceLogRepository attendanceLogRepository;
+    private WorkScheduleRepository workScheduleRepository;
 
     @Autowired
-    private LeaveRequestRepository leaveRequestRepository;
+    private PayslipRepository payslipRepository;
 
     @Autowired
-    private WorkScheduleRepository workScheduleRepository;
+    private AdvanceSalaryRepository advanceSalaryRepository;
 
     @Autowired
-    private PublicHolidayRepository publicHolidayRepository;
+    private DailyAttendanceMaterializer dailyAttendanceMaterializer;
 
     @Autowired
-    private PayslipRepository payslipRepository;
-
-    @Autowired
-    private AdvanceSalaryRepository advanceSalaryRepository;
+    private WorkCalendar workCalendar;
 
     public void generatePayrollForMonth(YearMonth yearMonth) {
         // ... (Keep initial setup for configs and dates) ...
@@ -42,30 +39,19 @@ public class PayrollService {
         LocalDate startOfMonth = yearMonth.atDay(1);
         LocalDate endOfMonth = yearMonth.atEndOfMonth();
 
-        List<Employee> employees = employeeRepository.findAll();
+        List<Employee> employees = employeeRepository.findAll().stream()
+                .filter(e -> !e.isGuest())
+                .collect(Collectors.toList());
 
         WorkSchedule globalSchedule = workScheduleRepository.findAll().stream().findFirst().orElse(new WorkSchedule());
-        List<PublicHoliday> holidays = publicHolidayRepository.findAll();
         List<LocalDate> monthDates = startOfMonth.datesUntil(endOfMonth.plusDays(1)).collect(Collectors.toList());
 
-        // Data for the month (Global Fetch for performance optimization in bulk)
-        List<AttendanceLog> allLogs = attendanceLogRepository.findByTimestampBetween(
-                startOfMonth.atStartOfDay(), endOfMonth.atTime(23, 59, 59));
-
-        List<LeaveRequest> allApprovedLeaves = leaveRequestRepository
-                .findByStatusOrderByCreatedAtDesc(LeaveRequest.Status.APPROVED);
+        // Day facts for the month (one bulk fetch for all employees)
+        Map<String, Map<LocalDate, DailyAttendanceFact>> allFacts = dailyAttendanceMaterializer.getFacts(employees,
+                startOfMonth, endOfMonth);
 
         for (Employee emp : employees) {
-            // Filter logs and leaves for this specific employee
-            List<AttendanceLog> empLogs = allLogs.stream()
-                    .filter(l -> l.getEmployeeId().equals(emp.getId()))
-                    .collect(Collectors.toList());
-
-            List<LeaveRequest> empLeaves = allApprovedLeaves.stream()
-                    .filter(l -> l.getEmployee().getId().equals(emp.getId()))
-                    .collect(Collectors.toList());
-
-            calculatePayslip(emp, yearMonth, globalSchedule, holidays, monthDates, empLogs, empLeaves);
+            calculatePayslip(emp, yearMonth, globalSchedule, monthDates, allFacts.get(emp.getId()));
         }
     }
 
@@ -76,24 +62,18 @@ public class PayrollService {
         List<LocalDate> monthDates = startOfMonth.datesUntil(endOfMonth.plusDays(1)).collect(Collectors.toList());
 
         WorkSchedule globalSchedule = workScheduleRepository.findAll().stream().findFirst().orElse(new WorkSchedule());
-        List<PublicHoliday> holidays = publicHolidayRepository.findAll();
 
-        List<AttendanceLog> empLogs = attendanceLogRepository.findByTimestampBetween(
-                startOfMonth.atStartOfDay(), endOfMonth.atTime(23, 59, 59)).stream()
-                .filter(l -> l.getEmployeeId().equals(emp.getId()))
-                .collect(Collectors.toList());
+        if (emp.isGuest())
+            return; // Skip guests
 
-        List<LeaveRequest> empLeaves = leaveRequestRepository
-                .findByStatusOrderByCreatedAtDesc(LeaveRequest.Status.APPROVED).stream()
-                .filter(l -> l.getEmployee().getId().equals(emp.getId()))
-                .collect(Collectors.toList());
+        Map<LocalDate, DailyAttendanceFact> facts = dailyAttendanceMaterializer.getFacts(emp, startOfMonth,
+                endOfMonth);
 
-        calculatePayslip(emp, yearMonth, globalSchedule, holidays, monthDates, empLogs, empLeaves);
+        calculatePayslip(emp, yearMonth, globalSchedule, monthDates, facts);
     }
 
     private void calculatePayslip(Employee emp, YearMonth yearMonth, WorkSchedule globalSchedule,
-            List<PublicHoliday> holidays, List<LocalDate> monthDates, List<AttendanceLog> empLogs,
-            List<LeaveRequest> empLeaves) {
+            List<LocalDate> monthDates, Map<LocalDate, DailyAttendanceFact> facts) {
         String monthStr = yearMonth.format(DateTimeFormatter.ofPattern("yyyy-MM"));
         LocalDate startOfMonth = yearMonth.atDay(1);
         LocalDate endOfMonth = yearMonth.atEndOfMonth();
@@ -125,15 +105,7 @@ public class PayrollService {
         double monthlySalary = emp.getMonthlySalary() != null ? emp.getMonthlySalary() : 0.0;
 
         // Calculate Standard Monthly Working Days
-        int standardMonthlyWorkingDays = 0;
-        for (LocalDate date : monthDates) {
-            boolean isWeekend = globalSchedule.getWeekendDays() != null
-                    && globalSchedule.getWeekendDays().contains(String.valueOf(date.getDayOfWeek().getValue()));
-            boolean isHoliday = holidays.stream().anyMatch(h -> h.getDate().equals(date));
-            if (!isWeekend && !isHoliday) {
-                standardMonthlyWorkingDays++;
-            }
-        }
+        int standardMonthlyWorkingDays = workCalendar.countWorkingDays(startOfMonth, endOfMonth);
 
         // Counters
         int actualWorkingDays = 0; // Days this employee was eligible and it was a working day
@@ -148,35 +120,18 @@ public class PayrollService {
                 continue;
 
             // Check Weekend/Holiday
-            boolean isWeekend = globalSchedule.getWeekendDays() != null
-                    && globalSchedule.getWeekendDays().contains(String.valueOf(date.getDayOfWeek().getValue()));
-            boolean isHoliday = holidays.stream().anyMatch(h -> h.getDate().equals(date));
-
-            boolean isWorkingDay = !isWeekend && !isHoliday;
+            boolean isWorkingDay = workCalendar.isWorkingDay(date);
             if (isWorkingDay) {
                 actualWorkingDays++;
             }
 
-            // Check Leave
-            boolean onLeave = false;
-            LeaveRequest activeLeave = null;
-            for (LeaveRequest lr : empLeaves) {
-                if (!date.isBefore(lr.getStartDate()) && !date.isAfter(lr.getEndDate())) {
-                    onLeave = true;
-                    activeLeave = lr;
-                    break;
-                }
-            }
-
-            // Check Attendance
-            boolean isPresent = empLogs.stream()
-                    .anyMatch(l -> l.getTimestamp().toLocalDate().equals(date));
+            DailyAttendanceFact fact = facts.get(date);
 
-            if (isPresent) {
+            if (fact.isPresent()) {
                 presentDays++;
-            } else if (onLeave && activeLeave != null) {
+            } else if (fact.isOnLeave()) {
                 // Check Leave Type
-                String type = activeLeave.getLeaveType() != null ? activeLeave.getLeaveType().toUpperCase() : "";
+                String type = fact.getLeaveType() != null ? fact.getLeaveType().toUpperCase() : "";
                 if (type.equals("UNPAID") || type.equals("LWP")) {
                     if (isWorkingDay)
                         unpaidLeaveDays++;
@@ -198,19 +153,10 @@ public class PayrollService {
         // Count Late Days (Only first check-in per day)
         long lateCount = 0;
 
-        // Group by Date to find the first check-in of each day
-        Map<LocalDate, List<AttendanceLog>> logsByDate = empLogs.stream()
-                .collect(Collectors.groupingBy(l -> l.getTimestamp().toLocalDate()));
-
-        for (Map.Entry<LocalDate, List<AttendanceLog>> entry : logsByDate.entrySet()) {
-            // Find earliest log for the day
-            List<AttendanceLog> dailyLogs = entry.getValue();
-            AttendanceLog firstLog = dailyLogs.stream()
-                    .min((l1, l2) -> l1.getTimestamp().compareTo(l2.getTimestamp()))
-                    .orElse(null);
-
-            if (firstLog != null && globalSchedule.getStartTime() != null) {
-                LocalTime checkInTime = firstLog.getTimestamp().toLocalTime();
+        for (DailyAttendanceFact fact : facts.values()) {
+            // First check-in of the day
+            if (fact.getFirstIn() != null && globalSchedule.getStartTime() != null) {
+                LocalTime checkInTime = fact.getFirstIn();
                 LocalTime lateLimit = globalSchedule.getStartTime()
                         .plusMinutes(globalSchedule.getLateToleranceMinutes());
                 if (checkInTime.isAfter(lateLimit)) {
@@ -0,0 +1,128 @@
+package root.cyb.mh.attendancesystem.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed store for employee photos pushed by terminals (USERPIC).
+ *
+ * Each image is decoded once and written to uploads/photos/&lt;sha256&gt;.jpg.
+ * The Employee row only keeps the hash, and the same picture pushed again
+ * (or by another terminal) maps to the same file.
+ */
+@Service
+public class PhotoStore {
+
+    private static final Logger log = LoggerFactory.getLogger(PhotoStore.class);
+
+    private static final Pattern HASH = Pattern.compile("[0-9a-f]{64}");
+    private static final String SUFFIX = ".jpg";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.photos.dir:uploads/photos}")
+    private String photoDir;
+
+    /**
+     * Decodes a base64 image and stores it. Returns the hash, or null if the
+     * content is not valid base64.
+     */
+    public String storeBase64(String base64) {
+        byte[] bytes;
+        try {
+            bytes = Base64.getMimeDecoder().decode(base64.trim());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        return bytes.length == 0 ? null : store(bytes);
+    }
+
+    public String store(byte[] bytes) {
+        String hash = sha256(bytes);
+        Path target = directory().resolve(hash + SUFFIX);
+        if (Files.exists(target))
+            return hash;
+        try {
+            Files.createDirectories(target.getParent());
+            // Write aside and move into place so readers never see a partial file
+            Path temp = Files.createTempFile(target.getParent(), hash, ".tmp");
+            Files.write(temp, bytes);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return hash;
+    }
+
+    /**
+     * Returns the file for a hash, or null if the hash is malformed or unknown.
+     */
+    public Path resolve(String hash) {
+        if (hash == null || !HASH.matcher(hash).matches())
+            return null;
+        Path file = directory().resolve(hash + SUFFIX);
+        return Files.isRegularFile(file) ? file : null;
+    }
+
+    /**
+     * Moves photos still held in the old employee.photo_base64 column into the
+     * store, then clears the column. Skipped quietly on databases that never
+     * had the column.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateLegacyPhotos() {
+        List<Map<String, Object>> rows;
+        try {
+            rows = jdbcTemplate.queryForList(
+                    "SELECT id, photo_base64 FROM employee WHERE photo_base64 IS NOT NULL AND photo_hash IS NULL");
+        } catch (DataAccessException e) {
+            return;
+        }
+        int migrated = 0;
+        for (Map<String, Object> row : rows) {
+            Object id = row.get("id");
+            Object content = row.get("photo_base64");
+            String hash = content != null ? storeBase64(content.toString()) : null;
+            jdbcTemplate.update("UPDATE employee SET photo_hash = ?, photo_base64 = NULL WHERE id = ?", hash, id);
+            if (hash != null)
+                migrated++;
+        }
+        if (migrated > 0) {
+            log.info("Moved legacy employee photos count={} dir={}", migrated, directory());
+        }
+    }
+
+    private Path directory() {
+        return Paths.get(photoDir);
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package root.cyb.mh.attendancesystem.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Punches for a date range, bucketed by employee and day in a single pass.
+ *
+ * Each employee gets flat arrays indexed by day offset from the range start
+ * (punch count, first and last time of day), so a day lookup is a map hit
+ * plus an array read, and no punch objects are kept once added.
+ */
+public final class PunchIndex {
+
+    private static final long NONE = -1;
+
+    private final LocalDate from;
+    private final int days;
+    private final Map<String, Days> byEmployee = new HashMap<>();
+
+    public PunchIndex(LocalDate from, LocalDate to) {
+        this.from = from;
+        this.days = (int) ChronoUnit.DAYS.between(from, to) + 1;
+    }
+
+    public void add(String employeeId, LocalDateTime timestamp) {
+        int day = offset(timestamp.toLocalDate());
+        if (day < 0)
+            return;
+        Days d = byEmployee.computeIfAbsent(employeeId, k -> new Days(days));
+        long nanos = timestamp.toLocalTime().toNanoOfDay();
+        if (d.count[day]++ == 0) {
+            d.first[day] = nanos;
+            d.last[day] = nanos;
+        } else {
+            d.first[day] = Math.min(d.first[day], nanos);
+            d.last[day] = Math.max(d.last[day], nanos);
+        }
+    }
+
+    public int count(String employeeId, LocalDate date) {
+        Days d = byEmployee.get(employeeId);
+        int day = offset(date);
+        return d == null || day < 0 ? 0 : d.count[day];
+    }
+
+    /** Earliest punch of the day, or null if there is none. */
+    public LocalTime firstIn(String employeeId, LocalDate date) {
+        Days d = byEmployee.get(employeeId);
+        int day = offset(date);
+        return d == null || day < 0 ? null : time(d.first[day]);
+    }
+
+    /** Latest punch of the day, or null if there is none. */
+    public LocalTime lastOut(String employeeId, LocalDate date) {
+        Days d = byEmployee.get(employeeId);
+        int day = offset(date);
+        return d == null || day < 0 ? null : time(d.last[day]);
+    }
+
+    private int offset(LocalDate date) {
+        long day = ChronoUnit.DAYS.between(from, date);
+        return day >= 0 && day < days ? (int) day : -1;
+    }
+
+    private static LocalTime time(long nanos) {
+        return nanos == NONE ? null : LocalTime.ofNanoOfDay(nanos);
+    }
+
+    private static final class Days {
+        final int[] count;
+        final long[] first;
+        final long[] last;
+
+        Days(int days) {
+            count = new int[days];
+            first = new long[days];
+            last = new long[days];
+            Arrays.fill(first, NONE);
+            Arrays.fill(last, NONE);
+        }
+    }
+}
@@ -1,23 +1,32 @@
 package root.cyb.mh.attendancesystem.service;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import root.cyb.mh.attendancesystem.dto.DailyAttendanceDto;
-import root.cyb.mh.attendancesystem.model.AttendanceLog;
+import root.cyb.mh.attendancesystem.model.DailyAttendanceFact;
 import root.cyb.mh.attendancesystem.model.Employee;
 import root.cyb.mh.attendancesystem.model.WorkSchedule;
-import root.cyb.mh.attendancesystem.repository.AttendanceLogRepository;
 import root.cyb.mh.attendancesystem.repository.EmployeeRepository;
 import root.cyb.mh.attendancesystem.repository.WorkScheduleRepository;
 
 import java.time.LocalDate;
-import java.time.LocalTime;
+import java.time.YearMonth;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,178 +35,167 @@ public class ReportService {
     @Autowired
     private EmployeeRepository employeeRepository;
 
-    @Autowired
-    private AttendanceLogRepository attendanceLogRepository;
-
     @Autowired
     private WorkScheduleRepository workScheduleRepository;
 
-    @Autowired
-    private root.cyb.mh.attendancesystem.repository.PublicHolidayRepository publicHolidayRepository;
-
     @Autowired
     private root.cyb.mh.attendancesystem.repository.LeaveRequestRepository leaveRequestRepository;
 
     @Autowired
     private ShiftService shiftService;
 
-    public Page<DailyAttendanceDto> getDailyReport(LocalDate date, List<Long> departmentIds, String statusFilter,
-            Pageable pageable) {
+    @Autowired
+    private DailyAttendanceMaterializer dailyAttendanceMaterializer;
 
-        List<DailyAttendanceDto> report = new ArrayList<>();
+    @Autowired
+    private WorkCalendar workCalendar;
 
-        // Get Work Schedule
-        WorkSchedule globalSchedule = workScheduleRepository.findAll().stream().findFirst().orElse(new WorkSchedule());
+    @Autowired
+    private MonthlyRollupService monthlyRollupService;
+
+    // Per-employee report rows are computed on a dedicated pool, not the common
+    // pool or request threads. Set enabled=false to compute them sequentially.
+    @Value("${app.reports.parallel.enabled:true}")
+    private boolean parallelEnabled;
+
+    // 0 = one thread per available processor
+    @Value("${app.reports.parallelism:0}")
+    private int parallelism;
+
+    private ForkJoinPool reportPool;
+
+    @PostConstruct
+    public void startPool() {
+        if (!parallelEnabled)
+            return;
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        reportPool = new ForkJoinPool(threads, pool -> {
+            ForkJoinWorkerThread t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            t.setName("report-worker-" + t.getPoolIndex());
+            t.setDaemon(true);
+            return t;
+        }, null, false);
+    }
 
-        // Get Employees (Filter by Dept if provided)
-        List<Employee> allFilteredEmployees;
-        if (departmentIds != null && !departmentIds.isEmpty()) {
-            allFilteredEmployees = employeeRepository.findAll().stream()
-                    .filter(e -> !e.isGuest()) // Exclude Guests
-                    .filter(e -> e.getDepartment() != null && departmentIds.contains(e.getDepartment().getId()))
-                    .collect(Collectors.toList());
-        } else {
-            allFilteredEmployees = employeeRepository.findAll().stream()
-                    .filter(e -> !e.isGuest()) // Exclude Guests
-                    .collect(Collectors.toList());
+    @PreDestroy
+    public void stopPool() {
+        if (reportPool != null) {
+            reportPool.shutdownNow();
         }
+    }
 
-        // Generate Report Data
-        List<DailyAttendanceDto> fullReport = generateDailyReportData(allFilteredEmployees, date, globalSchedule);
+    public Page<DailyAttendanceDto> getDailyReport(LocalDate date, List<Long> departmentIds, String statusFilter,
+            Pageable pageable) {
 
-        // Apply Status Filter
-        if (statusFilter != null && !statusFilter.isEmpty()) {
-            fullReport = fullReport.stream().filter(dto -> {
-                if ("PRESENT".equalsIgnoreCase(statusFilter)) {
-                    return dto.getStatus().contains("PRESENT") || dto.getStatus().contains("LATE")
-                            || dto.getStatus().contains("EARLY");
-                }
-                if ("ABSENT".equalsIgnoreCase(statusFilter)) {
-                    return dto.getStatus().contains("ABSENT");
-                }
-                if ("LEAVE".equalsIgnoreCase(statusFilter)) {
-                    return dto.getStatus().contains("LEAVE") && !dto.getStatus().contains("EARLY");
-                }
-                if ("LATE".equalsIgnoreCase(statusFilter)) {
-                    return dto.getStatus().contains("LATE");
-                }
-                return true;
-            }).collect(Collectors.toList());
-        }
+        // Every non-guest needs a fact for the day before the database can filter on it
+        dailyAttendanceMaterializer.prepareDay(date);
 
-        // Pagination
-        int start = (int) pageable.getOffset();
-        int end = Math.min((start + pageable.getPageSize()), fullReport.size());
-        List<DailyAttendanceDto> pagedContent = new ArrayList<>();
-        if (start <= fullReport.size()) {
-            pagedContent = fullReport.subList(start, end);
-        }
+        // Page, department and status filters run in SQL (guests excluded)
+        boolean allDepartments = departmentIds == null || departmentIds.isEmpty();
+        Pageable ordered = pageable.isPaged() && pageable.getSort().isUnsorted()
+                ? PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by("id"))
+                : pageable;
+        Page<Employee> employees = employeeRepository.findForDailyReport(date, dailyStatusKey(statusFilter),
+                allDepartments, allDepartments ? List.of(-1L) : departmentIds, ordered);
 
-        return new PageImpl<>(pagedContent, pageable, fullReport.size());
+        List<DailyAttendanceDto> pagedContent = generateDailyReportData(employees.getContent(), date);
+        return new PageImpl<>(pagedContent, pageable, employees.getTotalElements());
+    }
+
+    // Status filters understood by EmployeeRepository.findForDailyReport
+    private static String dailyStatusKey(String statusFilter) {
+        if (statusFilter == null)
+            return "ALL";
+        switch (statusFilter.toUpperCase()) {
+            case "PRESENT":
+            case "ABSENT":
+            case "LEAVE":
+            case "LATE":
+                return statusFilter.toUpperCase();
+            default:
+                return "ALL";
+        }
     }
 
     public List<DailyAttendanceDto> getTeamDailyStatus(List<Employee> teamMembers) {
-        WorkSchedule globalSchedule = workScheduleRepository.findAll().stream().findFirst().orElse(new WorkSchedule());
         // Use today's date
-        return generateDailyReportData(teamMembers, LocalDate.now(), globalSchedule);
+        return generateDailyReportData(teamMembers, LocalDate.now());
     }
 
-    private List<DailyAttendanceDto> generateDailyReportData(List<Employee> employees, LocalDate date,
-            WorkSchedule globalSchedule) {
+    private List<DailyAttendanceDto> generateDailyReportData(List<Employee> employees, LocalDate date) {
         List<DailyAttendanceDto> report = new ArrayList<>();
-        List<AttendanceLog> logs = attendanceLogRepository.findAll().stream()
-                .filter(log -> log.getTimestamp().toLocalDate().equals(date))
-                .collect(Collectors.toList());
-
-        List<root.cyb.mh.attendancesystem.model.PublicHoliday> holidays = publicHolidayRepository.findAll();
 
-        List<root.cyb.mh.attendancesystem.model.LeaveRequest> approvedLeaves = leaveRequestRepository
-                .findByStatusOrderByCreatedAtDesc(root.cyb.mh.attendancesystem.model.LeaveRequest.Status.APPROVED)
-                .stream()
-                .filter(l -> !date.isBefore(l.getStartDate()) && !date.isAfter(l.getEndDate()))
-                .collect(Collectors.toList());
+        // Precomputed day status per employee
+        Map<String, Map<LocalDate, DailyAttendanceFact>> facts = dailyAttendanceMaterializer.getFacts(employees, date,
+                date);
 
         for (Employee emp : employees) {
-            DailyAttendanceDto dto = new DailyAttendanceDto();
-            dto.setEmployeeId(emp.getId());
-            dto.setEmployeeName(emp.getName());
-            dto.setDepartmentName(emp.getDepartment() != null ? emp.getDepartment().getName() : "Unassigned");
+            DailyAttendanceDto dto = dailyRow(emp);
+            applyDailyStatus(dto, facts.get(emp.getId()).get(date));
+            report.add(dto);
+        }
+        return report;
 
-            // Helpful for UI
-            dto.setDesignation(emp.getDesignation());
-            dto.setAvatarPath(emp.getAvatarPath());
+    }
 
-            WorkSchedule schedule = resolveSchedule(emp.getId(), date, globalSchedule);
+    // Employee columns of a daily report row, before the day's status is known
+    static DailyAttendanceDto dailyRow(Employee emp) {
+        DailyAttendanceDto dto = new DailyAttendanceDto();
+        dto.setEmployeeId(emp.getId());
+        dto.setEmployeeName(emp.getName());
+        dto.setDepartmentName(emp.getDepartment() != null ? emp.getDepartment().getName() : "Unassigned");
 
-            List<AttendanceLog> empLogs = logs.stream()
-                    .filter(log -> log.getEmployeeId().equals(emp.getId()))
-                    .sorted(Comparator.comparing(AttendanceLog::getTimestamp))
-                    .collect(Collectors.toList());
+        // Helpful for UI
+        dto.setDesignation(emp.getDesignation());
+        dto.setAvatarPath(emp.getAvatarPath());
+        dto.setPhotoUrl(emp.getPhotoUrl());
+        return dto;
+    }
 
-            boolean isWeekend = schedule.getWeekendDays() != null
-                    && schedule.getWeekendDays().contains(String.valueOf(date.getDayOfWeek().getValue()));
-            boolean isPublicHoliday = holidays.stream().anyMatch(h -> h.getDate().equals(date));
+    // Status, colour and times of a daily report row, derived from the day's fact
+    static void applyDailyStatus(DailyAttendanceDto dto, DailyAttendanceFact fact) {
+        if (fact.isNotJoined()) {
+            dto.setStatus("NOT JOINED");
+            dto.setStatusColor("secondary");
+            return;
+        }
 
-            if (emp.getJoiningDate() != null && date.isBefore(emp.getJoiningDate())) {
-                dto.setStatus("NOT JOINED");
-                dto.setStatusColor("secondary");
-                report.add(dto);
-                continue;
+        if (fact.isWeekend() || fact.isHoliday()) {
+            dto.setStatus("WEEKEND/HOLIDAY");
+            dto.setStatusColor("secondary");
+            if (fact.isPresent()) {
+                dto.setStatus("PRESENT (HOLIDAY)");
+                dto.setStatusColor("success");
+                dto.setInTime(fact.getFirstIn());
+                dto.setOutTime(fact.getLastOut());
             }
-
-            if (isWeekend || isPublicHoliday) {
-                dto.setStatus("WEEKEND/HOLIDAY");
-                dto.setStatusColor("secondary");
-                if (!empLogs.isEmpty()) {
-                    dto.setStatus("PRESENT (HOLIDAY)");
-                    dto.setStatusColor("success");
-                    dto.setInTime(empLogs.get(0).getTimestamp().toLocalTime());
-                    dto.setOutTime(empLogs.get(empLogs.size() - 1).getTimestamp().toLocalTime());
-                }
-            } else if (empLogs.isEmpty()) {
-                boolean onLeave = approvedLeaves.stream().anyMatch(l -> l.getEmployee().getId().equals(emp.getId()));
-                if (onLeave) {
-                    root.cyb.mh.attendancesystem.model.LeaveRequest leave = approvedLeaves.stream()
-                            .filter(l -> l.getEmployee().getId().equals(emp.getId()))
-                            .findFirst().orElse(null);
-                    String type = leave != null && leave.getLeaveType() != null ? leave.getLeaveType().toUpperCase()
-                            : "";
-                    dto.setStatus(!type.isEmpty() ? type + " LEAVE" : "ON LEAVE");
-                    dto.setStatusColor("info");
-                } else {
-                    dto.setStatus("ABSENT");
-                    dto.setStatusColor("danger");
-                }
+        } else if (!fact.isPresent()) {
+            if (fact.isOnLeave()) {
+                String type = fact.getLeaveType() != null ? fact.getLeaveType().toUpperCase() : "";
+                dto.setStatus(!type.isEmpty() ? type + " LEAVE" : "ON LEAVE");
+                dto.setStatusColor("info");
             } else {
-                LocalTime inTime = empLogs.get(0).getTimestamp().toLocalTime();
-                LocalTime outTime = empLogs.get(empLogs.size() - 1).getTimestamp().toLocalTime();
-                dto.setInTime(inTime);
-                dto.setOutTime(outTime);
-
-                LocalTime lateThreshold = schedule.getStartTime().plusMinutes(schedule.getLateToleranceMinutes());
-                LocalTime earlyThreshold = schedule.getEndTime().minusMinutes(schedule.getEarlyLeaveToleranceMinutes());
-
-                boolean isLate = inTime.isAfter(lateThreshold);
-                boolean isEarly = outTime.isBefore(earlyThreshold);
-
-                if (isLate && isEarly) {
-                    dto.setStatus("LATE & EARLY LEAVE");
-                    dto.setStatusColor("warning");
-                } else if (isLate) {
-                    dto.setStatus("LATE ENTRY");
-                    dto.setStatusColor("warning");
-                } else if (isEarly) {
-                    dto.setStatus("EARLY LEAVE");
-                    dto.setStatusColor("info");
-                } else {
-                    dto.setStatus("PRESENT");
-                    dto.setStatusColor("success");
-                }
+                dto.setStatus("ABSENT");
+                dto.setStatusColor("danger");
+            }
+        } else {
+            dto.setInTime(fact.getFirstIn());
+            dto.setOutTime(fact.getLastOut());
+
+            if (fact.isLate() && fact.isEarlyLeave()) {
+                dto.setStatus("LATE & EARLY LEAVE");
+                dto.setStatusColor("warning");
+            } else if (fact.isLate()) {
+                dto.setStatus("LATE ENTRY");
+                dto.setStatusColor("warning");
+            } else if (fact.isEarlyLeave()) {
+                dto.setStatus("EARLY LEAVE");
+                dto.setStatusColor("info");
+            } else {
+                dto.setStatus("PRESENT");
+                dto.setStatusColor("success");
             }
-            report.add(dto);
         }
-        return report;
-
     }
 
     public Page<root.cyb.mh.attendancesystem.dto.WeeklyAttendanceDto> getWeeklyReport(LocalDate startOfWeek,
@@ -210,10 +208,6 @@ public class ReportService {
         LocalDate endOfWeek = startOfWeek.plusDays(6);
         List<LocalDate> weekDates = startOfWeek.datesUntil(endOfWeek.plusDays(1)).collect(Collectors.toList());
 
-        // Configs
-        WorkSchedule globalSchedule = workScheduleRepository.findAll().stream().findFirst().orElse(new WorkSchedule());
-        List<root.cyb.mh.attendancesystem.model.PublicHoliday> holidays = publicHolidayRepository.findAll();
-
         List<Employee> allFilteredEmployees;
         if (departmentIds != null && !departmentIds.isEmpty()) {
             allFilteredEmployees = employeeRepository.findAll().stream()
@@ -230,120 +224,72 @@ public class ReportService {
             employees = allFilteredEmployees.subList(start, end);
         }
 
-        List<AttendanceLog> allLogs = attendanceLogRepository.findByTimestampBetween(
-                startOfWeek.atStartOfDay(), endOfWeek.atTime(LocalTime.MAX));
-
-        // Get Approved Leaves overlapping the week
-        List<root.cyb.mh.attendancesystem.model.LeaveRequest> allLeaves = leaveRequestRepository
-                .findByStatusOrderByCreatedAtDesc(root.cyb.mh.attendancesystem.model.LeaveRequest.Status.APPROVED);
-
-        List<root.cyb.mh.attendancesystem.dto.WeeklyAttendanceDto> report = new ArrayList<>();
+        // Facts only for the employees on this page
+        Map<String, Map<LocalDate, DailyAttendanceFact>> facts = dailyAttendanceMaterializer.getFacts(employees,
+                startOfWeek, endOfWeek);
 
-        for (Employee emp : employees) {
-            root.cyb.mh.attendancesystem.dto.WeeklyAttendanceDto dto = new root.cyb.mh.attendancesystem.dto.WeeklyAttendanceDto();
-            dto.setEmployeeId(emp.getId());
-            dto.setEmployeeName(emp.getName());
-            dto.setDepartmentName(emp.getDepartment() != null ? emp.getDepartment().getName() : "Unassigned");
-            dto.setDailyStatus(new java.util.LinkedHashMap<>());
-
-            int present = 0, absent = 0, late = 0, early = 0, leave = 0;
-
-            for (LocalDate date : weekDates) {
-                WorkSchedule schedule = resolveSchedule(emp.getId(), date, globalSchedule);
+        List<root.cyb.mh.attendancesystem.dto.WeeklyAttendanceDto> report = inParallel(employees,
+                emp -> weeklyRow(emp, weekDates, facts.get(emp.getId())));
+        return new PageImpl<>(report, pageable, allFilteredEmployees.size());
+    }
 
-                // Check if Holiday/Weekend
-                boolean isWeekend = schedule.getWeekendDays() != null
-                        && schedule.getWeekendDays().contains(String.valueOf(date.getDayOfWeek().getValue()));
-                boolean isPublicHoliday = holidays.stream().anyMatch(h -> h.getDate().equals(date));
+    // One employee's row of the weekly grid; reads only its arguments
+    private root.cyb.mh.attendancesystem.dto.WeeklyAttendanceDto weeklyRow(Employee emp, List<LocalDate> weekDates,
+            Map<LocalDate, DailyAttendanceFact> empFacts) {
+        root.cyb.mh.attendancesystem.dto.WeeklyAttendanceDto dto = new root.cyb.mh.attendancesystem.dto.WeeklyAttendanceDto();
+        dto.setEmployeeId(emp.getId());
+        dto.setEmployeeName(emp.getName());
+        dto.setDepartmentName(emp.getDepartment() != null ? emp.getDepartment().getName() : "Unassigned");
+        dto.setDailyStatus(new java.util.LinkedHashMap<>());
 
-                String status = "";
+        int present = 0, absent = 0, late = 0, early = 0, leave = 0;
 
-                if (emp.getJoiningDate() != null && date.isBefore(emp.getJoiningDate())) {
-                    status = "NOT JOINED";
-                    dto.getDailyStatus().put(date, status);
-                    continue;
-                }
+        for (LocalDate date : weekDates) {
+            DailyAttendanceFact fact = empFacts.get(date);
+            String status = "";
 
-                // Get logs for this emp & date
-                List<AttendanceLog> dailyLogs = allLogs.stream()
-                        .filter(l -> l.getEmployeeId().equals(emp.getId())
-                                && l.getTimestamp().toLocalDate().equals(date))
-                        .sorted(Comparator.comparing(AttendanceLog::getTimestamp))
-                        .collect(Collectors.toList());
+            if (fact.isNotJoined()) {
+                status = "NOT JOINED";
+                dto.getDailyStatus().put(date, status);
+                continue;
+            }
 
-                if (isWeekend || isPublicHoliday) {
-                    status = "WEEKEND"; // or HOLIDAY
-                    // If they came anyway, count as Present
-                    if (!dailyLogs.isEmpty()) {
-                        status = "PRESENT";
-                        present++;
-
-                        LocalTime inTime = dailyLogs.get(0).getTimestamp().toLocalTime();
-                        LocalTime outTime = dailyLogs.get(dailyLogs.size() - 1).getTimestamp().toLocalTime();
-
-                        LocalTime lateThreshold = schedule.getStartTime()
-                                .plusMinutes(schedule.getLateToleranceMinutes());
-                        LocalTime earlyThreshold = schedule.getEndTime()
-                                .minusMinutes(schedule.getEarlyLeaveToleranceMinutes());
-
-                        if (inTime.isAfter(lateThreshold)) {
-                            status = "LATE";
-                            late++;
-                        }
-                        if (outTime.isBefore(earlyThreshold)) {
-                            if (status.equals("LATE"))
-                                status = "LATE_EARLY";
-                            else
-                                status = "EARLY";
-                            early++;
-                        }
-                    }
-                } else if (dailyLogs.isEmpty()) {
-                    // Check Leave
-                    boolean onLeave = isEmployeeOnLeave(emp.getId(), date, allLeaves);
-                    if (onLeave) {
-                        status = "LEAVE";
-                        // Don't increment absent/present count for leave? Or separate count?
-                        // But for Summary PDF we might want to know.
-                        // Let's rely on string status for now.
-                        leave++;
-                    } else {
-                        status = "ABSENT";
-                        absent++;
-                    }
+            if (!fact.isPresent() && (fact.isWeekend() || fact.isHoliday())) {
+                status = "WEEKEND"; // or HOLIDAY
+            } else if (!fact.isPresent()) {
+                // Check Leave
+                if (fact.isOnLeave()) {
+                    status = "LEAVE";
+                    leave++;
                 } else {
-                    status = "PRESENT";
-                    present++;
-
-                    LocalTime inTime = dailyLogs.get(0).getTimestamp().toLocalTime();
-                    LocalTime outTime = dailyLogs.get(dailyLogs.size() - 1).getTimestamp().toLocalTime();
-
-                    LocalTime lateThreshold = schedule.getStartTime().plusMinutes(schedule.getLateToleranceMinutes());
-                    LocalTime earlyThreshold = schedule.getEndTime()
-                            .minusMinutes(schedule.getEarlyLeaveToleranceMinutes());
+                    status = "ABSENT";
+                    absent++;
+                }
+            } else {
+                // Worked (including weekend/holiday attendance)
+                status = "PRESENT";
+                present++;
 
-                    if (inTime.isAfter(lateThreshold)) {
-                        status = "LATE"; // Simplified for grid
-                        late++;
-                    }
-                    if (outTime.isBefore(earlyThreshold)) {
-                        if (status.equals("LATE"))
-                            status = "LATE_EARLY";
-                        else
-                            status = "EARLY";
-                        early++;
-                    }
+                if (fact.isLate()) {
+                    status = "LATE"; // Simplified for grid
+                    late++;
+                }
+                if (fact.isEarlyLeave()) {
+                    if (status.equals("LATE"))
+                        status = "LATE_EARLY";
+                    else
+                        status = "EARLY";
+                    early++;
                 }
-                dto.getDailyStatus().put(date, status);
             }
-            dto.setPresentCount(present);
-            dto.setAbsentCount(absent);
-            dto.setLateCount(late);
-            dto.setEarlyLeaveCount(early);
-            dto.setLeaveCount(leave);
-            report.add(dto);
+            dto.getDailyStatus().put(date, status);
         }
-        return new PageImpl<>(report, pageable, allFilteredEmployees.size());
+        dto.setPresentCount(present);
+        dto.setAbsentCount(absent);
+        dto.setLateCount(late);
+        dto.setEarlyLeaveCount(early);
+        dto.setLeaveCount(leave);
+        return dto;
     }
 
     public root.cyb.mh.attendancesystem.dto.EmployeeWeeklyDetailDto getEmployeeWeeklyReport(String employeeId,
@@ -370,65 +316,45 @@ public class ReportService {
 
         List<LocalDate> weekDates = startOfWeek.datesUntil(endOfWeek.plusDays(1)).collect(Collectors.toList());
 
-        // Configs
-        WorkSchedule globalSchedule = workScheduleRepository.findAll().stream().findFirst().orElse(new WorkSchedule());
-        List<root.cyb.mh.attendancesystem.model.PublicHoliday> holidays = publicHolidayRepository.findAll();
-        List<AttendanceLog> allLogs = attendanceLogRepository.findByTimestampBetween(
-                startOfWeek.atStartOfDay(), endOfWeek.atTime(LocalTime.MAX));
-
-        List<root.cyb.mh.attendancesystem.model.LeaveRequest> allLeaves = leaveRequestRepository
-                .findByStatusOrderByCreatedAtDesc(root.cyb.mh.attendancesystem.model.LeaveRequest.Status.APPROVED);
+        Map<LocalDate, DailyAttendanceFact> facts = dailyAttendanceMaterializer.getFacts(emp, startOfWeek, endOfWeek);
 
         List<root.cyb.mh.attendancesystem.dto.EmployeeWeeklyDetailDto.DailyDetail> details = new ArrayList<>();
         int present = 0, absent = 0, late = 0, early = 0, leaves = 0;
 
         for (LocalDate date : weekDates) {
-            WorkSchedule schedule = resolveSchedule(emp.getId(), date, globalSchedule);
+            DailyAttendanceFact fact = facts.get(date);
             root.cyb.mh.attendancesystem.dto.EmployeeWeeklyDetailDto.DailyDetail daily = new root.cyb.mh.attendancesystem.dto.EmployeeWeeklyDetailDto.DailyDetail();
             daily.setDate(date);
             daily.setDayOfWeek(date.getDayOfWeek().name());
 
-            // Check keys
-            boolean isWeekend = schedule.getWeekendDays() != null
-                    && schedule.getWeekendDays().contains(String.valueOf(date.getDayOfWeek().getValue()));
-            boolean isPublicHoliday = holidays.stream().anyMatch(h -> h.getDate().equals(date));
-
-            // Logs
-            List<AttendanceLog> dailyLogs = allLogs.stream()
-                    .filter(l -> l.getEmployeeId().equals(emp.getId())
-                            && l.getTimestamp().toLocalDate().equals(date))
-                    .sorted(Comparator.comparing(AttendanceLog::getTimestamp))
-                    .collect(Collectors.toList());
-
             String status = "";
             String color = "";
 
-            if (emp.getJoiningDate() != null && date.isBefore(emp.getJoiningDate())) {
+            if (fact.isNotJoined()) {
                 daily.setStatus("NOT JOINED");
                 daily.setStatusColor("secondary");
                 details.add(daily);
                 continue;
             }
 
-            if (isWeekend || isPublicHoliday) {
+            if (fact.isWeekend() || fact.isHoliday()) {
                 status = "WEEKEND";
                 color = "secondary";
-                if (isPublicHoliday)
+                if (fact.isHoliday())
                     status = "HOLIDAY";
 
-                if (!dailyLogs.isEmpty()) {
+                if (fact.isPresent()) {
                     status = "PRESENT (" + status + ")";
                     color = "success";
                     present++;
 
                     // Calc timings
-                    processTimings(daily, dailyLogs, schedule);
+                    processTimings(daily, fact);
                     // Check late/early but don't strictly flag as 'LATE' stats if it's a holiday,
                     // unless we want to track overtime strictness. Let's just show times.
                 }
-            } else if (dailyLogs.isEmpty()) {
-                boolean onLeave = isEmployeeOnLeave(emp.getId(), date, allLeaves);
-                if (onLeave) {
+            } else if (!fact.isPresent()) {
+                if (fact.isOnLeave()) {
                     status = "LEAVE";
                     color = "info";
                     leaves++;
@@ -442,7 +368,7 @@ public class ReportService {
                 color = "success";
                 present++;
 
-                processTimings(daily, dailyLogs, schedule);
+                processTimings(daily, fact);
 
                 if (daily.getLateDurationMinutes() > 0) {
                     late++;
@@ -483,27 +409,12 @@ public class ReportService {
     }
 
     private void processTimings(root.cyb.mh.attendancesystem.dto.EmployeeWeeklyDetailDto.DailyDetail daily,
-            List<AttendanceLog> logs, WorkSchedule schedule) {
-        LocalTime inTime = logs.get(0).getTimestamp().toLocalTime();
-        LocalTime outTime = logs.get(logs.size() - 1).getTimestamp().toLocalTime();
-
-        daily.setInTime(inTime);
-        daily.setOutTime(outTime);
-
-        // Thresholds
-        LocalTime lateThreshold = schedule.getStartTime().plusMinutes(schedule.getLateToleranceMinutes());
-        LocalTime earlyThreshold = schedule.getEndTime().minusMinutes(schedule.getEarlyLeaveToleranceMinutes());
-
-        if (inTime.isAfter(lateThreshold)) {
-            java.time.Duration diff = java.time.Duration.between(schedule.getStartTime(), inTime);
-            // We count lateness from the Start Time, not the threshold
-            daily.setLateDurationMinutes(diff.toMinutes());
-        }
-
-        if (outTime.isBefore(earlyThreshold)) {
-            java.time.Duration diff = java.time.Duration.between(outTime, schedule.getEndTime());
-            daily.setEarlyLeaveDurationMinutes(diff.toMinutes());
-        }
+            DailyAttendanceFact fact) {
+        daily.setInTime(fact.getFirstIn());
+        daily.setOutTime(fact.getLastOut());
+        // Minutes are measured from the shift start / to the shift end, 0 when within tolerance
+        daily.setLateDurationMinutes(fact.getLateMinutes());
+        daily.setEarlyLeaveDurationMinutes(fact.getEarlyLeaveMinutes());
     }
 
     public Page<root.cyb.mh.attendancesystem.dto.MonthlySummaryDto> getMonthlyReport(int year, List<Integer> months,
@@ -518,13 +429,6 @@ public class ReportService {
             months.add(LocalDate.now().getMonthValue());
         }
 
-        // Configs (Fetch once)
-        WorkSchedule globalSchedule = workScheduleRepository.findAll().stream().findFirst().orElse(new WorkSchedule());
-        List<root.cyb.mh.attendancesystem.model.PublicHoliday> holidays = publicHolidayRepository.findAll();
-        int defaultQuota = globalSchedule.getDefaultAnnualLeaveQuota() != null
-                ? globalSchedule.getDefaultAnnualLeaveQuota()
-                : 12;
-
         // Filter Employees (Fetch once)
         List<Employee> allFilteredEmployees;
         if (departmentIds != null && !departmentIds.isEmpty()) {
@@ -535,93 +439,9 @@ public class ReportService {
             allFilteredEmployees = employeeRepository.findAll();
         }
 
-        List<root.cyb.mh.attendancesystem.model.LeaveRequest> allLeaves = leaveRequestRepository
-                .findByStatusOrderByCreatedAtDesc(root.cyb.mh.attendancesystem.model.LeaveRequest.Status.APPROVED);
-
-        // Iterate Months
+        // Iterate Months: stored per-employee rollups, built once per month
         for (Integer month : months) {
-            LocalDate startOfMonth = LocalDate.of(year, month, 1);
-            LocalDate endOfMonth = startOfMonth.withDayOfMonth(startOfMonth.lengthOfMonth());
-            List<LocalDate> monthDates = startOfMonth.datesUntil(endOfMonth.plusDays(1)).collect(Collectors.toList());
-
-            // Fetch Logs for THIS month
-            List<AttendanceLog> monthLogs = attendanceLogRepository.findByTimestampBetween(
-                    startOfMonth.atStartOfDay(), endOfMonth.atTime(LocalTime.MAX));
-
-            for (Employee emp : allFilteredEmployees) {
-                root.cyb.mh.attendancesystem.dto.MonthlySummaryDto dto = new root.cyb.mh.attendancesystem.dto.MonthlySummaryDto();
-                dto.setEmployeeId(emp.getId());
-                dto.setEmployeeName(emp.getName());
-                dto.setDepartmentName(emp.getDepartment() != null ? emp.getDepartment().getName() : "Unassigned");
-                dto.setMonth(month); // Set Month
-                dto.setYear(year); // Set Year
-
-                int present = 0, absent = 0, late = 0, early = 0, leave = 0;
-                int paidLeave = 0, unpaidLeave = 0;
-
-                // Quota Calc for this month context
-                int effectiveQuota = emp.getEffectiveQuota(defaultQuota);
-                int leavesTakenBefore = countYearlyLeavesBeforeMonth(emp.getId(), year, month, allLeaves);
-                int remainingQuota = Math.max(0, effectiveQuota - leavesTakenBefore);
-
-                for (LocalDate date : monthDates) {
-                    WorkSchedule schedule = resolveSchedule(emp.getId(), date, globalSchedule);
-                    boolean onLeave = isEmployeeOnLeave(emp.getId(), date, allLeaves);
-
-                    if (onLeave) {
-                        leave++;
-                        if (remainingQuota > 0) {
-                            paidLeave++;
-                            remainingQuota--;
-                        } else {
-                            unpaidLeave++;
-                        }
-                        continue;
-                    }
-
-                    boolean isWeekend = schedule.getWeekendDays() != null
-                            && schedule.getWeekendDays().contains(String.valueOf(date.getDayOfWeek().getValue()));
-                    boolean isPublicHoliday = holidays.stream().anyMatch(h -> h.getDate().equals(date));
-
-                    List<AttendanceLog> dailyLogs = monthLogs.stream()
-                            .filter(l -> l.getEmployeeId().equals(emp.getId())
-                                    && l.getTimestamp().toLocalDate().equals(date))
-                            .collect(Collectors.toList());
-
-                    if (emp.getJoiningDate() != null && date.isBefore(emp.getJoiningDate())) {
-                        // Skip checking attendance for days before joining
-                        continue;
-                    }
-
-                    if (!dailyLogs.isEmpty()) {
-                        present++;
-                        if (!isWeekend && !isPublicHoliday) {
-                            LocalTime inTime = dailyLogs.get(0).getTimestamp().toLocalTime();
-                            LocalTime outTime = dailyLogs.get(dailyLogs.size() - 1).getTimestamp().toLocalTime();
-                            LocalTime lateThreshold = schedule.getStartTime()
-                                    .plusMinutes(schedule.getLateToleranceMinutes());
-                            LocalTime earlyThreshold = schedule.getEndTime()
-                                    .minusMinutes(schedule.getEarlyLeaveToleranceMinutes());
-
-                            if (inTime.isAfter(lateThreshold))
-                                late++;
-                            if (outTime.isBefore(earlyThreshold))
-                                early++;
-                        }
-                    } else {
-                        if (!isWeekend && !isPublicHoliday)
-                            absent++;
-                    }
-                }
-                dto.setPresentCount(present);
-                dto.setAbsentCount(absent);
-                dto.setLateCount(late);
-                dto.setEarlyLeaveCount(early);
-                dto.setLeaveCount(leave);
-                dto.setPaidLeaveCount(paidLeave);
-                dto.setUnpaidLeaveCount(unpaidLeave);
-                fullReport.add(dto);
-            }
+            fullReport.addAll(monthlyRollupService.getSummaries(allFilteredEmployees, year, month));
         }
 
         // Pagination on the aggregated list
@@ -635,38 +455,62 @@ public class ReportService {
         return new PageImpl<>(pagedContent, pageable, fullReport.size());
     }
 
+    /**
+     * Monthly summaries for an explicit set of employees (e.g. a supervisor's
+     * team), one per employee per month in [from, to]. Only those employees'
+     * rollups and facts are read, so the cost follows the size of the set.
+     */
+    public List<root.cyb.mh.attendancesystem.dto.MonthlySummaryDto> getMonthlySummaries(
+            Collection<String> employeeIds, YearMonth from, YearMonth to) {
+        List<root.cyb.mh.attendancesystem.dto.MonthlySummaryDto> report = new ArrayList<>();
+        if (employeeIds.isEmpty())
+            return report;
+        List<Employee> employees = employeeRepository.findAllById(employeeIds);
+        employees.sort(java.util.Comparator.comparing(Employee::getId));
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            report.addAll(monthlyRollupService.getSummaries(employees, month.getYear(), month.getMonthValue()));
+        }
+        return report;
+    }
+
     public root.cyb.mh.attendancesystem.dto.EmployeeMonthlyDetailDto getEmployeeMonthlyReport(String employeeId,
             int year, int month) {
-        root.cyb.mh.attendancesystem.dto.EmployeeMonthlyDetailDto dto = new root.cyb.mh.attendancesystem.dto.EmployeeMonthlyDetailDto();
-
         // Find Employee
         Employee emp = employeeRepository.findById(employeeId).orElse(null);
         if (emp == null)
             return null;
 
-        dto.setEmployeeName(emp.getName());
-        dto.setEmployeeId(emp.getId());
-        dto.setDepartmentName(emp.getDepartment() != null ? emp.getDepartment().getName() : "Unassigned");
-        dto.setYear(year);
-        dto.setMonth(month);
-
         LocalDate startOfMonth = LocalDate.of(year, month, 1);
         LocalDate endOfMonth = startOfMonth.withDayOfMonth(startOfMonth.lengthOfMonth());
 
-        List<LocalDate> monthDates = startOfMonth.datesUntil(endOfMonth.plusDays(1)).collect(Collectors.toList());
-
         // Configs
         WorkSchedule globalSchedule = workScheduleRepository.findAll().stream().findFirst().orElse(new WorkSchedule());
-        List<root.cyb.mh.attendancesystem.model.PublicHoliday> holidays = publicHolidayRepository.findAll();
         int defaultQuota = globalSchedule.getDefaultAnnualLeaveQuota() != null
                 ? globalSchedule.getDefaultAnnualLeaveQuota()
                 : 12;
 
-        List<AttendanceLog> allLogs = attendanceLogRepository.findByTimestampBetween(
-                startOfMonth.atStartOfDay(), endOfMonth.atTime(LocalTime.MAX));
+        Map<LocalDate, DailyAttendanceFact> facts = dailyAttendanceMaterializer.getFacts(emp, startOfMonth, endOfMonth);
+
+        LeaveIndex leaveIndex = LeaveIndex.of(leaveRequestRepository.findIntervalsForEmployee(emp.getId(),
+                root.cyb.mh.attendancesystem.model.LeaveRequest.Status.APPROVED, LocalDate.of(year, 1, 1),
+                endOfMonth));
+
+        return employeeMonth(emp, year, month, facts, leaveIndex, defaultQuota);
+    }
+
+    // One employee's month in detail; reads only its arguments. facts must cover the month.
+    private root.cyb.mh.attendancesystem.dto.EmployeeMonthlyDetailDto employeeMonth(Employee emp, int year,
+            int month, Map<LocalDate, DailyAttendanceFact> facts, LeaveIndex leaveIndex, int defaultQuota) {
+        root.cyb.mh.attendancesystem.dto.EmployeeMonthlyDetailDto dto = new root.cyb.mh.attendancesystem.dto.EmployeeMonthlyDetailDto();
+        dto.setEmployeeName(emp.getName());
+        dto.setEmployeeId(emp.getId());
+        dto.setDepartmentName(emp.getDepartment() != null ? emp.getDepartment().getName() : "Unassigned");
+        dto.setYear(year);
+        dto.setMonth(month);
 
-        List<root.cyb.mh.attendancesystem.model.LeaveRequest> allLeaves = leaveRequestRepository
-                .findByStatusOrderByCreatedAtDesc(root.cyb.mh.attendancesystem.model.LeaveRequest.Status.APPROVED);
+        LocalDate startOfMonth = LocalDate.of(year, month, 1);
+        LocalDate endOfMonth = startOfMonth.withDayOfMonth(startOfMonth.lengthOfMonth());
+        List<LocalDate> monthDates = startOfMonth.datesUntil(endOfMonth.plusDays(1)).collect(Collectors.toList());
 
         List<root.cyb.mh.attendancesystem.dto.EmployeeWeeklyDetailDto.DailyDetail> details = new ArrayList<>();
         int present = 0, absent = 0, late = 0, early = 0, leaves = 0;
@@ -674,17 +518,17 @@ public class ReportService {
 
         // Calculate Remaining Quota
         int effectiveQuota = emp.getEffectiveQuota(defaultQuota);
-        int leavesTakenBefore = countYearlyLeavesBeforeMonth(emp.getId(), year, month, allLeaves);
+        int leavesTakenBefore = countYearlyLeavesBeforeMonth(emp.getId(), year, month, leaveIndex);
         int remainingQuota = Math.max(0, effectiveQuota - leavesTakenBefore);
 
         for (LocalDate date : monthDates) {
-            WorkSchedule schedule = resolveSchedule(emp.getId(), date, globalSchedule);
+            DailyAttendanceFact fact = facts.get(date);
 
             root.cyb.mh.attendancesystem.dto.EmployeeWeeklyDetailDto.DailyDetail daily = new root.cyb.mh.attendancesystem.dto.EmployeeWeeklyDetailDto.DailyDetail();
             daily.setDate(date);
             daily.setDayOfWeek(date.getDayOfWeek().name());
 
-            if (emp.getJoiningDate() != null && date.isBefore(emp.getJoiningDate())) {
+            if (fact.isNotJoined()) {
                 daily.setStatus("NOT JOINED");
                 daily.setStatusColor("secondary");
                 details.add(daily);
@@ -692,8 +536,7 @@ public class ReportService {
             }
 
             // Priority 1: Check Leave FIRST overrides everything
-            boolean onLeave = isEmployeeOnLeave(emp.getId(), date, allLeaves);
-            if (onLeave) {
+            if (fact.isOnLeave()) {
                 leaves++;
                 String leaveType = remainingQuota > 0 ? "PAID LEAVE" : "UNPAID LEAVE";
                 if (remainingQuota > 0) {
@@ -709,28 +552,19 @@ public class ReportService {
                 continue; // Skip further processing for this day
             }
 
-            // Check keys
-            boolean isWeekend = schedule.getWeekendDays() != null
-                    && schedule.getWeekendDays().contains(String.valueOf(date.getDayOfWeek().getValue()));
-            boolean isPublicHoliday = holidays.stream().anyMatch(h -> h.getDate().equals(date));
-
-            // Logs
-            List<AttendanceLog> dailyLogs = allLogs.stream()
-                    .filter(l -> l.getEmployeeId().equals(emp.getId())
-                            && l.getTimestamp().toLocalDate().equals(date))
-                    .sorted(Comparator.comparing(AttendanceLog::getTimestamp))
-                    .collect(Collectors.toList());
+            boolean isWeekend = fact.isWeekend();
+            boolean isPublicHoliday = fact.isHoliday();
 
             String status = "";
             String color = "";
 
-            if (!dailyLogs.isEmpty()) {
+            if (fact.isPresent()) {
                 // Priority 2: PRESENT
                 present++;
                 status = "PRESENT";
                 color = "success";
 
-                processTimings(daily, dailyLogs, schedule); // calculates late/early minutes
+                processTimings(daily, fact); // late/early minutes
 
                 if (isWeekend || isPublicHoliday) {
                     status = "PRESENT (" + (isPublicHoliday ? "HOLIDAY" : "WEEKEND") + ")";
@@ -788,62 +622,17 @@ public class ReportService {
         return dto;
     }
 
-    public int countYearlyLeavesBeforeMonth(String employeeId, int year, int month,
-            List<root.cyb.mh.attendancesystem.model.LeaveRequest> allLeaves) {
-        LocalDate startOfYear = LocalDate.of(year, 1, 1);
-        LocalDate startOfMonth = LocalDate.of(year, month, 1);
-
-        return (int) allLeaves.stream()
-                .filter(l -> l.getEmployee().getId().equals(employeeId))
-                .filter(l -> !l.getStartDate().isBefore(startOfYear) && l.getStartDate().isBefore(startOfMonth))
-                .mapToLong(l -> java.time.temporal.ChronoUnit.DAYS.between(l.getStartDate(), l.getEndDate()) + 1)
-                .sum();
+    public int countYearlyLeavesBeforeMonth(String employeeId, int year, int month, LeaveIndex leaves) {
+        return leaves.daysBeforeMonth(employeeId, year, month);
     }
 
     // Helper to calculate Working Days (Total - Weekends - Holidays)
     public int calculateWorkingDays(LocalDate start, LocalDate end) {
-        // 1. Get Global Schedule (Weekend Config)
-        root.cyb.mh.attendancesystem.model.WorkSchedule schedule = workScheduleRepository.findAll().stream().findFirst()
-                .orElse(null);
-        List<String> weekendDays = new ArrayList<>();
-        if (schedule != null && schedule.getWeekendDays() != null && !schedule.getWeekendDays().isEmpty()) {
-            String[] days = schedule.getWeekendDays().split(",");
-            for (String d : days) {
-                weekendDays.add(d.trim());
-            }
-        } else {
-            weekendDays.add("6"); // Default Sat
-            weekendDays.add("7"); // Default Sun
-        }
-
-        // 2. Get Holidays in Range
-        List<root.cyb.mh.attendancesystem.model.PublicHoliday> holidays = publicHolidayRepository.findAll();
-
-        int workingDays = 0;
-        LocalDate current = start;
-        while (!current.isAfter(end)) {
-            // Check Weekend
-            String dayOfWeek = String.valueOf(current.getDayOfWeek().getValue()); // 1=Mon, 7=Sun
-            boolean isWeekend = weekendDays.contains(dayOfWeek);
-
-            // Check Holiday (Single Date Check)
-            LocalDate finalCurrent = current;
-            boolean isHoliday = holidays.stream()
-                    .anyMatch(h -> h.getDate() != null && h.getDate().equals(finalCurrent));
-
-            if (!isWeekend && !isHoliday) {
-                workingDays++;
-            }
-            current = current.plusDays(1);
-        }
-        return workingDays;
+        return workCalendar.countWorkingDays(start, end);
     }
 
-    public boolean isEmployeeOnLeave(String employeeId, LocalDate date,
-            List<root.cyb.mh.attendancesystem.model.LeaveRequest> allLeaves) {
-        return allLeaves.stream()
-                .anyMatch(l -> l.getEmployee().getId().equals(employeeId) &&
-                        !date.isBefore(l.getStartDate()) && !date.isAfter(l.getEndDate()));
+    public boolean isEmployeeOnLeave(String employeeId, LocalDate date, LeaveIndex leaves) {
+        return leaves.isOnLeave(employeeId, date);
     }
 
     public root.cyb.mh.attendancesystem.dto.EmployeeRangeReportDto getEmployeeRangeReport(
@@ -862,48 +651,86 @@ public class ReportService {
         }
 
         List<root.cyb.mh.attendancesystem.dto.EmployeeMonthlyDetailDto> monthlyReports = new ArrayList<>();
+        if (emp == null) {
+            rangeDto.setMonthlyReports(monthlyReports);
+            return rangeDto;
+        }
 
-        LocalDate current = startDate.withDayOfMonth(1);
-        LocalDate endLoop = endDate.withDayOfMonth(1); // Compare months
-
-        while (!current.isAfter(endLoop)) {
-            int y = current.getYear();
-            int m = current.getMonthValue();
-
-            root.cyb.mh.attendancesystem.dto.EmployeeMonthlyDetailDto monthDto = getEmployeeMonthlyReport(employeeId, y,
-                    m);
-            if (monthDto != null) {
-                monthlyReports.add(monthDto);
-
-                // Aggregate Stats
-                rangeDto.setTotalPresent(rangeDto.getTotalPresent() + monthDto.getTotalPresent());
-                rangeDto.setTotalAbsent(rangeDto.getTotalAbsent() + monthDto.getTotalAbsent());
-                rangeDto.setTotalLates(rangeDto.getTotalLates() + monthDto.getTotalLates());
-                rangeDto.setTotalEarlyLeaves(rangeDto.getTotalEarlyLeaves() + monthDto.getTotalEarlyLeaves());
-                rangeDto.setTotalLeaves(rangeDto.getTotalLeaves() + monthDto.getTotalLeaves());
-                rangeDto.setTotalPaidLeaves(rangeDto.getTotalPaidLeaves() + monthDto.getPaidLeavesCount());
-                rangeDto.setTotalUnpaidLeaves(rangeDto.getTotalUnpaidLeaves() + monthDto.getUnpaidLeavesCount());
-            }
+        List<YearMonth> months = new ArrayList<>();
+        for (YearMonth ym = YearMonth.from(startDate); !ym.isAfter(YearMonth.from(endDate)); ym = ym.plusMonths(1)) {
+            months.add(ym);
+        }
+        if (months.isEmpty()) {
+            rangeDto.setMonthlyReports(monthlyReports);
+            return rangeDto;
+        }
 
-            current = current.plusMonths(1);
+        // Shared inputs for every month, fetched once
+        LocalDate from = months.get(0).atDay(1);
+        LocalDate to = months.get(months.size() - 1).atEndOfMonth();
+        WorkSchedule globalSchedule = workScheduleRepository.findAll().stream().findFirst().orElse(new WorkSchedule());
+        int defaultQuota = globalSchedule.getDefaultAnnualLeaveQuota() != null
+                ? globalSchedule.getDefaultAnnualLeaveQuota()
+                : 12;
+        Map<LocalDate, DailyAttendanceFact> facts = dailyAttendanceMaterializer.getFacts(emp, from, to);
+        LeaveIndex leaveIndex = LeaveIndex.of(leaveRequestRepository.findIntervalsForEmployee(emp.getId(),
+                root.cyb.mh.attendancesystem.model.LeaveRequest.Status.APPROVED, from.withDayOfYear(1), to));
+
+        monthlyReports = inParallel(months,
+                ym -> employeeMonth(emp, ym.getYear(), ym.getMonthValue(), facts, leaveIndex, defaultQuota));
+
+        // Aggregate Stats
+        for (root.cyb.mh.attendancesystem.dto.EmployeeMonthlyDetailDto monthDto : monthlyReports) {
+            rangeDto.setTotalPresent(rangeDto.getTotalPresent() + monthDto.getTotalPresent());
+            rangeDto.setTotalAbsent(rangeDto.getTotalAbsent() + monthDto.getTotalAbsent());
+            rangeDto.setTotalLates(rangeDto.getTotalLates() + monthDto.getTotalLates());
+            rangeDto.setTotalEarlyLeaves(rangeDto.getTotalEarlyLeaves() + monthDto.getTotalEarlyLeaves());
+            rangeDto.setTotalLeaves(rangeDto.getTotalLeaves() + monthDto.getTotalLeaves());
+            rangeDto.setTotalPaidLeaves(rangeDto.getTotalPaidLeaves() + monthDto.getPaidLeavesCount());
+            rangeDto.setTotalUnpaidLeaves(rangeDto.getTotalUnpaidLeaves() + monthDto.getUnpaidLeavesCount());
         }
 
         rangeDto.setMonthlyReports(monthlyReports);
         return rangeDto;
     }
 
-    public WorkSchedule resolveSchedule(String employeeId, LocalDate date, WorkSchedule globalDefault) {
-        root.cyb.mh.attendancesystem.model.Shift specificShift = shiftService.getShiftForDate(employeeId, date);
-        if (specificShift == null) {
-            return globalDefault;
+    /**
+     * Applies fn to every item and returns the results in input order. Runs on
+     * the report pool in contiguous chunks when parallel mode is on; fn must
+     * only read its argument and shared inputs that are not modified meanwhile.
+     */
+    private <T, R> List<R> inParallel(List<T> items, Function<T, R> fn) {
+        int threads = reportPool != null ? reportPool.getParallelism() : 1;
+        if (threads <= 1 || items.size() <= 1) {
+            List<R> results = new ArrayList<>(items.size());
+            for (T item : items) {
+                results.add(fn.apply(item));
+            }
+            return results;
+        }
+
+        // A few chunks per thread so uneven rows still balance out
+        int chunkSize = Math.max(1, (items.size() + threads * 4 - 1) / (threads * 4));
+        List<CompletableFuture<List<R>>> chunks = new ArrayList<>();
+        for (int from = 0; from < items.size(); from += chunkSize) {
+            List<T> chunk = items.subList(from, Math.min(items.size(), from + chunkSize));
+            chunks.add(CompletableFuture.supplyAsync(() -> {
+                List<R> part = new ArrayList<>(chunk.size());
+                for (T item : chunk) {
+                    part.add(fn.apply(item));
+                }
+                return part;
+            }, reportPool));
+        }
+
+        List<R> results = new ArrayList<>(items.size());
+        for (CompletableFuture<List<R>> chunk : chunks) {
+            results.addAll(chunk.join());
         }
-        WorkSchedule effective = new WorkSchedule();
-        effective.setStartTime(specificShift.getStartTime());
-        effective.setEndTime(specificShift.getEndTime());
-        effective.setLateToleranceMinutes(specificShift.getLateToleranceMinutes());
-        effective.setEarlyLeaveToleranceMinutes(specificShift.getEarlyLeaveToleranceMinutes());
-        effective.setWeekendDays(globalDefault.getWeekendDays());
-        effective.setDefaultAnnualLeaveQuota(globalDefault.getDefaultAnnualLeaveQuota());
-        return effective;
+        return results;
+    }
+
+    public WorkSchedule resolveSchedule(String employeeId, LocalDate date, WorkSchedule globalDefault) {
+        return shiftService.resolveSchedule(employeeId, date, globalDefault);
     }
 }
@@ -0,0 +1,118 @@
+package root.cyb.mh.attendancesystem.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import root.cyb.mh.attendancesystem.model.Shift;
+import root.cyb.mh.attendancesystem.model.WorkSchedule;
+import root.cyb.mh.attendancesystem.repository.EmployeeShiftRepository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * In-memory index of shift assignments (EmployeeShift), so finding the shift
+ * for an (employee, date) pair costs a TreeMap lookup instead of a query.
+ *
+ * All assignments are loaded with one query on first use. Per employee they
+ * are flattened into non-overlapping [start, end] segments keyed by start
+ * date; where assignments overlap, the one starting later wins. The index is
+ * dropped by {@link #invalidate()} whenever shifts or assignments change.
+ */
+@Component
+public class ScheduleResolver {
+
+    @Autowired
+    private EmployeeShiftRepository employeeShiftRepository;
+
+    private final CachedSnapshot<Map<String, TreeMap<LocalDate, Segment>>> index = new CachedSnapshot<>(this::load);
+
+    /**
+     * The shift assigned to the employee on the date, or null when the global
+     * schedule applies.
+     */
+    public Shift getShift(String employeeId, LocalDate date) {
+        TreeMap<LocalDate, Segment> segments = index.get().get(employeeId);
+        if (segments == null)
+            return null;
+        Map.Entry<LocalDate, Segment> entry = segments.floorEntry(date);
+        if (entry == null || entry.getValue().end.isBefore(date))
+            return null;
+        return entry.getValue().shift;
+    }
+
+    /**
+     * The schedule in force for an employee on a date: the assigned shift's
+     * times with the global weekend and leave settings, or the global schedule.
+     */
+    public WorkSchedule resolveSchedule(String employeeId, LocalDate date, WorkSchedule globalDefault) {
+        Shift specificShift = getShift(employeeId, date);
+        if (specificShift == null) {
+            return globalDefault;
+        }
+        WorkSchedule effective = new WorkSchedule();
+        effective.setStartTime(specificShift.getStartTime());
+        effective.setEndTime(specificShift.getEndTime());
+        effective.setLateToleranceMinutes(specificShift.getLateToleranceMinutes());
+        effective.setEarlyLeaveToleranceMinutes(specificShift.getEarlyLeaveToleranceMinutes());
+        effective.setWeekendDays(globalDefault.getWeekendDays());
+        effective.setDefaultAnnualLeaveQuota(globalDefault.getDefaultAnnualLeaveQuota());
+        return effective;
+    }
+
+    public void invalidate() {
+        index.invalidate();
+    }
+
+    private Map<String, TreeMap<LocalDate, Segment>> load() {
+        Map<String, TreeMap<LocalDate, Segment>> loaded = new HashMap<>();
+        for (Object[] row : employeeShiftRepository.findAllIntervals()) {
+            String employeeId = (String) row[0];
+            LocalDate start = (LocalDate) row[1];
+            LocalDate end = (LocalDate) row[2];
+            if (employeeId == null || end.isBefore(start))
+                continue;
+            paint(loaded.computeIfAbsent(employeeId, k -> new TreeMap<>()), start, end, (Shift) row[3]);
+        }
+        return loaded;
+    }
+
+    // Writes [start, end] over whatever segments it overlaps, keeping the
+    // parts of those segments that fall outside it
+    private static void paint(TreeMap<LocalDate, Segment> segments, LocalDate start, LocalDate end, Shift shift) {
+        List<Map.Entry<LocalDate, Segment>> pieces = new ArrayList<>();
+
+        Map.Entry<LocalDate, Segment> before = segments.lowerEntry(start);
+        if (before != null && !before.getValue().end.isBefore(start)) {
+            Segment seg = before.getValue();
+            if (seg.end.isAfter(end))
+                pieces.add(Map.entry(end.plusDays(1), new Segment(seg.end, seg.shift)));
+            segments.put(before.getKey(), new Segment(start.minusDays(1), seg.shift));
+        }
+
+        Map<LocalDate, Segment> covered = segments.subMap(start, true, end, true);
+        for (Segment seg : covered.values()) {
+            if (seg.end.isAfter(end))
+                pieces.add(Map.entry(end.plusDays(1), new Segment(seg.end, seg.shift)));
+        }
+        covered.clear();
+
+        segments.put(start, new Segment(end, shift));
+        for (Map.Entry<LocalDate, Segment> piece : pieces) {
+            segments.put(piece.getKey(), piece.getValue());
+        }
+    }
+
+    private static final class Segment {
+        final LocalDate end;
+        final Shift shift;
+
+        Segment(LocalDate end, Shift shift) {
+            this.end = end;
+            this.shift = shift;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package root.cyb.mh.attendancesystem.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import root.cyb.mh.attendancesystem.model.PublicHoliday;
+import root.cyb.mh.attendancesystem.model.WorkSchedule;
+import root.cyb.mh.attendancesystem.repository.PublicHolidayRepository;
+import root.cyb.mh.attendancesystem.repository.WorkScheduleRepository;
+
+import java.time.LocalDate;
+
+/**
+ * Writes to the global work schedule and the public holidays, and drops
+ * everything derived from them: the WorkCalendar, the day facts and the
+ * today board.
+ */
+@Service
+public class SettingsService {
+
+    @Autowired
+    private WorkScheduleRepository workScheduleRepository;
+
+    @Autowired
+    private PublicHolidayRepository publicHolidayRepository;
+
+    @Autowired
+    private WorkCalendar workCalendar;
+
+    @Autowired
+    private DailyAttendanceMaterializer dailyAttendanceMaterializer;
+
+    @Autowired
+    private TodayStatusBoard todayStatusBoard;
+
+    public WorkSchedule saveSchedule(WorkSchedule schedule) {
+        WorkSchedule saved = workScheduleRepository.save(schedule);
+        workCalendar.invalidate();
+        dailyAttendanceMaterializer.invalidateAll();
+        todayStatusBoard.reload();
+        return saved;
+    }
+
+    public PublicHoliday addHoliday(String name, LocalDate date) {
+        PublicHoliday holiday = new PublicHoliday();
+        holiday.setName(name);
+        holiday.setDate(date);
+        PublicHoliday saved = publicHolidayRepository.save(holiday);
+        holidayChanged(date);
+        return saved;
+    }
+
+    public void deleteHoliday(Long id) {
+        publicHolidayRepository.findById(id).ifPresent(holiday -> {
+            publicHolidayRepository.delete(holiday);
+            holidayChanged(holiday.getDate());
+        });
+    }
+
+    private void holidayChanged(LocalDate date) {
+        workCalendar.invalidate();
+        if (date != null) {
+            dailyAttendanceMaterializer.invalidateDate(date);
+            if (date.equals(LocalDate.now()))
+                todayStatusBoard.reload();
+        }
+    }
+}
@@ -5,13 +5,13 @@ import org.springframework.stereotype.Service;
 import root.cyb.mh.attendancesystem.model.Employee;
 import root.cyb.mh.attendancesystem.model.EmployeeShift;
 import root.cyb.mh.attendancesystem.model.Shift;
+import root.cyb.mh.attendancesystem.model.WorkSchedule;
 import root.cyb.mh.attendancesystem.repository.EmployeeRepository;
 import root.cyb.mh.attendancesystem.repository.EmployeeShiftRepository;
 import root.cyb.mh.attendancesystem.repository.ShiftRepository;
 
 import java.time.LocalDate;
 import java.util.List;
-import java.util.Optional;
 
 @Service
 public class ShiftService {
@@ -25,16 +25,36 @@ public class ShiftService {
     @Autowired
     private EmployeeRepository employeeRepository;
 
+    @Autowired
+    private ScheduleResolver scheduleResolver;
+
+    @Autowired
+    private DailyAttendanceMaterializer dailyAttendanceMaterializer;
+
+    @Autowired
+    private TodayStatusBoard todayStatusBoard;
+
     public List<Shift> getAllShifts() {
         return shiftRepository.findAll();
     }
 
     public Shift createShift(Shift shift) {
-        return shiftRepository.save(shift);
+        boolean edit = shift.getId() != null;
+        Shift saved = shiftRepository.save(shift);
+        scheduleResolver.invalidate();
+        if (edit) {
+            // Timings changed for everyone on this shift
+            dailyAttendanceMaterializer.invalidateAll();
+            todayStatusBoard.reload();
+        }
+        return saved;
     }
 
     public void deleteShift(Long id) {
         shiftRepository.deleteById(id);
+        scheduleResolver.invalidate();
+        dailyAttendanceMaterializer.invalidateAll();
+        todayStatusBoard.reload();
     }
 
     public EmployeeShift assignShift(String employeeId, Long shiftId, LocalDate startDate, LocalDate endDate) {
@@ -54,7 +74,11 @@ public class ShiftService {
         assignment.setStartDate(startDate);
         assignment.setEndDate(endDate);
 
-        return employeeShiftRepository.save(assignment);
+        EmployeeShift saved = employeeShiftRepository.save(assignment);
+        scheduleResolver.invalidate();
+        dailyAttendanceMaterializer.invalidate(employeeId, startDate, endDate);
+        todayStatusBoard.recompute(employeeId, startDate, endDate);
+        return saved;
     }
 
     public EmployeeShift getAssignment(Long id) {
@@ -72,14 +96,29 @@ public class ShiftService {
             throw new IllegalArgumentException("Start Date must be before End Date");
         }
 
+        LocalDate oldStart = assignment.getStartDate();
+        LocalDate oldEnd = assignment.getEndDate();
         assignment.setShift(shift);
         assignment.setStartDate(startDate);
         assignment.setEndDate(endDate);
         employeeShiftRepository.save(assignment);
+        scheduleResolver.invalidate();
+
+        String employeeId = assignment.getEmployee().getId();
+        dailyAttendanceMaterializer.invalidate(employeeId, oldStart, oldEnd);
+        dailyAttendanceMaterializer.invalidate(employeeId, startDate, endDate);
+        todayStatusBoard.recompute(employeeId);
     }
 
     public void deleteAssignment(Long assignmentId) {
+        EmployeeShift assignment = employeeShiftRepository.findById(assignmentId).orElse(null);
         employeeShiftRepository.deleteById(assignmentId);
+        scheduleResolver.invalidate();
+        if (assignment != null) {
+            String employeeId = assignment.getEmployee().getId();
+            dailyAttendanceMaterializer.invalidate(employeeId, assignment.getStartDate(), assignment.getEndDate());
+            todayStatusBoard.recompute(employeeId, assignment.getStartDate(), assignment.getEndDate());
+        }
     }
 
     public List<EmployeeShift> getAllAssignments() {
@@ -95,7 +134,13 @@ public class ShiftService {
      * Returns null if no specific shift is assigned (fallback to global schedule).
      */
     public Shift getShiftForDate(String employeeId, LocalDate date) {
-        Optional<EmployeeShift> assignment = employeeShiftRepository.findActiveShiftForEmployee(employeeId, date);
-        return assignment.map(EmployeeShift::getShift).orElse(null);
+        return scheduleResolver.getShift(employeeId, date);
+    }
+
+    /**
+     * See {@link ScheduleResolver#resolveSchedule}.
+     */
+    public WorkSchedule resolveSchedule(String employeeId, LocalDate date, WorkSchedule globalDefault) {
+        return scheduleResolver.resolveSchedule(employeeId, date, globalDefault);
     }
 }
@@ -0,0 +1,448 @@
+package root.cyb.mh.attendancesystem.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import root.cyb.mh.attendancesystem.dto.DailyAttendanceDto;
+import root.cyb.mh.attendancesystem.model.AttendanceLog;
+import root.cyb.mh.attendancesystem.model.DailyAttendanceFact;
+import root.cyb.mh.attendancesystem.model.Employee;
+import root.cyb.mh.attendancesystem.model.WorkSchedule;
+import root.cyb.mh.attendancesystem.repository.EmployeeRepository;
+import root.cyb.mh.attendancesystem.repository.WorkScheduleRepository;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.AbstractList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Today's attendance status for every employee, kept in memory.
+ *
+ * The board is loaded from the day facts at startup and at midnight, then
+ * follows the punches as AdmsService stores them (first in, last out, late
+ * and early flags). Leave, shift and employee changes recompute just the
+ * employees involved. Reads return the current snapshot without touching the
+ * database; its rows are shared and must be treated as read-only.
+ *
+ * A punch or recompute swaps just the affected rows into the snapshot, so a
+ * list returned earlier shows them as they change. Only a reload, a new day or
+ * an employee joining or leaving the board builds a new snapshot.
+ */
+@Component
+public class TodayStatusBoard {
+
+    private static final Logger log = LoggerFactory.getLogger(TodayStatusBoard.class);
+
+    @Autowired
+    private DailyAttendanceMaterializer dailyAttendanceMaterializer;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private WorkScheduleRepository workScheduleRepository;
+
+    @Autowired
+    private ScheduleResolver scheduleResolver;
+
+    // Guarded by this; ordered by employee id like the daily report
+    private final TreeMap<String, Entry> entries = new TreeMap<>();
+
+    // Punching ids with no employee record, so they are looked up once a day
+    private final Set<String> untracked = new HashSet<>();
+
+    private LocalDate day;
+
+    private volatile Snapshot snapshot = new Snapshot(null, List.of());
+
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    // Offered under this, in change order; delivered after the lock is released
+    private final Queue<Change> pending = new ConcurrentLinkedQueue<>();
+
+    private final ReentrantLock dispatchLock = new ReentrantLock();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedOnStartup() {
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            // The first read tries again
+            log.warn("Could not load today status board", e);
+        }
+    }
+
+    @Scheduled(cron = "0 0 0 * * *")
+    public void seedAtMidnight() {
+        reload();
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    // --- Reads ---
+
+    /**
+     * Today's rows for every non-guest employee, ordered by employee id.
+     */
+    public List<DailyAttendanceDto> snapshot() {
+        return current().staff;
+    }
+
+    /**
+     * Today's rows for the given employees (guests included), in the order
+     * given. Ids the board does not know are skipped.
+     */
+    public List<DailyAttendanceDto> snapshot(Collection<String> employeeIds) {
+        Map<String, DailyAttendanceDto> byId = current().byId;
+        List<DailyAttendanceDto> rows = new ArrayList<>(employeeIds.size());
+        for (String id : employeeIds) {
+            DailyAttendanceDto row = byId.get(id);
+            if (row != null)
+                rows.add(row);
+        }
+        return rows;
+    }
+
+    public DailyAttendanceDto get(String employeeId) {
+        return current().byId.get(employeeId);
+    }
+
+    private Snapshot current() {
+        Snapshot s = snapshot;
+        if (!LocalDate.now().equals(s.day)) {
+            // Midnight passed without the scheduled reload (or nothing loaded yet)
+            synchronized (this) {
+                rollOver();
+                s = snapshot;
+            }
+            dispatch();
+        }
+        return s;
+    }
+
+    // --- Updates ---
+
+    /**
+     * Applies newly stored punches. Punches for other days are ignored: their
+     * facts are rebuilt by the materializer.
+     */
+    public void punches(Collection<AttendanceLog> punches) {
+        synchronized (this) {
+            rollOver();
+            Set<String> unknown = new HashSet<>();
+            Set<String> touched = new LinkedHashSet<>();
+            for (AttendanceLog punch : punches) {
+                if (!day.equals(punch.getTimestamp().toLocalDate()))
+                    continue;
+                Entry entry = entries.get(punch.getEmployeeId());
+                if (entry == null) {
+                    if (!untracked.contains(punch.getEmployeeId()))
+                        unknown.add(punch.getEmployeeId());
+                    continue;
+                }
+                entry.punch(punch.getTimestamp().toLocalTime());
+                touched.add(punch.getEmployeeId());
+            }
+            for (String id : unknown) {
+                // Usually an employee the terminal created after the board was loaded
+                if (load(id))
+                    touched.add(id);
+            }
+            publish(touched);
+        }
+        dispatch();
+    }
+
+    /**
+     * Reloads one employee from the day facts. Callers invalidate the facts
+     * first.
+     */
+    public void recompute(String employeeId) {
+        synchronized (this) {
+            if (!rollOver()) {
+                load(employeeId);
+                publish(Set.of(employeeId));
+            }
+        }
+        dispatch();
+    }
+
+    /**
+     * Reloads one employee if today falls inside [from, to].
+     */
+    public void recompute(String employeeId, LocalDate from, LocalDate to) {
+        LocalDate today = LocalDate.now();
+        if (!today.isBefore(from) && !today.isAfter(to)) {
+            recompute(employeeId);
+        }
+    }
+
+    /**
+     * Reloads every employee, e.g. after schedule, holiday or bulk changes.
+     */
+    public void reload() {
+        synchronized (this) {
+            loadAll();
+        }
+        dispatch();
+    }
+
+    // Caller holds this
+    private void loadAll() {
+        LocalDate today = LocalDate.now();
+        List<Employee> employees = employeeRepository.findAll();
+        Map<String, Map<LocalDate, DailyAttendanceFact>> facts = dailyAttendanceMaterializer.getFacts(employees,
+                today, today);
+        WorkSchedule globalSchedule = globalSchedule();
+
+        entries.clear();
+        untracked.clear();
+        for (Employee emp : employees) {
+            entries.put(emp.getId(), new Entry(emp, facts.get(emp.getId()).get(today),
+                    scheduleResolver.resolveSchedule(emp.getId(), today, globalSchedule)));
+        }
+        day = today;
+        publish();
+        log.info("Today status board loaded date={} employees={}", today, entries.size());
+    }
+
+    // Reloads when the day has changed; returns true if it did. Caller holds this.
+    private boolean rollOver() {
+        if (LocalDate.now().equals(day))
+            return false;
+        loadAll();
+        return true;
+    }
+
+    // Returns true if the employee exists (or existed) on the board
+    private boolean load(String employeeId) {
+        Employee emp = employeeRepository.findById(employeeId).orElse(null);
+        if (emp == null) {
+            untracked.add(employeeId);
+            return entries.remove(employeeId) != null;
+        }
+        untracked.remove(employeeId);
+        DailyAttendanceFact fact = dailyAttendanceMaterializer.getFacts(emp, day, day).get(day);
+        entries.put(employeeId, new Entry(emp, fact, scheduleResolver.resolveSchedule(employeeId, day, globalSchedule())));
+        return true;
+    }
+
+    private WorkSchedule globalSchedule() {
+        return workScheduleRepository.findAll().stream().findFirst().orElse(new WorkSchedule());
+    }
+
+    // Builds a new snapshot of every row, reporting the rows that differ from
+    // the previous one. Caller holds this.
+    private void publish() {
+        Snapshot previous = snapshot;
+        boolean sameDay = day.equals(previous.day);
+        Map<String, DailyAttendanceDto> previousStaff = new HashMap<>(previous.staffSlots.size() * 2);
+        for (DailyAttendanceDto row : previous.staff) {
+            previousStaff.put(row.getEmployeeId(), row);
+        }
+
+        List<DailyAttendanceDto> changed = new ArrayList<>();
+        for (Entry entry : entries.values()) {
+            if (entry.guest)
+                continue;
+            DailyAttendanceDto before = previousStaff.remove(entry.row.getEmployeeId());
+            if (!sameDay || !entry.row.equals(before))
+                changed.add(entry.row);
+        }
+        snapshot = new Snapshot(day, entries.values());
+
+        if (!changed.isEmpty() || !previousStaff.isEmpty()) {
+            List<String> removed = sameDay ? new ArrayList<>(previousStaff.keySet()) : List.of();
+            pending.add(new Change(day, Collections.unmodifiableList(changed), removed));
+        }
+    }
+
+    // Swaps the rows of these employees into the current snapshot. Falls back
+    // to publish() when one of them joined, left or moved between staff and
+    // guests. Caller holds this.
+    private void publish(Set<String> employeeIds) {
+        if (employeeIds.isEmpty())
+            return;
+        Snapshot current = snapshot;
+        if (!day.equals(current.day)) {
+            publish();
+            return;
+        }
+        for (String id : employeeIds) {
+            Entry entry = entries.get(id);
+            boolean shown = current.byId.containsKey(id);
+            if (entry == null ? shown : !shown || entry.guest == current.staffSlots.containsKey(id)) {
+                publish();
+                return;
+            }
+        }
+
+        List<DailyAttendanceDto> changed = new ArrayList<>();
+        for (String id : employeeIds) {
+            Entry entry = entries.get(id);
+            if (entry == null)
+                continue;
+            DailyAttendanceDto before = current.byId.put(id, entry.row);
+            if (entry.guest)
+                continue;
+            current.staffRows.set(current.staffSlots.get(id), entry.row);
+            if (!entry.row.equals(before))
+                changed.add(entry.row);
+        }
+        if (!changed.isEmpty())
+            pending.add(new Change(day, Collections.unmodifiableList(changed), List.of()));
+    }
+
+    // Delivers queued changes in order, outside the board lock. Whoever holds
+    // dispatchLock drains for everyone; the loop catches changes queued just
+    // as it let go.
+    private void dispatch() {
+        while (!pending.isEmpty() && dispatchLock.tryLock()) {
+            try {
+                Change change;
+                while ((change = pending.poll()) != null) {
+                    for (Listener listener : listeners) {
+                        try {
+                            listener.statusChanged(change.day, change.changed, change.removed);
+                        } catch (RuntimeException e) {
+                            log.warn("Today status listener failed listener={}", listener.getClass().getSimpleName(),
+                                    e);
+                        }
+                    }
+                }
+            } finally {
+                dispatchLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Told about every change to the non-guest rows, in the order they were
+     * made. Called after the board lock is released, but on the thread of a
+     * punch or reload, so implementations should hand the work off rather than
+     * block.
+     */
+    public interface Listener {
+        /**
+         * Rows that changed or appeared, and ids that left. On a new day every
+         * row is reported as changed.
+         */
+        void statusChanged(LocalDate day, List<DailyAttendanceDto> changed, List<String> removed);
+    }
+
+    private static final class Entry {
+        final boolean guest;
+        final DailyAttendanceFact fact;
+        final WorkSchedule schedule;
+        DailyAttendanceDto row;
+
+        Entry(Employee emp, DailyAttendanceFact fact, WorkSchedule schedule) {
+            this.guest = emp.isGuest();
+            this.fact = fact;
+            this.schedule = schedule;
+            this.row = ReportService.dailyRow(emp);
+            ReportService.applyDailyStatus(row, fact);
+        }
+
+        void punch(LocalTime time) {
+            fact.setPunchCount(fact.getPunchCount() + 1);
+            if (fact.getFirstIn() == null || time.isBefore(fact.getFirstIn()))
+                fact.setFirstIn(time);
+            if (fact.getLastOut() == null || time.isAfter(fact.getLastOut()))
+                fact.setLastOut(time);
+            DailyAttendanceMaterializer.applySchedule(fact, schedule);
+
+            // Published rows are never modified; replace this one
+            DailyAttendanceDto next = new DailyAttendanceDto();
+            next.setEmployeeId(row.getEmployeeId());
+            next.setEmployeeName(row.getEmployeeName());
+            next.setDepartmentName(row.getDepartmentName());
+            next.setDesignation(row.getDesignation());
+            next.setAvatarPath(row.getAvatarPath());
+            next.setPhotoUrl(row.getPhotoUrl());
+            ReportService.applyDailyStatus(next, fact);
+            row = next;
+        }
+    }
+
+    private static final class Change {
+        final LocalDate day;
+        final List<DailyAttendanceDto> changed;
+        final List<String> removed;
+
+        Change(LocalDate day, List<DailyAttendanceDto> changed, List<String> removed) {
+            this.day = day;
+            this.changed = changed;
+            this.removed = removed;
+        }
+    }
+
+    // Membership is fixed; single rows are swapped in place by publish(Set)
+    private static final class Snapshot {
+        final LocalDate day;
+        final AtomicReferenceArray<DailyAttendanceDto> staffRows;
+        final Map<String, Integer> staffSlots;
+        final Map<String, DailyAttendanceDto> byId;
+        final List<DailyAttendanceDto> staff;
+
+        Snapshot(LocalDate day, Collection<Entry> entries) {
+            List<DailyAttendanceDto> rows = new ArrayList<>(entries.size());
+            Map<String, Integer> slots = new HashMap<>(entries.size() * 2);
+            Map<String, DailyAttendanceDto> byId = new ConcurrentHashMap<>(entries.size() * 2);
+            for (Entry entry : entries) {
+                byId.put(entry.row.getEmployeeId(), entry.row);
+                if (entry.guest)
+                    continue;
+                slots.put(entry.row.getEmployeeId(), rows.size());
+                rows.add(entry.row);
+            }
+            this.day = day;
+            this.staffRows = new AtomicReferenceArray<>(rows.toArray(new DailyAttendanceDto[0]));
+            this.staffSlots = slots;
+            this.byId = byId;
+            this.staff = new RowView(staffRows);
+        }
+    }
+
+    // Read-only list over the snapshot's current staff rows
+    private static final class RowView extends AbstractList<DailyAttendanceDto> implements RandomAccess {
+        private final AtomicReferenceArray<DailyAttendanceDto> rows;
+
+        RowView(AtomicReferenceArray<DailyAttendanceDto> rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public DailyAttendanceDto get(int index) {
+            return rows.get(index);
+        }
+
+        @Override
+        public int size() {
+            return rows.length();
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package root.cyb.mh.attendancesystem.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import root.cyb.mh.attendancesystem.model.PublicHoliday;
+import root.cyb.mh.attendancesystem.model.WorkSchedule;
+import root.cyb.mh.attendancesystem.repository.PublicHolidayRepository;
+import root.cyb.mh.attendancesystem.repository.WorkScheduleRepository;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Cached view of the global weekend days and public holidays.
+ *
+ * The weekend is a 7-bit mask (bit 0 = Monday) parsed once from
+ * WorkSchedule.weekendDays; holidays are a BitSet of epoch days. Working days
+ * in a range come from a weekly prefix-sum table plus a binary search over
+ * the sorted holidays that fall on working weekdays, so no date is walked.
+ * Reloaded after {@link #invalidate()} is called by SettingsService and the
+ * data import.
+ */
+@Component
+public class WorkCalendar {
+
+    @Autowired
+    private WorkScheduleRepository workScheduleRepository;
+
+    @Autowired
+    private PublicHolidayRepository publicHolidayRepository;
+
+    private final CachedSnapshot<Snapshot> snapshot = new CachedSnapshot<>(this::load);
+
+    public boolean isWeekend(LocalDate date) {
+        return isWeekend(snapshot().weekendMask, date.getDayOfWeek());
+    }
+
+    public boolean isHoliday(LocalDate date) {
+        return snapshot().isHoliday(date.toEpochDay());
+    }
+
+    public boolean isWorkingDay(LocalDate date) {
+        return !isWeekend(date) && !isHoliday(date);
+    }
+
+    /**
+     * Working days in [start, end], both inclusive; 0 if end is before start.
+     */
+    public int countWorkingDays(LocalDate start, LocalDate end) {
+        if (end.isBefore(start))
+            return 0;
+        Snapshot s = snapshot();
+        long from = start.toEpochDay();
+        long to = end.toEpochDay() + 1;
+        long weekdays = (to - from) - (s.weekendDaysBefore(to) - s.weekendDaysBefore(from));
+        long holidays = s.workdayHolidaysBefore(to) - s.workdayHolidaysBefore(from);
+        return (int) (weekdays - holidays);
+    }
+
+    public void invalidate() {
+        snapshot.invalidate();
+    }
+
+    /**
+     * Parses a comma separated list of ISO day numbers (1 = Monday) into a
+     * weekend mask. Null means the default Saturday and Sunday; an empty
+     * string means no weekend.
+     */
+    public static int parseWeekendMask(String weekendDays) {
+        if (weekendDays == null)
+            return bit(DayOfWeek.SATURDAY) | bit(DayOfWeek.SUNDAY);
+        int mask = 0;
+        for (String day : weekendDays.split(",")) {
+            String d = day.trim();
+            if (d.isEmpty())
+                continue;
+            try {
+                int value = Integer.parseInt(d);
+                if (value >= 1 && value <= 7)
+                    mask |= bit(DayOfWeek.of(value));
+            } catch (NumberFormatException e) {
+                // Ignore anything that is not a day number
+            }
+        }
+        return mask;
+    }
+
+    private static boolean isWeekend(int mask, DayOfWeek day) {
+        return (mask & bit(day)) != 0;
+    }
+
+    private static int bit(DayOfWeek day) {
+        return 1 << (day.getValue() - 1);
+    }
+
+    private Snapshot snapshot() {
+        return snapshot.get();
+    }
+
+    private Snapshot load() {
+        WorkSchedule schedule = workScheduleRepository.findAll().stream().findFirst().orElse(new WorkSchedule());
+        int mask = parseWeekendMask(schedule.getWeekendDays());
+
+        List<PublicHoliday> holidays = publicHolidayRepository.findAll();
+        long[] days = holidays.stream()
+                .filter(h -> h.getDate() != null)
+                .mapToLong(h -> h.getDate().toEpochDay())
+                .distinct()
+                .sorted()
+                .toArray();
+        return new Snapshot(mask, days);
+    }
+
+    private static final class Snapshot {
+        final int weekendMask;
+        // weekendPrefix[i] = weekend days among the first i days of a Monday-based week
+        final int[] weekendPrefix = new int[8];
+        final long base;
+        final BitSet holidays = new BitSet();
+        // Holidays that are not already weekend days, ascending
+        final long[] workdayHolidays;
+
+        Snapshot(int weekendMask, long[] holidayDays) {
+            this.weekendMask = weekendMask;
+            for (int i = 0; i < 7; i++) {
+                weekendPrefix[i + 1] = weekendPrefix[i] + ((weekendMask >> i) & 1);
+            }
+            this.base = holidayDays.length > 0 ? holidayDays[0] : 0;
+            for (long day : holidayDays) {
+                holidays.set((int) (day - base));
+            }
+            this.workdayHolidays = Arrays.stream(holidayDays)
+                    .filter(day -> !isWeekend(weekendMask, LocalDate.ofEpochDay(day).getDayOfWeek()))
+                    .toArray();
+        }
+
+        boolean isHoliday(long epochDay) {
+            long offset = epochDay - base;
+            return offset >= 0 && offset <= Integer.MAX_VALUE && holidays.get((int) offset);
+        }
+
+        // Weekend days from a fixed Monday up to epochDay (exclusive): whole weeks
+        // plus the remainder. Callers only take differences, so any Monday works.
+        long weekendDaysBefore(long epochDay) {
+            // 1970-01-05 (epoch day 4) is a Monday
+            long sinceMonday = epochDay - 4;
+            long weeks = Math.floorDiv(sinceMonday, 7);
+            int rest = Math.floorMod(sinceMonday, 7);
+            return weeks * weekendPrefix[7] + weekendPrefix[rest];
+        }
+
+        long workdayHolidaysBefore(long epochDay) {
+            int index = Arrays.binarySearch(workdayHolidays, epochDay);
+            return index >= 0 ? index : -index - 1;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package root.cyb.mh.attendancesystem.controller;
+
+import org.junit.jupiter.api.Test;
+import root.cyb.mh.attendancesystem.dto.AttendanceLogRowDto;
+import root.cyb.mh.attendancesystem.repository.AttendanceLogBrowseRepository.LogOrder;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LogCursorTest {
+
+    private static final LocalDateTime AT = LocalDateTime.of(2025, 3, 10, 8, 59, 30);
+
+    @Test
+    void roundTripsTimestampIdAndSortValue() {
+        AttendanceLogRowDto decoded = LogCursor.decode(LogCursor.encode(row("E7", "Ana"), LogOrder.EMPLOYEE_ID));
+
+        assertThat(decoded.getTimestamp()).isEqualTo(AT);
+        assertThat(decoded.getId()).isEqualTo(42L);
+        assertThat(decoded.getEmployeeId()).isEqualTo("E7");
+
+        assertThat(LogCursor.decode(LogCursor.encode(row("E7", "Ana"), LogOrder.EMPLOYEE_NAME)).getEmployeeName())
+                .isEqualTo("Ana");
+    }
+
+    @Test
+    void nullNameBecomesTheEmptyStringTheQuerySortsItAs() {
+        String cursor = LogCursor.encode(row("E7", null), LogOrder.EMPLOYEE_NAME);
+
+        AttendanceLogRowDto decoded = LogCursor.decode(cursor);
+        assertThat(decoded.getEmployeeName()).isEmpty();
+        assertThat(decoded.getId()).isEqualTo(42L);
+    }
+
+    @Test
+    void sortValueMayContainSeparators() {
+        AttendanceLogRowDto decoded = LogCursor
+                .decode(LogCursor.encode(row("E7", "Line\nBreak"), LogOrder.EMPLOYEE_NAME));
+
+        assertThat(decoded.getEmployeeName()).isEqualTo("Line\nBreak");
+    }
+
+    @Test
+    void timestampOrderCarriesNoSortValue() {
+        AttendanceLogRowDto decoded = LogCursor.decode(LogCursor.encode(row("E7", "Ana"), LogOrder.TIMESTAMP));
+
+        assertThat(decoded.getTimestamp()).isEqualTo(AT);
+        assertThat(decoded.getEmployeeId()).isEmpty();
+    }
+
+    @Test
+    void unreadableCursorsStartFromTheFirstPage() {
+        assertThat(LogCursor.decode(null)).isNull();
+        assertThat(LogCursor.decode(" ")).isNull();
+        assertThat(LogCursor.decode("not base64!")).isNull();
+        assertThat(LogCursor.decode(encodeRaw("2025-03-10T08:59:30\n42"))).isNull();
+        assertThat(LogCursor.decode(encodeRaw("yesterday\n42\nE7"))).isNull();
+        assertThat(LogCursor.decode(encodeRaw("2025-03-10T08:59:30\nx\nE7"))).isNull();
+    }
+
+    private static AttendanceLogRowDto row(String employeeId, String name) {
+        AttendanceLogRowDto row = new AttendanceLogRowDto();
+        row.setId(42L);
+        row.setEmployeeId(employeeId);
+        row.setEmployeeName(name);
+        row.setTimestamp(AT);
+        return row;
+    }
+
+    private static String encodeRaw(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,111 @@
+package root.cyb.mh.attendancesystem.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AttlogParserTest {
+
+    private final List<String> punches = new ArrayList<>();
+    private final List<String> rejected = new ArrayList<>();
+
+    private final AttlogParser.PunchHandler handler = new AttlogParser.PunchHandler() {
+        @Override
+        public void onPunch(String employeeId, LocalDateTime timestamp) {
+            punches.add(employeeId + "@" + timestamp);
+        }
+
+        @Override
+        public void onRejected(String line) {
+            rejected.add(line);
+        }
+    };
+
+    @Test
+    void parsesRawPositionalLines() throws IOException {
+        parse("3\t2025-12-16 18:28:33\t0\t1\t0\t0\t0\n 17 \t 2025-01-02 07:05:09 \t0\n");
+
+        assertThat(punches).containsExactly("3@2025-12-16T18:28:33", "17@2025-01-02T07:05:09");
+        assertThat(rejected).isEmpty();
+    }
+
+    @Test
+    void parsesKeyValueLinesInAnyOrder() throws IOException {
+        parse("PIN=3\tTime=2025-12-16 18:28:33\tStatus=0\nStatus=1\tTime=2025-12-16 18:30:00\tPIN=42\n");
+
+        assertThat(punches).containsExactly("3@2025-12-16T18:28:33", "42@2025-12-16T18:30");
+    }
+
+    @Test
+    void handlesCrLfBlankLinesAndMissingTrailingNewline() throws IOException {
+        parse("\r\n3\t2025-12-16 18:28:33\t0\r\n   \r\n\n4\t2025-12-16 18:29:00");
+
+        assertThat(punches).containsExactly("3@2025-12-16T18:28:33", "4@2025-12-16T18:29");
+        assertThat(rejected).isEmpty();
+    }
+
+    @Test
+    void rejectsMalformedLines() throws IOException {
+        parse("""
+                just-one-token
+                3\t2025/12/16 18:28:33
+                3\t2025-12-16T18:28:33
+                3\t2025-12-16 18:28
+                3\t2025-12-16 18:28:3x
+                \t2025-12-16 18:28:33
+                PIN=3\tStatus=0
+                PIN=\tTime=2025-12-16 18:28:33
+                3\t2025-02-30 08:00:00
+                3\t2025-12-16 24:00:00
+                """);
+
+        assertThat(punches).isEmpty();
+        assertThat(rejected).hasSize(10).first().isEqualTo("just-one-token");
+    }
+
+    @Test
+    void acceptsLeapDayOnlyInLeapYears() throws IOException {
+        parse("1\t2024-02-29 12:00:00\n1\t2025-02-29 12:00:00\n");
+
+        assertThat(punches).containsExactly("1@2024-02-29T12:00");
+        assertThat(rejected).containsExactly("1\t2025-02-29 12:00:00");
+    }
+
+    @Test
+    void linesSpanningChunkBoundariesAreReassembled() throws IOException {
+        StringBuilder body = new StringBuilder();
+        // Long lines too, to grow the line buffer past its initial size
+        String padding = "\t0".repeat(200);
+        for (int i = 0; i < 2000; i++)
+            body.append(i).append("\t2025-03-01 08:00:00").append(i % 7 == 0 ? padding : "").append("\r\n");
+
+        parse(body.toString());
+
+        assertThat(rejected).isEmpty();
+        assertThat(punches).hasSize(2000);
+        assertThat(punches.get(1999)).isEqualTo("1999@2025-03-01T08:00");
+    }
+
+    @Test
+    void parseTimestampTrimsAndValidates() {
+        assertThat(timestamp("  2025-12-31 23:59:59 ")).isEqualTo(LocalDateTime.of(2025, 12, 31, 23, 59, 59));
+        assertThat(timestamp("2025-13-01 00:00:00")).isNull();
+        assertThat(timestamp("2025-12-31 23:59:60")).isNull();
+        assertThat(timestamp("")).isNull();
+    }
+
+    private void parse(String body) throws IOException {
+        AttlogParser.parse(new StringReader(body), handler);
+    }
+
+    private static LocalDateTime timestamp(String text) {
+        char[] chars = text.toCharArray();
+        return AttlogParser.parseTimestamp(chars, 0, chars.length);
+    }
+}
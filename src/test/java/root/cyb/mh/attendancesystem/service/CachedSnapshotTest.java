@@ -0,0 +1,50 @@
+package root.cyb.mh.attendancesystem.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CachedSnapshotTest {
+
+    private final AtomicInteger source = new AtomicInteger(1);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void loadsOnceUntilInvalidated() {
+        CachedSnapshot<Integer> cache = new CachedSnapshot<>(this::read);
+
+        assertThat(cache.get()).isEqualTo(1);
+        source.set(2);
+        assertThat(cache.get()).isEqualTo(1);
+        cache.invalidate();
+        assertThat(cache.get()).isEqualTo(2);
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void loadOvertakenByAnInvalidationIsNotKept() {
+        AtomicReference<CachedSnapshot<Integer>> cache = new AtomicReference<>();
+        cache.set(new CachedSnapshot<>(() -> {
+            int value = read();
+            if (value == 1) {
+                // A write and its invalidation land after the load has read
+                source.set(2);
+                cache.get().invalidate();
+            }
+            return value;
+        }));
+
+        assertThat(cache.get().get()).isEqualTo(1);
+        assertThat(cache.get().get()).isEqualTo(2);
+        assertThat(cache.get().get()).isEqualTo(2);
+        assertThat(loads).hasValue(2);
+    }
+
+    private int read() {
+        loads.incrementAndGet();
+        return source.get();
+    }
+}
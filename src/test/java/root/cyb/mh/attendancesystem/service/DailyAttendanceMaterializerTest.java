@@ -0,0 +1,91 @@
+package root.cyb.mh.attendancesystem.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import root.cyb.mh.attendancesystem.repository.DailyAttendanceFactRepository;
+import root.cyb.mh.attendancesystem.repository.MonthlyAttendanceRollupRepository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class DailyAttendanceMaterializerTest {
+
+    private static final LocalDate FROM = LocalDate.of(2025, 3, 1);
+    private static final LocalDate TO = LocalDate.of(2025, 3, 31);
+
+    private final DailyAttendanceMaterializer materializer = new DailyAttendanceMaterializer();
+    private final List<String> stored = new ArrayList<>();
+
+    DailyAttendanceMaterializerTest() {
+        ReflectionTestUtils.setField(materializer, "factRepository", mock(DailyAttendanceFactRepository.class));
+        ReflectionTestUtils.setField(materializer, "rollupRepository", mock(MonthlyAttendanceRollupRepository.class));
+    }
+
+    @Test
+    void storesEverythingWhenNothingChanged() {
+        DailyAttendanceMaterializer.Build build = materializer.beginBuild(Set.of("A", "B"), FROM, TO);
+        store(build, "A", "B");
+
+        assertThat(stored).containsExactly("A", "B");
+    }
+
+    @Test
+    void dropsRowsOfEmployeesInvalidatedDuringTheBuild() {
+        DailyAttendanceMaterializer.Build build = materializer.beginBuild(Set.of("A", "B"), FROM, TO);
+        materializer.punchesChanged(Map.of(LocalDate.of(2025, 3, 10), Set.of("B", "C")));
+        store(build, "A", "B");
+
+        assertThat(stored).containsExactly("A");
+    }
+
+    @Test
+    void ignoresInvalidationsOutsideTheBuild() {
+        DailyAttendanceMaterializer.Build build = materializer.beginBuild(Set.of("A"), FROM, TO);
+        materializer.punchesChanged(Map.of(LocalDate.of(2025, 4, 1), Set.of("A")));
+        materializer.invalidateDate(LocalDate.of(2025, 2, 28));
+        materializer.invalidateEmployee("Z");
+        store(build, "A");
+
+        assertThat(stored).containsExactly("A");
+    }
+
+    @Test
+    void leaveInvalidationCoversTheRestOfTheYear() {
+        DailyAttendanceMaterializer.Build build = materializer.beginBuild(Set.of("A"), FROM, TO);
+        materializer.invalidate("A", LocalDate.of(2025, 1, 6), LocalDate.of(2025, 1, 8));
+        store(build, "A");
+
+        assertThat(stored).isEmpty();
+    }
+
+    @Test
+    void dateInvalidationDropsTheWholeBuild() {
+        DailyAttendanceMaterializer.Build build = materializer.beginBuild(Set.of("A", "B"), FROM, TO);
+        materializer.invalidateDate(LocalDate.of(2025, 3, 17));
+        store(build, "A", "B");
+
+        assertThat(stored).isEmpty();
+    }
+
+    @Test
+    void finishedBuildsAreNoLongerTracked() {
+        DailyAttendanceMaterializer.Build build = materializer.beginBuild(Set.of("A"), FROM, TO);
+        materializer.endBuild(build);
+        materializer.invalidateAll();
+
+        DailyAttendanceMaterializer.Build next = materializer.beginBuild(Set.of("A"), FROM, TO);
+        store(next, "A");
+        assertThat(stored).containsExactly("A");
+    }
+
+    private void store(DailyAttendanceMaterializer.Build build, String... rows) {
+        materializer.store(build, List.of(rows), Function.identity(), stored::addAll);
+    }
+}
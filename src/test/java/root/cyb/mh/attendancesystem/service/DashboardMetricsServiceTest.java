@@ -0,0 +1,77 @@
+package root.cyb.mh.attendancesystem.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import root.cyb.mh.attendancesystem.dto.DailyAttendanceDto;
+import root.cyb.mh.attendancesystem.dto.DashboardMetricsDto;
+
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DashboardMetricsServiceTest {
+
+    private final TodayStatusBoard board = mock(TodayStatusBoard.class);
+    private final ReportService reportService = mock(ReportService.class);
+    private final DashboardMetricsService service = new DashboardMetricsService();
+
+    DashboardMetricsServiceTest() {
+        ReflectionTestUtils.setField(service, "todayStatusBoard", board);
+        ReflectionTestUtils.setField(service, "reportService", reportService);
+        ReflectionTestUtils.setField(service, "ttlSeconds", 300L);
+        when(board.snapshot()).thenReturn(List.of(row("A"), row("B")));
+    }
+
+    @Test
+    void summarisesOnlyTheStaffOnTheBoardOncePerTtl() {
+        YearMonth month = YearMonth.now();
+        DashboardMetricsDto first = service.getMetrics();
+        service.statusChanged(null, List.of(), List.of());
+        DashboardMetricsDto second = service.getMetrics();
+
+        assertThat(second).isNotSameAs(first);
+        verify(reportService, times(1)).getMonthlySummaries(Set.of("A", "B"), month, month);
+    }
+
+    @Test
+    void servesThePreviousSnapshotWhileAnotherThreadRefreshes() throws Exception {
+        DashboardMetricsDto previous = service.getMetrics();
+
+        CountDownLatch building = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(board.snapshot()).thenAnswer(invocation -> {
+            building.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return List.of(row("A"));
+        });
+        service.statusChanged(null, List.of(), List.of());
+        CompletableFuture<DashboardMetricsDto> refresh = CompletableFuture.supplyAsync(service::getMetrics);
+        assertThat(building.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(service.getMetrics()).isSameAs(previous);
+
+        release.countDown();
+        DashboardMetricsDto refreshed = refresh.get(5, TimeUnit.SECONDS);
+        assertThat(refreshed).isNotSameAs(previous);
+        assertThat(service.getMetrics()).isSameAs(refreshed);
+    }
+
+    private static DailyAttendanceDto row(String employeeId) {
+        DailyAttendanceDto dto = new DailyAttendanceDto();
+        dto.setEmployeeId(employeeId);
+        dto.setDepartmentName("Ops");
+        dto.setStatus("PRESENT");
+        dto.setInTime(LocalTime.of(9, 0));
+        return dto;
+    }
+}
@@ -0,0 +1,115 @@
+package root.cyb.mh.attendancesystem.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DeviceCommandQueueTest {
+
+    private final DeviceRegistry registry = mock(DeviceRegistry.class);
+    private final DeviceCommandQueue queue = new DeviceCommandQueue();
+
+    @BeforeEach
+    void setUp() {
+        when(registry.isRegistered("SN1")).thenReturn(true);
+        ReflectionTestUtils.setField(queue, "deviceRegistry", registry);
+        ReflectionTestUtils.setField(queue, "retrySeconds", 60);
+        ReflectionTestUtils.setField(queue, "maxAttempts", 3);
+        ReflectionTestUtils.setField(queue, "commandsPerPoll", 10);
+        ReflectionTestUtils.setField(queue, "idleMinutes", 60);
+    }
+
+    @Test
+    void sendsPendingCommandsOnceUntilRetryIsDue() {
+        long first = queue.enqueue("SN1", "INFO");
+        long second = queue.enqueue("SN1", "CHECK");
+
+        assertThat(queue.poll("SN1")).isEqualTo("C:" + first + ":INFO\nC:" + second + ":CHECK");
+        assertThat(queue.poll("SN1")).isNull();
+
+        ReflectionTestUtils.setField(queue, "retrySeconds", 0);
+        assertThat(queue.poll("SN1")).isEqualTo("C:" + first + ":INFO\nC:" + second + ":CHECK");
+    }
+
+    @Test
+    void acknowledgedCommandIsNotResent() {
+        ReflectionTestUtils.setField(queue, "retrySeconds", 0);
+        long id = queue.enqueue("SN1", "INFO");
+        queue.poll("SN1");
+
+        assertThat(queue.acknowledge("SN1", id)).isTrue();
+        assertThat(queue.acknowledge("SN1", id)).isFalse();
+        assertThat(queue.poll("SN1")).isNull();
+    }
+
+    @Test
+    void dropsCommandAfterMaxAttempts() {
+        ReflectionTestUtils.setField(queue, "retrySeconds", 0);
+        long id = queue.enqueue("SN1", "INFO");
+
+        for (int attempt = 0; attempt < 3; attempt++)
+            assertThat(queue.poll("SN1")).isEqualTo("C:" + id + ":INFO");
+        assertThat(queue.poll("SN1")).isNull();
+        assertThat(queue.acknowledge("SN1", id)).isFalse();
+    }
+
+    @Test
+    void unregisteredSerialAllocatesNothing() {
+        assertThat(queue.enqueue("BOGUS", "INFO")).isEqualTo(-1);
+        assertThat(queue.poll("BOGUS")).isNull();
+        assertThat(queue.poll(null)).isNull();
+        CompletableFuture<Void> signal = queue.commandSignal("BOGUS");
+
+        assertThat(signal).isNotDone();
+        assertThat(queues()).isEmpty();
+        assertThat(signals()).isEmpty();
+    }
+
+    @Test
+    void enqueueCompletesTheSignal() {
+        CompletableFuture<Void> signal = queue.commandSignal("SN1");
+        assertThat(signal).isNotDone();
+
+        queue.enqueue("SN1", "INFO");
+        assertThat(signal).isDone();
+    }
+
+    @Test
+    void evictsIdleEmptyQueuesAndDeletedDevices() {
+        long id = queue.enqueue("SN1", "INFO");
+        queue.poll("SN1");
+        ReflectionTestUtils.setField(queue, "idleMinutes", -1);
+
+        // Still has a command in flight
+        queue.evictIdle();
+        assertThat(queues()).containsKey("SN1");
+
+        queue.acknowledge("SN1", id);
+        queue.evictIdle();
+        assertThat(queues()).isEmpty();
+
+        queue.enqueue("SN1", "INFO");
+        queue.commandSignal("SN1");
+        ReflectionTestUtils.setField(queue, "idleMinutes", 60);
+        when(registry.isRegistered("SN1")).thenReturn(false);
+        queue.evictIdle();
+        assertThat(queues()).isEmpty();
+        assertThat(signals()).isEmpty();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, ?> queues() {
+        return (Map<String, ?>) ReflectionTestUtils.getField(queue, "queues");
+    }
+
+    private Map<?, ?> signals() {
+        return (Map<?, ?>) ReflectionTestUtils.getField(queue, "signals");
+    }
+}
@@ -0,0 +1,136 @@
+package root.cyb.mh.attendancesystem.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+
+class IngestSpoolServiceTest {
+
+    @TempDir
+    Path dir;
+
+    private final List<IngestSpoolService> started = new CopyOnWriteArrayList<>();
+
+    @AfterEach
+    void stopAll() {
+        started.forEach(IngestSpoolService::stop);
+    }
+
+    @Test
+    void replaysUndrainedPushesInOrderAfterRestart() throws Exception {
+        // First run: the database is down, nothing drains
+        AdmsService down = mock(AdmsService.class);
+        doThrow(new IllegalStateException("db down")).when(down).processCdata(anyString(), anyString(), any(),
+                anyString());
+        IngestSpoolService first = spool(down, 100, 60_000);
+        assertThat(first.offer("SN1", "ATTLOG", "1", "a")).isTrue();
+        assertThat(first.offer("SN1", "ATTLOG", "2", "b")).isTrue();
+        assertThat(first.offer("SN2", "OPERLOG", null, "c")).isTrue();
+        first.stop();
+        started.remove(first);
+
+        List<String> applied = new CopyOnWriteArrayList<>();
+        AdmsService up = recording(applied);
+        IngestSpoolService second = spool(up, 100, 10);
+
+        await(() -> applied.size() == 3);
+        assertThat(applied).containsSubsequence("SN1/1/a", "SN1/2/b").contains("SN2/null/c");
+        await(() -> pending(second) == 0);
+    }
+
+    @Test
+    void deadLettersAPushThatKeepsFailingAndMovesOn() throws Exception {
+        List<String> applied = new CopyOnWriteArrayList<>();
+        AdmsService adms = recording(applied);
+        doThrow(new IllegalArgumentException("bad payload")).when(adms).processCdata(eq("SN1"), anyString(), any(),
+                eq("poison"));
+        IngestSpoolService spool = spool(adms, 3, 1);
+
+        spool.offer("SN1", "ATTLOG", "1", "poison");
+        spool.offer("SN1", "ATTLOG", "2", "good");
+
+        await(() -> applied.contains("SN1/2/good"));
+        await(() -> pending(spool) == 0);
+        spool.stop();
+        started.remove(spool);
+
+        // The dead push is not replayed, and its segment stays on disk
+        List<String> replayed = new CopyOnWriteArrayList<>();
+        IngestSpoolService restarted = spool(recording(replayed), 3, 1);
+        assertThat(pending(restarted)).isZero();
+        TimeUnit.MILLISECONDS.sleep(100);
+        assertThat(replayed).isEmpty();
+        try (Stream<Path> files = Files.list(dir)) {
+            assertThat(files.count()).isGreaterThanOrEqualTo(1);
+        }
+    }
+
+    @Test
+    void refusesPushesBeyondQueueDepth() throws Exception {
+        AdmsService down = mock(AdmsService.class);
+        doThrow(new IllegalStateException("db down")).when(down).processCdata(anyString(), anyString(), any(),
+                anyString());
+        IngestSpoolService spool = spool(down, 100, 60_000);
+        ReflectionTestUtils.setField(spool, "queueDepth", 2);
+
+        assertThat(spool.offer("SN1", "ATTLOG", "1", "a")).isTrue();
+        assertThat(spool.offer("SN1", "ATTLOG", "2", "b")).isTrue();
+        assertThat(spool.offer("SN1", "ATTLOG", "3", "c")).isFalse();
+    }
+
+    private IngestSpoolService spool(AdmsService adms, int maxAttempts, long retryDelayMs) throws Exception {
+        IngestSpoolService spool = new IngestSpoolService();
+        ReflectionTestUtils.setField(spool, "admsService", adms);
+        ReflectionTestUtils.setField(spool, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(spool, "enabled", true);
+        ReflectionTestUtils.setField(spool, "spoolDir", dir.toString());
+        ReflectionTestUtils.setField(spool, "segmentSizeMb", 1);
+        ReflectionTestUtils.setField(spool, "queueDepth", 500);
+        ReflectionTestUtils.setField(spool, "workerCount", 2);
+        ReflectionTestUtils.setField(spool, "maxAttempts", maxAttempts);
+        ReflectionTestUtils.setField(spool, "retryDelayMs", retryDelayMs);
+        spool.start();
+        started.add(spool);
+        return spool;
+    }
+
+    private static AdmsService recording(List<String> applied) {
+        AdmsService adms = mock(AdmsService.class);
+        doAnswer(inv -> {
+            applied.add(inv.getArgument(0) + "/" + inv.getArgument(2) + "/" + inv.getArgument(3));
+            return "OK";
+        }).when(adms).processCdata(anyString(), anyString(), any(), anyString());
+        return adms;
+    }
+
+    private static int pending(IngestSpoolService spool) {
+        return ((java.util.concurrent.atomic.AtomicInteger) ReflectionTestUtils.getField(spool, "pendingCount"))
+                .get();
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met in time").isLessThan(deadline);
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package root.cyb.mh.attendancesystem.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LeaveIndexTest {
+
+    private final List<Object[]> rows = new ArrayList<>();
+
+    @Test
+    void onLeaveIncludesBothEnds() {
+        leave("A", "2025-03-10", "2025-03-12");
+        LeaveIndex index = LeaveIndex.of(rows);
+
+        assertThat(index.isOnLeave("A", day("2025-03-09"))).isFalse();
+        assertThat(index.isOnLeave("A", day("2025-03-10"))).isTrue();
+        assertThat(index.isOnLeave("A", day("2025-03-12"))).isTrue();
+        assertThat(index.isOnLeave("A", day("2025-03-13"))).isFalse();
+        assertThat(index.isOnLeave("B", day("2025-03-10"))).isFalse();
+    }
+
+    @Test
+    void mergesOverlappingAndAdjacentLeaveButKeepsGaps() {
+        leave("A", "2025-03-20", "2025-03-25");
+        leave("A", "2025-03-01", "2025-03-05");
+        leave("A", "2025-03-03", "2025-03-08");
+        leave("A", "2025-03-09", "2025-03-10");
+        leave("A", "2025-03-04", "2025-03-04");
+        LeaveIndex index = LeaveIndex.of(rows);
+
+        for (LocalDate d = day("2025-03-01"); !d.isAfter(day("2025-03-10")); d = d.plusDays(1))
+            assertThat(index.isOnLeave("A", d)).as(d.toString()).isTrue();
+        assertThat(index.isOnLeave("A", day("2025-03-11"))).isFalse();
+        assertThat(index.isOnLeave("A", day("2025-03-19"))).isFalse();
+        assertThat(index.isOnLeave("A", day("2025-03-20"))).isTrue();
+        assertThat(index.isOnLeave("A", day("2025-03-26"))).isFalse();
+    }
+
+    @Test
+    void leaveAcrossAYearEndIsOnLeaveOnBothSides() {
+        leave("A", "2024-12-30", "2025-01-02");
+        LeaveIndex index = LeaveIndex.of(rows);
+
+        assertThat(index.isOnLeave("A", day("2024-12-31"))).isTrue();
+        assertThat(index.isOnLeave("A", day("2025-01-02"))).isTrue();
+        assertThat(index.isOnLeave("A", day("2025-01-03"))).isFalse();
+    }
+
+    @Test
+    void yearTotalsCountTheWholeLeaveInTheMonthItStarts() {
+        leave("A", "2025-01-30", "2025-02-02"); // 4 days, January
+        leave("A", "2025-03-31", "2025-04-01"); // 2 days, March
+        leave("A", "2024-12-30", "2025-01-02"); // 4 days, December 2024
+        LeaveIndex index = LeaveIndex.of(rows);
+
+        assertThat(index.daysBeforeMonth("A", 2025, 1)).isZero();
+        assertThat(index.daysBeforeMonth("A", 2025, 2)).isEqualTo(4);
+        assertThat(index.daysBeforeMonth("A", 2025, 3)).isEqualTo(4);
+        assertThat(index.daysBeforeMonth("A", 2025, 4)).isEqualTo(6);
+        assertThat(index.daysBeforeMonth("A", 2025, 12)).isEqualTo(6);
+        assertThat(index.daysBeforeMonth("A", 2025, 13)).isEqualTo(6);
+
+        assertThat(index.daysBeforeMonth("A", 2024, 12)).isZero();
+        assertThat(index.daysBeforeMonth("A", 2024, 13)).isEqualTo(4);
+        assertThat(index.daysBeforeMonth("A", 2023, 6)).isZero();
+        assertThat(index.daysBeforeMonth("B", 2025, 6)).isZero();
+    }
+
+    @Test
+    void overlappingRequestsAreMergedForDaysButEachCountsTowardsTheYear() {
+        leave("A", "2025-05-05", "2025-05-09");
+        leave("A", "2025-05-08", "2025-05-12");
+        LeaveIndex index = LeaveIndex.of(rows);
+
+        assertThat(index.isOnLeave("A", day("2025-05-10"))).isTrue();
+        assertThat(index.daysBeforeMonth("A", 2025, 6)).isEqualTo(10);
+    }
+
+    @Test
+    void skipsIncompleteAndInvertedRows() {
+        rows.add(new Object[] { null, day("2025-01-01"), day("2025-01-02") });
+        rows.add(new Object[] { "A", null, day("2025-01-02") });
+        rows.add(new Object[] { "A", day("2025-01-05"), day("2025-01-01") });
+        LeaveIndex index = LeaveIndex.of(rows);
+
+        assertThat(index.isOnLeave("A", day("2025-01-02"))).isFalse();
+        assertThat(index.daysBeforeMonth("A", 2025, 13)).isZero();
+    }
+
+    private void leave(String employeeId, String start, String end) {
+        rows.add(new Object[] { employeeId, day(start), day(end) });
+    }
+
+    private static LocalDate day(String text) {
+        return LocalDate.parse(text);
+    }
+}
@@ -0,0 +1,96 @@
+package root.cyb.mh.attendancesystem.service;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import root.cyb.mh.attendancesystem.dto.MonthlySummaryDto;
+import root.cyb.mh.attendancesystem.model.DailyAttendanceFact;
+import root.cyb.mh.attendancesystem.model.Employee;
+import root.cyb.mh.attendancesystem.model.MonthlyAttendanceRollup;
+import root.cyb.mh.attendancesystem.repository.DailyAttendanceFactRepository;
+import root.cyb.mh.attendancesystem.repository.LeaveRequestRepository;
+import root.cyb.mh.attendancesystem.repository.MonthlyAttendanceRollupRepository;
+import root.cyb.mh.attendancesystem.repository.WorkScheduleRepository;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+class MonthlyRollupServiceTest {
+
+    private static final YearMonth MONTH = YearMonth.of(2025, 3);
+
+    private final MonthlyAttendanceRollupRepository rollupRepository = mock(MonthlyAttendanceRollupRepository.class);
+    private final DailyAttendanceMaterializer materializer = spy(new DailyAttendanceMaterializer());
+    private final MonthlyRollupService service = new MonthlyRollupService();
+    private final List<Employee> employees = List.of(employee("A"), employee("B"));
+
+    MonthlyRollupServiceTest() {
+        ReflectionTestUtils.setField(materializer, "factRepository", mock(DailyAttendanceFactRepository.class));
+        ReflectionTestUtils.setField(materializer, "rollupRepository", rollupRepository);
+        ReflectionTestUtils.setField(service, "rollupRepository", rollupRepository);
+        ReflectionTestUtils.setField(service, "dailyAttendanceMaterializer", materializer);
+        ReflectionTestUtils.setField(service, "leaveRequestRepository", mock(LeaveRequestRepository.class));
+        ReflectionTestUtils.setField(service, "workScheduleRepository", mock(WorkScheduleRepository.class));
+    }
+
+    @Test
+    void storesBuiltRollups() {
+        stubFacts(null);
+
+        List<MonthlySummaryDto> summaries = service.getSummaries(employees, MONTH.getYear(), MONTH.getMonthValue());
+
+        assertThat(summaries).extracting(MonthlySummaryDto::getEmployeeId).containsExactly("A", "B");
+        assertThat(inserted()).containsExactly("A", "B");
+    }
+
+    @Test
+    void dropsRollupsOfEmployeesInvalidatedWhileBuilding() {
+        stubFacts("B");
+
+        List<MonthlySummaryDto> summaries = service.getSummaries(employees, MONTH.getYear(), MONTH.getMonthValue());
+
+        assertThat(summaries).hasSize(2);
+        assertThat(inserted()).containsExactly("A");
+    }
+
+    // Facts for every day of the month; optionally invalidates an employee mid-build
+    private void stubFacts(String invalidated) {
+        doAnswer(invocation -> {
+            if (invalidated != null)
+                materializer.invalidateEmployee(invalidated);
+            Map<String, Map<LocalDate, DailyAttendanceFact>> facts = new HashMap<>();
+            for (Employee emp : employees) {
+                Map<LocalDate, DailyAttendanceFact> days = new HashMap<>();
+                for (LocalDate d = MONTH.atDay(1); !d.isAfter(MONTH.atEndOfMonth()); d = d.plusDays(1)) {
+                    days.put(d, new DailyAttendanceFact());
+                }
+                facts.put(emp.getId(), days);
+            }
+            return facts;
+        }).when(materializer).getFacts(anyCollection(), any(LocalDate.class), any(LocalDate.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> inserted() {
+        ArgumentCaptor<List<MonthlyAttendanceRollup>> captor = ArgumentCaptor.forClass(List.class);
+        verify(rollupRepository).insertAll(captor.capture());
+        return captor.getValue().stream().map(MonthlyAttendanceRollup::getEmployeeId).toList();
+    }
+
+    private static Employee employee(String id) {
+        Employee emp = new Employee();
+        emp.setId(id);
+        return emp;
+    }
+}
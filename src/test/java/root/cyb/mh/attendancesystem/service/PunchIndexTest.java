@@ -0,0 +1,77 @@
+package root.cyb.mh.attendancesystem.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PunchIndexTest {
+
+    private static final LocalDate FROM = LocalDate.of(2024, 12, 30);
+    private static final LocalDate TO = LocalDate.of(2025, 1, 2);
+
+    private final PunchIndex index = new PunchIndex(FROM, TO);
+
+    @Test
+    void keepsCountAndFirstAndLastRegardlessOfOrder() {
+        index.add("A", at("2024-12-31T17:45:00"));
+        index.add("A", at("2024-12-31T08:59:30"));
+        index.add("A", at("2024-12-31T12:00:00"));
+
+        LocalDate day = LocalDate.of(2024, 12, 31);
+        assertThat(index.count("A", day)).isEqualTo(3);
+        assertThat(index.firstIn("A", day)).isEqualTo(LocalTime.of(8, 59, 30));
+        assertThat(index.lastOut("A", day)).isEqualTo(LocalTime.of(17, 45));
+    }
+
+    @Test
+    void singlePunchIsBothFirstAndLast() {
+        index.add("A", at("2025-01-01T00:00:00"));
+
+        LocalDate day = LocalDate.of(2025, 1, 1);
+        assertThat(index.count("A", day)).isEqualTo(1);
+        assertThat(index.firstIn("A", day)).isEqualTo(LocalTime.MIDNIGHT);
+        assertThat(index.lastOut("A", day)).isEqualTo(LocalTime.MIDNIGHT);
+    }
+
+    @Test
+    void bucketsByEmployeeAndDay() {
+        index.add("A", at("2024-12-30T09:00:00"));
+        index.add("B", at("2024-12-30T10:00:00"));
+        index.add("A", at("2025-01-02T23:59:59"));
+
+        assertThat(index.count("A", FROM)).isEqualTo(1);
+        assertThat(index.firstIn("B", FROM)).isEqualTo(LocalTime.of(10, 0));
+        assertThat(index.count("A", LocalDate.of(2024, 12, 31))).isZero();
+        assertThat(index.lastOut("A", TO)).isEqualTo(LocalTime.of(23, 59, 59));
+    }
+
+    @Test
+    void emptyDaysAndUnknownEmployeesHaveNoPunches() {
+        index.add("A", at("2024-12-30T09:00:00"));
+
+        assertThat(index.count("A", TO)).isZero();
+        assertThat(index.firstIn("A", TO)).isNull();
+        assertThat(index.lastOut("A", TO)).isNull();
+        assertThat(index.count("Z", FROM)).isZero();
+        assertThat(index.firstIn("Z", FROM)).isNull();
+    }
+
+    @Test
+    void ignoresPunchesAndLookupsOutsideTheRange() {
+        index.add("A", at("2024-12-29T23:59:59"));
+        index.add("A", at("2025-01-03T00:00:00"));
+
+        assertThat(index.count("A", FROM)).isZero();
+        assertThat(index.count("A", TO)).isZero();
+        assertThat(index.count("A", LocalDate.of(2025, 1, 3))).isZero();
+        assertThat(index.firstIn("A", LocalDate.of(2024, 12, 29))).isNull();
+    }
+
+    private static LocalDateTime at(String text) {
+        return LocalDateTime.parse(text);
+    }
+}
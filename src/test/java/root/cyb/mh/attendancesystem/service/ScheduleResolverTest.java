@@ -0,0 +1,143 @@
+package root.cyb.mh.attendancesystem.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import root.cyb.mh.attendancesystem.model.Shift;
+import root.cyb.mh.attendancesystem.model.WorkSchedule;
+import root.cyb.mh.attendancesystem.repository.EmployeeShiftRepository;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ScheduleResolverTest {
+
+    private static final Shift MORNING = shift("Morning", 6);
+    private static final Shift NIGHT = shift("Night", 22);
+    private static final Shift DAY = shift("Day", 9);
+
+    private final EmployeeShiftRepository repository = mock(EmployeeShiftRepository.class);
+    private final ScheduleResolver resolver = new ScheduleResolver();
+    // Oldest start first, as findAllIntervals returns them
+    private final List<Object[]> rows = new ArrayList<>();
+
+    ScheduleResolverTest() {
+        ReflectionTestUtils.setField(resolver, "employeeShiftRepository", repository);
+        when(repository.findAllIntervals()).thenReturn(rows);
+    }
+
+    @Test
+    void assignmentBoundsAreInclusive() {
+        assign("A", "2025-03-01", "2025-03-31", MORNING);
+
+        assertThat(shiftOn("A", "2025-02-28")).isNull();
+        assertThat(shiftOn("A", "2025-03-01")).isSameAs(MORNING);
+        assertThat(shiftOn("A", "2025-03-31")).isSameAs(MORNING);
+        assertThat(shiftOn("A", "2025-04-01")).isNull();
+        assertThat(shiftOn("B", "2025-03-15")).isNull();
+    }
+
+    @Test
+    void laterAssignmentInsideAnEarlierOneSplitsIt() {
+        assign("A", "2025-01-01", "2025-12-31", MORNING);
+        assign("A", "2025-06-10", "2025-06-20", NIGHT);
+
+        assertThat(shiftOn("A", "2025-06-09")).isSameAs(MORNING);
+        assertThat(shiftOn("A", "2025-06-10")).isSameAs(NIGHT);
+        assertThat(shiftOn("A", "2025-06-20")).isSameAs(NIGHT);
+        assertThat(shiftOn("A", "2025-06-21")).isSameAs(MORNING);
+        assertThat(shiftOn("A", "2025-12-31")).isSameAs(MORNING);
+    }
+
+    @Test
+    void laterAssignmentOverlappingTheTailTakesOver() {
+        assign("A", "2025-01-01", "2025-01-31", MORNING);
+        assign("A", "2025-01-20", "2025-02-10", NIGHT);
+
+        assertThat(shiftOn("A", "2025-01-19")).isSameAs(MORNING);
+        assertThat(shiftOn("A", "2025-01-20")).isSameAs(NIGHT);
+        assertThat(shiftOn("A", "2025-02-10")).isSameAs(NIGHT);
+        assertThat(shiftOn("A", "2025-02-11")).isNull();
+    }
+
+    @Test
+    void assignmentSpanningSeveralSegmentsKeepsTheirOuterParts() {
+        assign("A", "2025-01-01", "2025-01-10", MORNING);
+        assign("A", "2025-01-05", "2025-01-20", NIGHT);
+        assign("A", "2025-01-15", "2025-01-31", DAY);
+        assign("A", "2025-01-03", "2025-01-17", MORNING);
+
+        assertThat(shiftOn("A", "2025-01-02")).isSameAs(MORNING);
+        assertThat(shiftOn("A", "2025-01-10")).isSameAs(MORNING);
+        assertThat(shiftOn("A", "2025-01-17")).isSameAs(MORNING);
+        assertThat(shiftOn("A", "2025-01-18")).isSameAs(DAY);
+        assertThat(shiftOn("A", "2025-01-31")).isSameAs(DAY);
+    }
+
+    @Test
+    void sameStartLaterRowWins() {
+        assign("A", "2025-03-01", "2025-03-31", MORNING);
+        assign("A", "2025-03-01", "2025-03-10", NIGHT);
+
+        assertThat(shiftOn("A", "2025-03-10")).isSameAs(NIGHT);
+        assertThat(shiftOn("A", "2025-03-11")).isSameAs(MORNING);
+    }
+
+    @Test
+    void skipsInvertedAssignments() {
+        assign("A", "2025-03-31", "2025-03-01", MORNING);
+
+        assertThat(shiftOn("A", "2025-03-15")).isNull();
+    }
+
+    @Test
+    void resolveScheduleUsesShiftTimesAndGlobalWeekend() {
+        assign("A", "2025-03-01", "2025-03-31", NIGHT);
+        WorkSchedule global = new WorkSchedule();
+        global.setWeekendDays("5,6");
+        global.setDefaultAnnualLeaveQuota(20);
+
+        WorkSchedule onShift = resolver.resolveSchedule("A", LocalDate.parse("2025-03-05"), global);
+        assertThat(onShift.getStartTime()).isEqualTo(LocalTime.of(22, 0));
+        assertThat(onShift.getWeekendDays()).isEqualTo("5,6");
+        assertThat(onShift.getDefaultAnnualLeaveQuota()).isEqualTo(20);
+
+        assertThat(resolver.resolveSchedule("A", LocalDate.parse("2025-04-05"), global)).isSameAs(global);
+    }
+
+    @Test
+    void loadsOnceUntilInvalidated() {
+        assign("A", "2025-03-01", "2025-03-31", MORNING);
+        shiftOn("A", "2025-03-01");
+        shiftOn("A", "2025-03-02");
+        verify(repository, times(1)).findAllIntervals();
+
+        assign("A", "2025-03-01", "2025-03-31", NIGHT);
+        assertThat(shiftOn("A", "2025-03-01")).isSameAs(MORNING);
+        resolver.invalidate();
+        assertThat(shiftOn("A", "2025-03-01")).isSameAs(NIGHT);
+    }
+
+    private void assign(String employeeId, String start, String end, Shift shift) {
+        rows.add(new Object[] { employeeId, LocalDate.parse(start), LocalDate.parse(end), shift });
+    }
+
+    private Shift shiftOn(String employeeId, String date) {
+        return resolver.getShift(employeeId, LocalDate.parse(date));
+    }
+
+    private static Shift shift(String name, int startHour) {
+        Shift shift = new Shift();
+        shift.setName(name);
+        shift.setStartTime(LocalTime.of(startHour, 0));
+        shift.setEndTime(LocalTime.of((startHour + 9) % 24, 0));
+        return shift;
+    }
+}
@@ -0,0 +1,160 @@
+package root.cyb.mh.attendancesystem.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import root.cyb.mh.attendancesystem.dto.DailyAttendanceDto;
+import root.cyb.mh.attendancesystem.model.AttendanceLog;
+import root.cyb.mh.attendancesystem.model.DailyAttendanceFact;
+import root.cyb.mh.attendancesystem.model.Employee;
+import root.cyb.mh.attendancesystem.model.WorkSchedule;
+import root.cyb.mh.attendancesystem.repository.EmployeeRepository;
+import root.cyb.mh.attendancesystem.repository.WorkScheduleRepository;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TodayStatusBoardTest {
+
+    private final LocalDate today = LocalDate.now();
+    private final EmployeeRepository employeeRepository = mock(EmployeeRepository.class);
+    private final DailyAttendanceMaterializer materializer = mock(DailyAttendanceMaterializer.class);
+    private final ScheduleResolver scheduleResolver = mock(ScheduleResolver.class);
+    private final TodayStatusBoard board = new TodayStatusBoard();
+    private final List<Employee> employees = new ArrayList<>();
+    private final List<Event> events = new ArrayList<>();
+
+    TodayStatusBoardTest() {
+        ReflectionTestUtils.setField(board, "employeeRepository", employeeRepository);
+        ReflectionTestUtils.setField(board, "dailyAttendanceMaterializer", materializer);
+        ReflectionTestUtils.setField(board, "scheduleResolver", scheduleResolver);
+        ReflectionTestUtils.setField(board, "workScheduleRepository", mock(WorkScheduleRepository.class));
+        WorkSchedule schedule = new WorkSchedule();
+        schedule.setStartTime(LocalTime.of(9, 0));
+        schedule.setEndTime(LocalTime.of(17, 0));
+        when(scheduleResolver.resolveSchedule(anyString(), any(), any())).thenReturn(schedule);
+        when(employeeRepository.findAll()).thenReturn(employees);
+        when(materializer.getFacts(anyCollection(), eq(today), eq(today))).thenAnswer(invocation -> {
+            Map<String, Map<LocalDate, DailyAttendanceFact>> facts = new HashMap<>();
+            for (Employee emp : employees) {
+                facts.put(emp.getId(), new HashMap<>(Map.of(today, new DailyAttendanceFact())));
+            }
+            return facts;
+        });
+        when(materializer.getFacts(any(Employee.class), eq(today), eq(today)))
+                .thenAnswer(invocation -> new HashMap<>(Map.of(today, new DailyAttendanceFact())));
+        board.addListener((day, changed, removed) -> events.add(new Event(changed, removed, Thread.holdsLock(board))));
+    }
+
+    @Test
+    void punchReplacesOnlyThatRowAndReportsIt() {
+        employee("A", false);
+        employee("B", false);
+        board.reload();
+        List<DailyAttendanceDto> staff = board.snapshot();
+        DailyAttendanceDto b = staff.get(1);
+        events.clear();
+
+        board.punches(List.of(punch("A", 8, 55)));
+
+        assertThat(events).hasSize(1);
+        assertThat(events.get(0).changed).extracting(DailyAttendanceDto::getEmployeeId).containsExactly("A");
+        assertThat(events.get(0).removed).isEmpty();
+        // The earlier list sees the new row; the other row is untouched
+        assertThat(staff.get(0).getInTime()).isEqualTo(LocalTime.of(8, 55));
+        assertThat(staff.get(1)).isSameAs(b);
+        assertThat(board.get("A")).isSameAs(staff.get(0));
+    }
+
+    @Test
+    void listenersRunAfterTheBoardLockIsReleased() {
+        employee("A", false);
+        board.reload();
+        board.punches(List.of(punch("A", 9, 30)));
+
+        assertThat(events).hasSize(2).noneMatch(e -> e.underLock);
+    }
+
+    @Test
+    void guestPunchesUpdateTheBoardButAreNotReported() {
+        employee("A", false);
+        employee("G", true);
+        board.reload();
+        events.clear();
+
+        board.punches(List.of(punch("G", 9, 0)));
+
+        assertThat(events).isEmpty();
+        assertThat(board.snapshot()).extracting(DailyAttendanceDto::getEmployeeId).containsExactly("A");
+        assertThat(board.get("G").getInTime()).isEqualTo(LocalTime.of(9, 0));
+    }
+
+    @Test
+    void employeeWhoAppearsLaterJoinsTheSnapshot() {
+        employee("A", false);
+        board.reload();
+        events.clear();
+        Employee c = new Employee();
+        c.setId("C");
+        when(employeeRepository.findById("C")).thenReturn(Optional.of(c));
+
+        board.punches(List.of(punch("C", 8, 0)));
+
+        assertThat(board.snapshot()).extracting(DailyAttendanceDto::getEmployeeId).containsExactly("A", "C");
+        assertThat(events).hasSize(1);
+        assertThat(events.get(0).changed).extracting(DailyAttendanceDto::getEmployeeId).containsExactly("C");
+    }
+
+    @Test
+    void recomputeOfADeletedEmployeeReportsItRemoved() {
+        employee("A", false);
+        employee("B", false);
+        board.reload();
+        events.clear();
+        when(employeeRepository.findById("B")).thenReturn(Optional.empty());
+
+        board.recompute("B");
+
+        assertThat(board.snapshot()).extracting(DailyAttendanceDto::getEmployeeId).containsExactly("A");
+        assertThat(events).hasSize(1);
+        assertThat(events.get(0).removed).containsExactly("B");
+    }
+
+    private void employee(String id, boolean guest) {
+        Employee emp = new Employee();
+        emp.setId(id);
+        emp.setGuest(guest);
+        employees.add(emp);
+    }
+
+    private AttendanceLog punch(String employeeId, int hour, int minute) {
+        AttendanceLog log = new AttendanceLog();
+        log.setEmployeeId(employeeId);
+        log.setTimestamp(today.atTime(hour, minute));
+        return log;
+    }
+
+    private static final class Event {
+        final List<DailyAttendanceDto> changed;
+        final List<String> removed;
+        final boolean underLock;
+
+        Event(List<DailyAttendanceDto> changed, List<String> removed, boolean underLock) {
+            this.changed = changed;
+            this.removed = removed;
+            this.underLock = underLock;
+        }
+    }
+}
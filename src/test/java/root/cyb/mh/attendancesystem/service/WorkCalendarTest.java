@@ -0,0 +1,138 @@
+package root.cyb.mh.attendancesystem.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import root.cyb.mh.attendancesystem.model.PublicHoliday;
+import root.cyb.mh.attendancesystem.model.WorkSchedule;
+import root.cyb.mh.attendancesystem.repository.PublicHolidayRepository;
+import root.cyb.mh.attendancesystem.repository.WorkScheduleRepository;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class WorkCalendarTest {
+
+    private final WorkScheduleRepository scheduleRepository = mock(WorkScheduleRepository.class);
+    private final PublicHolidayRepository holidayRepository = mock(PublicHolidayRepository.class);
+    private final WorkCalendar calendar = new WorkCalendar();
+    private final List<PublicHoliday> holidays = new ArrayList<>();
+
+    WorkCalendarTest() {
+        ReflectionTestUtils.setField(calendar, "workScheduleRepository", scheduleRepository);
+        ReflectionTestUtils.setField(calendar, "publicHolidayRepository", holidayRepository);
+        when(holidayRepository.findAll()).thenReturn(holidays);
+    }
+
+    @Test
+    void parsesWeekendMask() {
+        assertThat(WorkCalendar.parseWeekendMask(null)).isEqualTo(0b1100000);
+        assertThat(WorkCalendar.parseWeekendMask("")).isZero();
+        assertThat(WorkCalendar.parseWeekendMask(" 5 , 6,,x,9,0")).isEqualTo(0b0110000);
+        assertThat(WorkCalendar.parseWeekendMask("1,7")).isEqualTo(0b1000001);
+    }
+
+    @Test
+    void emptyWeekendStringMeansEveryDayIsWorked() {
+        schedule("");
+
+        assertThat(calendar.isWeekend(LocalDate.of(2025, 3, 8))).isFalse();
+        assertThat(calendar.countWorkingDays(LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 31))).isEqualTo(31);
+    }
+
+    @Test
+    void missingScheduleFallsBackToSaturdayAndSunday() {
+        when(scheduleRepository.findAll()).thenReturn(List.of());
+
+        assertThat(calendar.isWeekend(LocalDate.of(2025, 3, 8))).isTrue();
+        assertThat(calendar.isWeekend(LocalDate.of(2025, 3, 9))).isTrue();
+        assertThat(calendar.isWeekend(LocalDate.of(2025, 3, 10))).isFalse();
+    }
+
+    @Test
+    void holidayOnAWeekendIsNotCountedTwice() {
+        schedule("6,7");
+        holiday(LocalDate.of(2025, 3, 8)); // Saturday
+        holiday(LocalDate.of(2025, 3, 12)); // Wednesday
+
+        assertThat(calendar.isHoliday(LocalDate.of(2025, 3, 8))).isTrue();
+        assertThat(calendar.isWorkingDay(LocalDate.of(2025, 3, 12))).isFalse();
+        // 10 weekdays in 2025-03-03..14, minus the Wednesday holiday
+        assertThat(calendar.countWorkingDays(LocalDate.of(2025, 3, 3), LocalDate.of(2025, 3, 14))).isEqualTo(9);
+    }
+
+    @Test
+    void emptyAndSingleDayRanges() {
+        schedule("6,7");
+
+        assertThat(calendar.countWorkingDays(LocalDate.of(2025, 3, 10), LocalDate.of(2025, 3, 9))).isZero();
+        assertThat(calendar.countWorkingDays(LocalDate.of(2025, 3, 10), LocalDate.of(2025, 3, 10))).isEqualTo(1);
+        assertThat(calendar.countWorkingDays(LocalDate.of(2025, 3, 9), LocalDate.of(2025, 3, 9))).isZero();
+    }
+
+    @Test
+    void countMatchesWalkingEveryDayAcrossYearBoundaries() {
+        schedule("5,6");
+        holiday(LocalDate.of(2023, 12, 25));
+        holiday(LocalDate.of(2024, 1, 1));
+        holiday(LocalDate.of(2024, 2, 29));
+        holiday(LocalDate.of(2024, 12, 31));
+        holiday(LocalDate.of(2025, 1, 1));
+        holiday(LocalDate.of(1969, 12, 31));
+
+        Random random = new Random(7);
+        LocalDate base = LocalDate.of(1969, 12, 1);
+        for (int i = 0; i < 500; i++) {
+            LocalDate start = i % 2 == 0
+                    ? LocalDate.of(2023, 12, 1).plusDays(random.nextInt(450))
+                    : base.plusDays(random.nextInt(90));
+            LocalDate end = start.plusDays(random.nextInt(400));
+            assertThat(calendar.countWorkingDays(start, end))
+                    .as("%s..%s", start, end)
+                    .isEqualTo(walk(start, end, DayOfWeek.FRIDAY, DayOfWeek.SATURDAY));
+        }
+    }
+
+    @Test
+    void reloadsOnlyAfterInvalidate() {
+        schedule("6,7");
+        LocalDate day = LocalDate.of(2025, 5, 1);
+        assertThat(calendar.isHoliday(day)).isFalse();
+
+        holiday(day);
+        assertThat(calendar.isHoliday(day)).isFalse();
+        calendar.invalidate();
+        assertThat(calendar.isHoliday(day)).isTrue();
+    }
+
+    private int walk(LocalDate start, LocalDate end, DayOfWeek... weekend) {
+        Set<LocalDate> holidayDates = new HashSet<>();
+        holidays.forEach(h -> holidayDates.add(h.getDate()));
+        int count = 0;
+        for (LocalDate d = start; !d.isAfter(end); d = d.plusDays(1)) {
+            if (!List.of(weekend).contains(d.getDayOfWeek()) && !holidayDates.contains(d))
+                count++;
+        }
+        return count;
+    }
+
+    private void schedule(String weekendDays) {
+        WorkSchedule schedule = new WorkSchedule();
+        schedule.setWeekendDays(weekendDays);
+        when(scheduleRepository.findAll()).thenReturn(List.of(schedule));
+    }
+
+    private void holiday(LocalDate date) {
+        PublicHoliday holiday = new PublicHoliday();
+        holiday.setDate(date);
+        holidays.add(holiday);
+    }
+}